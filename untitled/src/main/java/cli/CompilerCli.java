@@ -1,18 +1,23 @@
 package main.java.cli;
 
+import main.java.codegenerator.FunctionCache;
 import main.java.codegenerator.GenerationResult;
 import main.java.codegenerator.JavaGenerator;
 import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.codegenerator.LineTableRewriter;
+import main.java.codegenerator.SourceMap;
+import main.java.lexeur.Jeton;
+import main.java.lexeur.Lexeur;
 import main.java.parseur.AnaSynt;
 import main.java.parseur.ast.Programme;
 import main.java.semantic.AnalyseSemantique;
 import main.java.semantic.ErreurSemantique;
 import utils.diag.DiagnosticCollector;
 import utils.diag.SourceTexte;
+import utils.io.IOUtils;
+import utils.lang.Interneur;
 
-import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
-import javax.tools.ToolProvider;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -31,6 +36,8 @@ import java.util.List;
  *   mvn -q -DskipTests package
  *   java -cp target/classes main.java.cli.CompilerCli programme.fc
  *   java -cp target/classes main.java.cli.CompilerCli --class -o out programme.fc
+ *   java -cp target/classes main.java.cli.CompilerCli --cache .fc-cache -o out programme.fc
+ *   java -cp target/classes main.java.cli.CompilerCli --class --fonctions-par-classe 500 -o out gros.fc
  *   cat programme.fc | java -cp target/classes main.java.cli.CompilerCli --stdout -
  */
 public final class CompilerCli {
@@ -40,9 +47,10 @@ public final class CompilerCli {
     private static final int EXIT_DIAGS = 1; // erreurs de compilation (parser/sémantique)
     private static final int EXIT_JAVAC = 2; // javac a échoué
     private static final int EXIT_INTERNAL = 3; // bug / exception inattendue
-    private static final int EXIT_USAGE = 64; // mauvaise utilisation
+    static final int EXIT_USAGE = 64; // mauvaise utilisation
 
     private static final String DEFAULT_OUT_JAVA = "ProgrammePrincipal.java";
+    private static final int DEFAULT_MAX_ERREURS = 100;
 
     private CompilerCli() {}
 
@@ -81,105 +89,272 @@ public final class CompilerCli {
     }
 
     private static void run(Args args) throws IOException {
-        // 1) lire source
-        SourceInput in = readSource(args.input);
-        String source = in.source;
-        String displayName = in.displayName;
-
-        SourceTexte src = new SourceTexte(displayName, source);
-        DiagnosticCollector diags = new DiagnosticCollector(src);
-
-        // 2) parsing
-        Programme programme = AnaSynt.analyser(source, diags);
-        if (programme == null || diags.aDesErreurs()) {
-            throw new Exit(EXIT_DIAGS, diags.formatTous());
-        }
-
-        // 3) sémantique (sur le MÊME collector pour que tout soit formaté pareil)
-        AnalyseSemantique sem = new AnalyseSemantique(diags);
-        try {
-            sem.verifier(programme);
-        } catch (ErreurSemantique ignored) {
-            // Certains designs jettent ErreurSemantique, mais les diagnostics existent déjà.
-        }
-        if (diags.aDesErreurs()) {
-            throw new Exit(EXIT_DIAGS, diags.formatTous());
+        if (args.watch) {
+            Surveillance.executer(args);
+            return;
         }
 
-        // 4) génération Java (on réutilise sem, et on désactive la sémantique interne du générateur)
-        JavaGenerator gen = new JavaGenerator();
-        JavaGeneratorOptions opts = JavaGeneratorOptions.defaults()
-                .runSemanticAnalysis(false)
-                .semantic(sem);
+        // 1) lire source
+        SourceInput in = readSource(args.input);
 
-        GenerationResult res = gen.generate(programme, opts);
-        String javaSource = res.getJavaSource();
-        if (javaSource == null || javaSource.isBlank()) {
-            throw new Exit(EXIT_INTERNAL, "ERREUR INTERNE: génération Java vide.");
-        }
+        // 2) -> 4) parsing, sémantique, génération
+        FunctionCache cache = (args.cacheDir == null) ? null : ouvrirCache(args.cacheDir);
+        Compilation compilation = new Compilation(args.maxErreurs, false, cache, args.fonctionsParClasse);
+        String javaSource = compilation.genererJava(in.source, in.displayName);
 
         // 5) output Java
         if (args.stdout) {
             System.out.print(javaSource);
             if (!javaSource.endsWith("\n")) System.out.print("\n");
+            List<GenerationResult.Unite> unites = compilation.dernieresUnites;
+            for (int i = 1; i < unites.size(); i++) {
+                System.out.print("\n// ===== " + unites.get(i).nomClasse() + ".java =====\n");
+                System.out.print(unites.get(i).source());
+            }
         } else {
             Path outDir = args.outDir.toAbsolutePath().normalize();
             Files.createDirectories(outDir);
 
+            // contenu identique => ni écriture (mtime conservé) ni javac
             Path javaFile = outDir.resolve(args.outJavaName);
-            Files.writeString(javaFile, javaSource, StandardCharsets.UTF_8);
+            int ecritures = 1;
+            int evitees = 0;
+            boolean ecrit = IOUtils.ecrireTexteSiChange(javaFile, javaSource);
+            if (!ecrit) evitees++;
 
             if (!args.quiet) {
-                System.out.println("OK: " + javaFile);
+                System.out.println((ecrit ? "OK: " : "Inchangé: ") + javaFile);
+            }
+
+            // classes secondaires (--fonctions-par-classe) : Nom.java à côté du .java principal
+            List<Path> fichiers = fichiersJava(javaFile, compilation.dernieresUnites);
+            for (int i = 1; i < fichiers.size(); i++) {
+                ecritures++;
+                boolean e = IOUtils.ecrireTexteSiChange(fichiers.get(i), compilation.dernieresUnites.get(i).source());
+                if (e) ecrit = true;
+                else evitees++;
+                if (!args.quiet) System.out.println((e ? "OK: " : "Inchangé: ") + fichiers.get(i));
             }
+            if (!args.quiet && cache != null) System.out.println(cache);
 
             // 6) compile optionnelle
             if (args.emitClass) {
-                compileWithJavac(javaFile, outDir, args.quiet);
+                ecritures++;
+                if (ecrit || !classesAJour(fichiers)) {
+                    compileWithJavac(fichiers, outDir, args.quiet);
+                    if (!args.lignesJava) reecrireLignes(fichiers, compilation.dernieresUnites, in.displayName);
+                } else {
+                    evitees++;
+                }
+            }
+
+            if (!args.quiet && evitees > 0) {
+                System.out.println("Écritures évitées (contenu identique): " + evitees + "/" + ecritures);
             }
         }
     }
 
-    private static void compileWithJavac(Path javaFile, Path outDir, boolean quiet) {
-        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-        if (compiler == null) {
-            throw new Exit(EXIT_JAVAC,
-                    "Impossible de compiler en .class (ToolProvider.getSystemJavaCompiler() == null).\n" +
-                            "=> Lance la CLI avec un JDK (pas un JRE).");
+    /** Cache des fonctions sur disque (--cache) ; dossier inutilisable => erreur d'usage. */
+    static FunctionCache ouvrirCache(Path dossier) {
+        try {
+            return new FunctionCache(dossier.toAbsolutePath().normalize());
+        } catch (IOException e) {
+            throw new Exit(EXIT_USAGE, "Dossier de cache inutilisable: " + dossier + " (" + e.getMessage() + ")");
         }
+    }
 
-        javax.tools.DiagnosticCollector<JavaFileObject> diags = new javax.tools.DiagnosticCollector<>();
-
-        try (var fileManager = compiler.getStandardFileManager(diags, null, StandardCharsets.UTF_8)) {
-            Iterable<? extends JavaFileObject> units =
-                    fileManager.getJavaFileObjects(javaFile.toFile());
-
-            // Reco: --release pour éviter warnings modules
-            List<String> options = List.of(
-                    "--release", "17",
-                    "-encoding", "UTF-8",
-                    "-d", outDir.toString()
-            );
-
-            Boolean ok = compiler.getTask(null, fileManager, diags, options, null, units).call();
-            if (ok == null || !ok) {
-                StringBuilder sb = new StringBuilder();
-                sb.append("Echec javac pour ").append(javaFile).append("\n");
-                for (javax.tools.Diagnostic<? extends JavaFileObject> d : diags.getDiagnostics()) {
-                    sb.append(formatJavacDiagnostic(d)).append("\n");
-                }
-                throw new Exit(EXIT_JAVAC, sb.toString());
+    /**
+     * Fichiers .java d'une génération : le principal (nom choisi par --out-java), puis une
+     * classe secondaire par unité supplémentaire (NomClasse.java dans le même dossier).
+     */
+    static List<Path> fichiersJava(Path javaFile, List<GenerationResult.Unite> unites) {
+        List<Path> fichiers = new ArrayList<>(Math.max(1, unites.size()));
+        fichiers.add(javaFile);
+        for (int i = 1; i < unites.size(); i++) {
+            fichiers.add(javaFile.resolveSibling(unites.get(i).nomClasse() + ".java"));
+        }
+        return fichiers;
+    }
+
+    static boolean classesAJour(List<Path> fichiers) throws IOException {
+        for (Path f : fichiers) {
+            if (!classeAJour(f)) return false;
+        }
+        return true;
+    }
+
+    /** .class du même nom que le .java, au moins aussi récent que lui. */
+    static boolean classeAJour(Path javaFile) throws IOException {
+        Path classe = fichierClasse(javaFile);
+        return Files.isRegularFile(classe)
+                && Files.getLastModifiedTime(classe).compareTo(Files.getLastModifiedTime(javaFile)) >= 0;
+    }
+
+    private static Path fichierClasse(Path javaFile) {
+        String nom = javaFile.getFileName().toString();
+        return javaFile.resolveSibling(nom.substring(0, nom.length() - ".java".length()) + ".class");
+    }
+
+    /**
+     * Réécrit la table des lignes du .class principal (produit par javac à côté du .java)
+     * pour que traces de pile et profileurs désignent les lignes du .fc.
+     */
+    static void reecrireLignes(List<Path> fichiers, List<GenerationResult.Unite> unites, String displayName) {
+        for (int i = 0; i < fichiers.size() && i < unites.size(); i++) {
+            reecrireLignes(fichiers.get(i), unites.get(i).sourceMap(), displayName);
+        }
+    }
+
+    static void reecrireLignes(Path javaFile, SourceMap carte, String displayName) {
+        if (carte == null || carte.estVide()) return;
+        String nomFc = displayName.substring(Math.max(displayName.lastIndexOf('/'), displayName.lastIndexOf('\\')) + 1);
+        Path classe = fichierClasse(javaFile);
+        try {
+            byte[] octets = Files.readAllBytes(classe);
+            Files.write(classe, LineTableRewriter.rewrite(octets, carte, nomFc));
+        } catch (IOException | IllegalArgumentException e) {
+            throw new Exit(EXIT_JAVAC, "Réécriture des lignes de " + classe + " impossible: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Pipeline source -> Java, et l'état qu'on peut garder d'une compilation à l'autre
+     * d'un même fichier (mode --watch) : interneur, collecteur, analyse sémantique incrémentale,
+     * cache du Java par fonction (peut être partagé entre fichiers).
+     */
+    static final class Compilation {
+        private final DiagnosticCollector diags;
+        // noms partagés lexeur -> sémantique ; remplacés ensemble quand l'interneur grossit sans borne
+        // au fil des recompilations (Interneur.aCompacter)
+        private Interneur interneur = new Interneur();
+        private AnalyseSemantique sem;
+        private final boolean incrementale;
+        private final FunctionCache cache; // null = chaque fonction est réémise
+        private final int fonctionsParClasse; // 0 = une seule classe
+
+        /** Dernier Java écrit pour ce fichier (null = inconnu) ; géré par Surveillance. */
+        String dernierJava;
+
+        /** Carte source du dernier Java généré (lignes .fc des .class). */
+        SourceMap derniereCarte = SourceMap.VIDE;
+
+        /** Unités de la dernière génération, principale d'abord (plusieurs avec --fonctions-par-classe). */
+        List<GenerationResult.Unite> dernieresUnites = List.of();
+
+        Compilation(int maxErreurs, boolean incrementale, FunctionCache cache, int fonctionsParClasse) {
+            this.diags = new DiagnosticCollector().limiteErreurs(maxErreurs);
+            // sémantique sur le MÊME collector pour que tout soit formaté pareil
+            this.sem = new AnalyseSemantique(diags, interneur);
+            this.incrementale = incrementale;
+            this.cache = cache;
+            this.fonctionsParClasse = fonctionsParClasse;
+        }
+
+        /** @throws Exit EXIT_DIAGS avec les diagnostics formatés si la source est invalide */
+        String genererJava(String source, String displayName) {
+            diags.vider();
+            diags.definirSourceParDefaut(new SourceTexte(displayName, source));
+
+            // parsing
+            Lexeur lexeur = new Lexeur(source, diags, interneur);
+            List<Jeton> jetons = lexeur.analyser();
+            if (interneur.aCompacter(lexeur.identifiantsDistincts())) {
+                interneur = new Interneur();
+                sem = new AnalyseSemantique(diags, interneur);
             }
-        } catch (IOException e) {
-            throw new Exit(EXIT_JAVAC, "Echec javac: " + e.getMessage());
+            Programme programme = AnaSynt.analyserParallele(jetons, diags);
+            if (programme == null || diags.aDesErreurs()) {
+                throw new Exit(EXIT_DIAGS, diags.formatTous());
+            }
+
+            // sémantique
+            try {
+                if (incrementale) sem.verifierIncremental(programme);
+                else sem.verifier(programme);
+            } catch (ErreurSemantique ignored) {
+                // Certains designs jettent ErreurSemantique, mais les diagnostics existent déjà.
+            }
+            if (diags.aDesErreurs()) {
+                throw new Exit(EXIT_DIAGS, diags.formatTous());
+            }
+
+            // génération Java (on réutilise sem, et on désactive la sémantique interne du générateur)
+            JavaGenerator gen = new JavaGenerator();
+            JavaGeneratorOptions opts = JavaGeneratorOptions.defaults()
+                    .runSemanticAnalysis(false)
+                    .semantic(sem)
+                    .sourceMap(true)
+                    .functionCache(cache)
+                    .fonctionsMaxParClasse(fonctionsParClasse);
+
+            GenerationResult res = gen.generate(programme, opts);
+            String javaSource = res.getJavaSource();
+            if (javaSource == null || javaSource.isBlank()) {
+                throw new Exit(EXIT_INTERNAL, "ERREUR INTERNE: génération Java vide.");
+            }
+            derniereCarte = res.getSourceMap();
+            dernieresUnites = res.getUnites();
+            return javaSource;
         }
+    }
+
+    /**
+     * Classes d'un programme (découpé ou non) compilées ensemble. Plusieurs classes et plusieurs coeurs :
+     * autant de tâches javac parallèles que de threads du pool (au plus une par classe), chaque tâche
+     * lisant les autres classes depuis leur source (-sourcepath) sans les regénérer. Ce relu coûte du
+     * CPU : sur un seul coeur, une seule tâche pour tout, comme avant.
+     */
+    static void compileWithJavac(List<Path> javaFiles, Path outDir, boolean quiet) {
+        List<JavacParallele.Tache> taches = tachesJavac(javaFiles, outDir, JavacParallele.TAILLE_POOL);
+        String echecs = echecsJavac(taches, compilerTaches(taches));
+        if (echecs != null) throw new Exit(EXIT_JAVAC, echecs);
 
         if (!quiet) {
             System.out.println("OK: .class générés dans " + outDir);
         }
     }
 
-    private static String formatJavacDiagnostic(javax.tools.Diagnostic<? extends JavaFileObject> d) {
+    /** Fichiers d'un programme répartis en au plus maxTaches tâches (une seule : sans -sourcepath). */
+    static List<JavacParallele.Tache> tachesJavac(List<Path> javaFiles, Path outDir, int maxTaches) {
+        int groupes = Math.max(1, Math.min(javaFiles.size(), maxTaches));
+        List<JavacParallele.Tache> taches = new ArrayList<>(groupes);
+        for (int g = 0; g < groupes; g++) {
+            List<Path> groupe = new ArrayList<>();
+            for (int i = g; i < javaFiles.size(); i += groupes) groupe.add(javaFiles.get(i));
+            taches.add(new JavacParallele.Tache(groupe, outDir, (groupes == 1) ? null : groupe.get(0).getParent()));
+        }
+        return taches;
+    }
+
+    /** @throws Exit EXIT_JAVAC sans compilateur (JRE) */
+    static List<JavacParallele.Resultat> compilerTaches(List<JavacParallele.Tache> taches) {
+        if (JavacParallele.compilateur() == null) {
+            throw new Exit(EXIT_JAVAC,
+                    "Impossible de compiler en .class (ToolProvider.getSystemJavaCompiler() == null).\n" +
+                            "=> Lance la CLI avec un JDK (pas un JRE).");
+        }
+        try {
+            return JavacParallele.compiler(taches);
+        } catch (java.io.UncheckedIOException e) {
+            throw new Exit(EXIT_JAVAC, "Echec javac: " + e.getCause().getMessage());
+        }
+    }
+
+    /** Diagnostics des tâches en échec, dans l'ordre des tâches ; null si toutes ont réussi. */
+    static String echecsJavac(List<JavacParallele.Tache> taches, List<JavacParallele.Resultat> resultats) {
+        StringBuilder sb = null;
+        for (int i = 0; i < resultats.size(); i++) {
+            JavacParallele.Resultat r = resultats.get(i);
+            if (r.ok()) continue;
+            if (sb == null) sb = new StringBuilder();
+            sb.append("Echec javac pour ").append(String.join(", ",
+                    taches.get(i).sources().stream().map(Path::toString).toList())).append("\n");
+            for (String d : r.diagnostics()) sb.append(d).append("\n");
+        }
+        return (sb == null) ? null : sb.toString();
+    }
+
+    static String formatJavacDiagnostic(javax.tools.Diagnostic<? extends JavaFileObject> d) {
         String file = (d.getSource() == null) ? "<unknown>" : d.getSource().getName();
         long line = d.getLineNumber();
         long col = d.getColumnNumber();
@@ -205,13 +380,15 @@ public final class CompilerCli {
             throw new Exit(EXIT_USAGE, "Fichier introuvable: " + input);
         }
 
-        String source = Files.readString(input, StandardCharsets.UTF_8);
+        // Décodage tolérant : octets invalides => U+FFFD, rejetés ensuite par la pré-vérification du lexeur
+        String source = new String(Files.readAllBytes(input), StandardCharsets.UTF_8);
         return new SourceInput(input.toString(), source);
     }
 
     private static String usage() {
         return """
                 Usage: compiler [options] <fichier.fc|->
+                       compiler --watch [options] <fichier.fc|dossier>
 
                 Entrée:
                   <fichier.fc>   fichier source (UTF-8)
@@ -223,8 +400,14 @@ public final class CompilerCli {
                 Options:
                   -o, --out <dossier>    Dossier de sortie (défaut: .)
                   --out-java <nom>       Nom du fichier Java (défaut: ProgrammePrincipal.java)
-                  --class                Compile aussi en .class (via javac)
+                  --class                Compile aussi en .class (via javac), lignes du .fc dans les traces
+                  --lignes-java          Avec --class : garde les numéros de ligne du Java généré
                   --stdout               Écrit le Java généré sur stdout (ignore -o/--class)
+                  --cache <dossier>      Réutilise le Java des fonctions inchangées (cache persistant)
+                  --fonctions-par-classe <n>
+                                         Découpe en plusieurs classes Java de n fonctions au plus (0 = une seule)
+                  --max-erreurs <n>      Arrête la compilation après n erreurs (défaut: 100, 0 = illimité)
+                  --watch                Recompile à chaque modification (dossier : chaque .fc vers <sortie>/<nom>/)
                   -q, --quiet            Mode silencieux
                   -h, --help             Aide
                 """;
@@ -234,21 +417,32 @@ public final class CompilerCli {
     // Args parsing (robuste)
     // ----------------------------
 
-    private static final class Args {
+    static final class Args {
         final Path input;
         final Path outDir;
         final String outJavaName;
         final boolean emitClass;
         final boolean quiet;
         final boolean stdout;
-
-        private Args(Path input, Path outDir, String outJavaName, boolean emitClass, boolean quiet, boolean stdout) {
+        final int maxErreurs;
+        final boolean watch;
+        final boolean lignesJava;
+        final Path cacheDir; // null = pas de cache persistant
+        final int fonctionsParClasse;
+
+        private Args(Path input, Path outDir, String outJavaName, boolean emitClass, boolean quiet, boolean stdout,
+                     int maxErreurs, boolean watch, boolean lignesJava, Path cacheDir, int fonctionsParClasse) {
             this.input = input;
             this.outDir = outDir;
             this.outJavaName = outJavaName;
             this.emitClass = emitClass;
             this.quiet = quiet;
             this.stdout = stdout;
+            this.maxErreurs = maxErreurs;
+            this.watch = watch;
+            this.lignesJava = lignesJava;
+            this.cacheDir = cacheDir;
+            this.fonctionsParClasse = fonctionsParClasse;
         }
 
         static ParseResult parse(String[] argv) {
@@ -261,6 +455,11 @@ public final class CompilerCli {
             boolean emitClass = false;
             boolean quiet = false;
             boolean stdout = false;
+            int maxErreurs = DEFAULT_MAX_ERREURS;
+            boolean watch = false;
+            boolean lignesJava = false;
+            Path cacheDir = null;
+            int fonctionsParClasse = 0;
 
             List<String> positionals = new ArrayList<>();
 
@@ -272,18 +471,44 @@ public final class CompilerCli {
                     case "-q", "--quiet" -> quiet = true;
                     case "--class" -> emitClass = true;
                     case "--stdout" -> stdout = true;
+                    case "--watch" -> watch = true;
+                    case "--lignes-java" -> lignesJava = true;
 
                     case "-o", "--out" -> {
                         if (i + 1 >= argv.length) return ParseResult.error("option " + a + " attend un dossier.");
                         out = Paths.get(argv[++i]);
                     }
 
+                    case "--cache" -> {
+                        if (i + 1 >= argv.length) return ParseResult.error("option --cache attend un dossier.");
+                        cacheDir = Paths.get(argv[++i]);
+                    }
+
+                    case "--fonctions-par-classe" -> {
+                        if (i + 1 >= argv.length) return ParseResult.error("option --fonctions-par-classe attend un nombre.");
+                        try {
+                            fonctionsParClasse = Integer.parseInt(argv[++i]);
+                        } catch (NumberFormatException e) {
+                            return ParseResult.error("option --fonctions-par-classe attend un nombre (trouvé: " + argv[i] + ")");
+                        }
+                        if (fonctionsParClasse < 0) return ParseResult.error("option --fonctions-par-classe attend un nombre >= 0.");
+                    }
+
                     case "--out-java" -> {
                         if (i + 1 >= argv.length) return ParseResult.error("option --out-java attend un nom de fichier.");
                         outJava = argv[++i];
                         if (!outJava.endsWith(".java")) outJava = outJava + ".java";
                     }
 
+                    case "--max-erreurs" -> {
+                        if (i + 1 >= argv.length) return ParseResult.error("option --max-erreurs attend un nombre.");
+                        try {
+                            maxErreurs = Integer.parseInt(argv[++i]);
+                        } catch (NumberFormatException e) {
+                            return ParseResult.error("option --max-erreurs attend un nombre (trouvé: " + argv[i] + ")");
+                        }
+                    }
+
                     default -> {
                         if (a.startsWith("-")) {
                             return ParseResult.error("option inconnue: " + a);
@@ -298,7 +523,10 @@ public final class CompilerCli {
             }
 
             Path input = Paths.get(positionals.get(0));
-            return ParseResult.ok(new Args(input, out, outJava, emitClass, quiet, stdout));
+            if (watch && (stdout || input.toString().equals("-"))) {
+                return ParseResult.error("--watch attend un fichier ou un dossier (ni stdin, ni --stdout)");
+            }
+            return ParseResult.ok(new Args(input, out, outJava, emitClass, quiet, stdout, maxErreurs, watch, lignesJava, cacheDir, fonctionsParClasse));
         }
     }
 
@@ -328,7 +556,7 @@ public final class CompilerCli {
         }
     }
 
-    private static final class Exit extends RuntimeException {
+    static final class Exit extends RuntimeException {
         final int code;
         final String message;
 
@@ -0,0 +1,144 @@
+package main.java.cli;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tâches javac indépendantes exécutées en parallèle dans la JVM de la CLI.
+ *
+ * - un seul JavaCompiler (ToolProvider n'est interrogé qu'une fois) ;
+ * - un pool borné (nombre de coeurs), threads démons : rien à fermer en fin de CLI ;
+ * - un StandardJavaFileManager par thread du pool, réutilisé d'une tâche à l'autre : les archives
+ *   ouvertes (ct.sym de --release, classpath) restent en cache au lieu d'être relues par tâche ;
+ * - diagnostics de chaque tâche formatés par CompilerCli.formatJavacDiagnostic, rendus dans
+ *   l'ordre des tâches (sortie déterministe quel que soit l'ordonnancement).
+ *
+ * Une seule tâche : exécutée sur le thread appelant (pas de pool).
+ */
+final class JavacParallele {
+
+    static final int TAILLE_POOL = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+    private static final List<String> OPTIONS = List.of("--release", "17", "-encoding", "UTF-8");
+
+    /**
+     * Fichiers compilés ensemble vers sortie. sourcePath non null : les classes référencées sont
+     * lues depuis ce dossier sans être regénérées (-implicit:none), une autre tâche s'en charge.
+     */
+    record Tache(List<Path> sources, Path sortie, Path sourcePath) {}
+
+    /** ok + diagnostics formatés (avertissements compris) d'une tâche. */
+    record Resultat(boolean ok, List<String> diagnostics) {}
+
+    private static volatile JavaCompiler compilateur;
+    private static volatile ExecutorService pool;
+
+    private static final ThreadLocal<StandardJavaFileManager> GESTIONNAIRES = new ThreadLocal<>();
+
+    private JavacParallele() {}
+
+    /** null si la JVM n'a pas de compilateur (JRE). */
+    static JavaCompiler compilateur() {
+        JavaCompiler c = compilateur;
+        if (c == null) {
+            synchronized (JavacParallele.class) {
+                if (compilateur == null) compilateur = ToolProvider.getSystemJavaCompiler();
+                c = compilateur;
+            }
+        }
+        return c;
+    }
+
+    /** Un résultat par tâche, même ordre. @throws IllegalStateException sans compilateur */
+    static List<Resultat> compiler(List<Tache> taches) {
+        JavaCompiler c = compilateur();
+        if (c == null) throw new IllegalStateException("ToolProvider.getSystemJavaCompiler() == null");
+        if (taches.size() == 1) return List.of(executer(c, taches.get(0)));
+
+        List<Future<Resultat>> futurs = new ArrayList<>(taches.size());
+        for (Tache t : taches) futurs.add(pool().submit(() -> executer(c, t)));
+
+        List<Resultat> resultats = new ArrayList<>(taches.size());
+        for (Future<Resultat> f : futurs) {
+            try {
+                resultats.add(f.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("javac interrompu", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException re) throw re;
+                if (cause instanceof Error err) throw err;
+                throw new IllegalStateException(cause);
+            }
+        }
+        return resultats;
+    }
+
+    private static Resultat executer(JavaCompiler c, Tache t) {
+        DiagnosticCollector<JavaFileObject> diags = new DiagnosticCollector<>();
+        StandardJavaFileManager fm = gestionnaire(c);
+        List<String> options = new ArrayList<>(OPTIONS);
+        try {
+            // emplacements fixés à chaque tâche : le gestionnaire est réutilisé par le thread
+            fm.setLocationFromPaths(StandardLocation.CLASS_OUTPUT, List.of(t.sortie()));
+            fm.setLocationFromPaths(StandardLocation.SOURCE_PATH,
+                    (t.sourcePath() == null) ? List.of() : List.of(t.sourcePath()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (t.sourcePath() != null) options.add("-implicit:none");
+
+        Iterable<? extends JavaFileObject> unites = fm.getJavaFileObjectsFromPaths(t.sources());
+        Boolean ok = c.getTask(null, fm, diags, options, null, unites).call();
+
+        List<String> lignes = new ArrayList<>(diags.getDiagnostics().size());
+        for (Diagnostic<? extends JavaFileObject> d : diags.getDiagnostics()) {
+            lignes.add(CompilerCli.formatJavacDiagnostic(d));
+        }
+        return new Resultat(Boolean.TRUE.equals(ok), List.copyOf(lignes));
+    }
+
+    private static StandardJavaFileManager gestionnaire(JavaCompiler c) {
+        StandardJavaFileManager fm = GESTIONNAIRES.get();
+        if (fm == null) {
+            fm = c.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+            GESTIONNAIRES.set(fm);
+        }
+        return fm;
+    }
+
+    private static ExecutorService pool() {
+        ExecutorService p = pool;
+        if (p == null) {
+            synchronized (JavacParallele.class) {
+                if (pool == null) {
+                    AtomicInteger numero = new AtomicInteger();
+                    pool = Executors.newFixedThreadPool(TAILLE_POOL, r -> {
+                        Thread th = new Thread(r, "javac-" + numero.incrementAndGet());
+                        th.setDaemon(true);
+                        return th;
+                    });
+                }
+                p = pool;
+            }
+        }
+        return p;
+    }
+}
@@ -0,0 +1,272 @@
+package main.java.cli;
+
+import main.java.codegenerator.FunctionCache;
+import utils.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Mode --watch : recompile dans la JVM déjà chaude à chaque enregistrement.
+ *
+ * - un WatchService sur le dossier du fichier (ou sur le dossier donné, non récursif) ;
+ * - les rafales d'événements (un éditeur écrit souvent en plusieurs fois) sont regroupées :
+ *   on recompile après DELAI_REGROUPEMENT_MS sans nouvel événement ;
+ * - seuls les .fc touchés sont recompilés, chacun avec son état chaud (analyse incrémentale) ;
+ * - le .java n'est réécrit (atomiquement) que si son contenu change, et javac seulement dans ce cas ;
+ *   les javac d'une même rafale (plusieurs .fc touchés) tournent en parallèle (JavacParallele) ;
+ * - un cache de fonctions partagé par toute la session (sur disque avec --cache) : seules les
+ *   fonctions modifiées sont réémises.
+ *
+ * Dossier en entrée : toto.fc -> <sortie>/toto/<out-java>, un dossier par programme
+ * (les classes générées portent toutes le même nom).
+ */
+final class Surveillance {
+
+    static final long DELAI_REGROUPEMENT_MS = 50;
+
+    private static final String EXTENSION = ".fc";
+
+    private final CompilerCli.Args args;
+    private final Path dossier;     // dossier surveillé
+    private final Path fichierSeul; // null en mode dossier
+    private final Path sortie;
+
+    private final Map<Path, CompilerCli.Compilation> etats = new HashMap<>();
+    private final FunctionCache cache;
+
+    // statistiques de la session : .java générés / réécritures évitées (contenu identique)
+    private int ecritures;
+    private int evitees;
+
+    private Surveillance(CompilerCli.Args args, Path dossier, Path fichierSeul) {
+        this.args = args;
+        this.dossier = dossier;
+        this.fichierSeul = fichierSeul;
+        this.sortie = args.outDir.toAbsolutePath().normalize();
+        this.cache = (args.cacheDir == null) ? new FunctionCache() : CompilerCli.ouvrirCache(args.cacheDir);
+    }
+
+    static void executer(CompilerCli.Args args) throws IOException {
+        Path entree = args.input.toAbsolutePath().normalize();
+        Surveillance s;
+        if (Files.isDirectory(entree)) {
+            s = new Surveillance(args, entree, null);
+        } else if (Files.exists(entree)) {
+            s = new Surveillance(args, entree.getParent(), entree);
+        } else {
+            throw new CompilerCli.Exit(CompilerCli.EXIT_USAGE, "Fichier introuvable: " + entree);
+        }
+
+        try {
+            s.boucle();
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void boucle() throws IOException, InterruptedException {
+        try (WatchService ws = dossier.getFileSystem().newWatchService()) {
+            dossier.register(ws, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+
+            recompiler(sources());
+            if (!args.quiet) System.out.println("Surveillance de " + dossier + " (Ctrl+C pour arrêter)");
+
+            while (true) {
+                WatchKey cle = ws.take();
+                Set<Path> touches = new LinkedHashSet<>();
+
+                // regroupement : on vide les événements jusqu'à un silence de DELAI_REGROUPEMENT_MS
+                while (cle != null) {
+                    for (WatchEvent<?> ev : cle.pollEvents()) {
+                        if (ev.kind() == OVERFLOW) {
+                            touches.addAll(sources());
+                            continue;
+                        }
+                        Path p = dossier.resolve((Path) ev.context());
+                        if (estSurveille(p)) touches.add(p);
+                    }
+                    if (!cle.reset()) {
+                        if (!args.quiet) System.out.println("Dossier surveillé supprimé : " + dossier);
+                        return;
+                    }
+                    cle = ws.poll(DELAI_REGROUPEMENT_MS, TimeUnit.MILLISECONDS);
+                }
+
+                recompiler(touches);
+            }
+        }
+    }
+
+    private boolean estSurveille(Path p) {
+        if (fichierSeul != null) return p.equals(fichierSeul);
+        return p.getFileName().toString().endsWith(EXTENSION);
+    }
+
+    private List<Path> sources() throws IOException {
+        if (fichierSeul != null) return List.of(fichierSeul);
+        List<Path> out = new ArrayList<>();
+        for (Path p : IOUtils.listerFichiers(dossier)) {
+            if (estSurveille(p)) out.add(p);
+        }
+        return out; // déjà trié par nom
+    }
+
+    private Path fichierJava(Path source) {
+        if (fichierSeul != null) return sortie.resolve(args.outJavaName);
+        String nom = source.getFileName().toString();
+        return sortie.resolve(nom.substring(0, nom.length() - EXTENSION.length())).resolve(args.outJavaName);
+    }
+
+    /* =========================
+     *  RECOMPILATION
+     * ========================= */
+
+    /** Programme généré et écrit, en attente de javac. */
+    private record EnAttente(Path source, CompilerCli.Compilation compilation, String java, Path javaFile,
+                             List<Path> fichiers, boolean change, boolean javac, long debut,
+                             int fonctionsReutilisees, int fonctions) {}
+
+    private void recompiler(Iterable<Path> fichiers) {
+        List<EnAttente> prets = new ArrayList<>();
+        for (Path f : fichiers) {
+            if (!Files.isRegularFile(f)) {
+                // supprimé (ou renommé) : on oublie son état, les sorties déjà écrites restent
+                if (etats.remove(f) != null && !args.quiet) System.out.println("Supprimé: " + f);
+                continue;
+            }
+            EnAttente p = generer(f);
+            if (p != null) prets.add(p);
+        }
+        if (prets.isEmpty()) return;
+
+        // javac : programmes indépendants (dossiers de sortie distincts) compilés ensemble sur le pool,
+        // les coeurs restants répartis entre les classes de chaque programme
+        List<Integer> aCompiler = new ArrayList<>();
+        for (int i = 0; i < prets.size(); i++) if (prets.get(i).javac()) aCompiler.add(i);
+        List<String> echecs = new ArrayList<>(prets.size());
+        for (int i = 0; i < prets.size(); i++) echecs.add(null);
+
+        if (!aCompiler.isEmpty()) {
+            int parProgramme = Math.max(1, JavacParallele.TAILLE_POOL / aCompiler.size());
+            List<JavacParallele.Tache> taches = new ArrayList<>();
+            List<Integer> debuts = new ArrayList<>(aCompiler.size() + 1);
+            for (int i : aCompiler) {
+                EnAttente p = prets.get(i);
+                debuts.add(taches.size());
+                taches.addAll(CompilerCli.tachesJavac(p.fichiers(), p.javaFile().getParent(), parProgramme));
+            }
+            debuts.add(taches.size());
+
+            List<JavacParallele.Resultat> resultats;
+            try {
+                resultats = CompilerCli.compilerTaches(taches);
+            } catch (CompilerCli.Exit e) {
+                afficherErreur(e);
+                return;
+            }
+            for (int k = 0; k < aCompiler.size(); k++) {
+                int de = debuts.get(k);
+                int a = debuts.get(k + 1);
+                String echec = CompilerCli.echecsJavac(taches.subList(de, a), resultats.subList(de, a));
+                echecs.set(aCompiler.get(k), (echec == null) ? "" : echec);
+            }
+        }
+
+        for (int i = 0; i < prets.size(); i++) {
+            terminer(prets.get(i), echecs.get(i));
+        }
+    }
+
+    /** Génération + écriture des .java qui ont changé ; null en cas d'erreur (déjà affichée). */
+    private EnAttente generer(Path source) {
+        long debut = System.nanoTime();
+        CompilerCli.Compilation c = etats.computeIfAbsent(source, k -> new CompilerCli.Compilation(args.maxErreurs, true, cache, args.fonctionsParClasse));
+        Path javaFile = fichierJava(source);
+        cache.reinitialiserCompteurs();
+
+        try {
+            String texte = new String(Files.readAllBytes(source), StandardCharsets.UTF_8);
+            String java = c.genererJava(texte, source.toString());
+
+            // 1re compilation dans cette session : comparer (en flux) au fichier déjà présent
+            boolean change = (c.dernierJava == null)
+                    ? !IOUtils.contenuIdentique(javaFile, java)
+                    : !java.equals(c.dernierJava);
+
+            ecritures++;
+            if (change) IOUtils.ecrireTexteAtomique(javaFile, java);
+            else evitees++;
+
+            // classes secondaires (--fonctions-par-classe) : comparées au fichier présent
+            List<Path> fichiers = CompilerCli.fichiersJava(javaFile, c.dernieresUnites);
+            for (int i = 1; i < fichiers.size(); i++) {
+                String secondaire = c.dernieresUnites.get(i).source();
+                if (!IOUtils.contenuIdentique(fichiers.get(i), secondaire)) {
+                    IOUtils.ecrireTexteAtomique(fichiers.get(i), secondaire);
+                    change = true;
+                }
+            }
+
+            boolean javac = args.emitClass && (change || !CompilerCli.classesAJour(fichiers));
+            return new EnAttente(source, c, java, javaFile, fichiers, change, javac, debut,
+                    cache.getSucces(), cache.getSucces() + cache.getEchecs());
+        } catch (CompilerCli.Exit e) {
+            afficherErreur(e);
+        } catch (IOException e) {
+            System.err.println("ERREUR: " + source + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            // un bug sur une version du fichier ne doit pas arrêter la surveillance
+            etats.remove(source);
+            System.err.println("ERREUR INTERNE: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /** Après javac : echecJavac null = pas de javac, "" = réussi, sinon diagnostics. */
+    private void terminer(EnAttente p, String echecJavac) {
+        if (echecJavac != null && !echecJavac.isEmpty()) {
+            // dernierJava inchangé : un échec sera retenté au prochain enregistrement
+            System.err.print(echecJavac);
+            return;
+        }
+        try {
+            if (echecJavac != null && !args.lignesJava) {
+                CompilerCli.reecrireLignes(p.fichiers(), p.compilation().dernieresUnites, p.source().getFileName().toString());
+            }
+        } catch (CompilerCli.Exit e) {
+            afficherErreur(e);
+            return;
+        }
+        p.compilation().dernierJava = p.java();
+
+        if (!args.quiet) {
+            long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - p.debut());
+            System.out.println((p.change() ? "OK: " : "Inchangé: ") + p.javaFile() + " (" + ms + " ms, écritures évitées: "
+                    + evitees + "/" + ecritures + ", fonctions réutilisées: " + p.fonctionsReutilisees() + "/"
+                    + p.fonctions() + ")");
+        }
+    }
+
+    private static void afficherErreur(CompilerCli.Exit e) {
+        if (e.message != null && !e.message.isBlank()) {
+            System.err.print(e.message);
+            if (!e.message.endsWith("\n")) System.err.print("\n");
+        }
+    }
+}
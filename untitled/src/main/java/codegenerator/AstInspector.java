@@ -4,6 +4,8 @@ import main.java.parseur.ast.*;
 import main.java.parseur.ast.controle.Pour;
 import main.java.parseur.ast.controle.Si;
 import main.java.parseur.ast.controle.TantQue;
+import main.java.semantic.AnalyseSemantique;
+import main.java.semantic.TypeSimple;
 
 import java.util.List;
 
@@ -89,4 +91,122 @@ public final class AstInspector {
         // Nombre, Texte, Caractere, Identifiant, etc.
         return false;
     }
+
+    /* =========================
+     *  POUR À TOURS CONNUS (gardes d'exécution)
+     * ========================= */
+
+    /**
+     * true si le nombre de tours du pour est fixé avant la première itération :
+     * += / -= d'un pas littéral > 0, bornes entières littérales ou variables, corps sans retourne
+     * (pas de sortie anticipée) et sans écriture du compteur ni de la borne de fin.
+     * Bornes littérales dont le compteur int reboucle (boucle sans fin) : false. Bornes variables :
+     * même vérification à l'exécution, dans __gardeTours.
+     * Non reconnu (noeud inconnu compris) => false : la boucle garde le comptage par itération.
+     */
+    public static boolean toursConnusAEntree(Pour p, AnalyseSemantique sem) {
+        if (p.getOperateur() != Operateur.PLUS_EGAL && p.getOperateur() != Operateur.MOINS_EGAL) return false;
+        if (!(p.getPas() instanceof Nombre n) || n.getValeur() <= 0) return false;
+        if (!borneSimple(p.getDebut(), sem) || !borneSimple(p.getFin(), sem)) return false;
+        if (p.getDebut() instanceof Nombre d && p.getFin() instanceof Nombre f) {
+            long pas = (p.getOperateur() == Operateur.PLUS_EGAL) ? n.getValeur() : -(long) n.getValeur();
+            if (compteurDeborde(d.getValeur(), f.getValeur(), pas)) return false;
+        }
+
+        String fin = (p.getFin() instanceof Identifiant id) ? id.getNom() : null;
+        return corpsSansSortieNiEcriture(p.getCorps(), p.getNomVar(), fin);
+    }
+
+    // Même calcul que __gardeTours (RuntimeSupport.gardesRuntimeChunk) : valeur du compteur après le dernier tour.
+    private static boolean compteurDeborde(long debut, long fin, long pas) {
+        long ecart = (pas > 0) ? fin - debut : debut - fin;
+        if (ecart < 0) return false;
+        long apres = debut + (ecart / Math.abs(pas) + 1) * pas;
+        return apres > Integer.MAX_VALUE || apres < Integer.MIN_VALUE;
+    }
+
+    private static boolean borneSimple(Expression e, AnalyseSemantique sem) {
+        if (e instanceof Nombre) return true;
+        return e instanceof Identifiant && sem.typeDe(e) == TypeSimple.ENTIER;
+    }
+
+    private static boolean corpsSansSortieNiEcriture(Instruction instr, String compteur, String fin) {
+        if (instr == null) return true;
+
+        if (instr instanceof Bloc b) {
+            for (Instruction i : b.getInstructions()) {
+                if (!corpsSansSortieNiEcriture(i, compteur, fin)) return false;
+            }
+            return true;
+        }
+        if (instr instanceof Affiche a) {
+            for (Expression e : a.getExpressions()) {
+                if (!sansEcriture(e, compteur, fin)) return false;
+            }
+            return true;
+        }
+        if (instr instanceof Affectation a) {
+            return !ecrit(a.getNomVar(), compteur, fin) && sansEcriture(a.getExpression(), compteur, fin);
+        }
+        if (instr instanceof AppelFonctionInstr afi) {
+            return sansEcriture(afi.getAppel(), compteur, fin);
+        }
+        if (instr instanceof ExpressionInstr ei) {
+            return sansEcriture(ei.getExpression(), compteur, fin);
+        }
+        if (instr instanceof Si s) {
+            return sansEcriture(s.getCondition(), compteur, fin)
+                    && corpsSansSortieNiEcriture(s.getAlorsInstr(), compteur, fin)
+                    && corpsSansSortieNiEcriture(s.getSinonInstr(), compteur, fin);
+        }
+        if (instr instanceof TantQue tq) {
+            return sansEcriture(tq.getCondition(), compteur, fin)
+                    && corpsSansSortieNiEcriture(tq.getCorps(), compteur, fin);
+        }
+        if (instr instanceof Pour p) {
+            return !ecrit(p.getNomVar(), compteur, fin)
+                    && sansEcriture(p.getDebut(), compteur, fin)
+                    && sansEcriture(p.getFin(), compteur, fin)
+                    && sansEcriture(p.getPas(), compteur, fin)
+                    && corpsSansSortieNiEcriture(p.getCorps(), compteur, fin);
+        }
+        // Retourne (sortie anticipée) ou instruction inconnue
+        return false;
+    }
+
+    private static boolean sansEcriture(Expression e, String compteur, String fin) {
+        if (e == null || e instanceof Nombre || e instanceof Identifiant || e instanceof Texte
+                || e instanceof Caractere || e instanceof Lire) {
+            return true;
+        }
+        if (e instanceof ExpressionBinaire b) {
+            return sansEcriture(b.getGauche(), compteur, fin) && sansEcriture(b.getDroite(), compteur, fin);
+        }
+        if (e instanceof AppelFonction a) {
+            for (Expression arg : a.getArgs()) {
+                if (!sansEcriture(arg, compteur, fin)) return false;
+            }
+            return true;
+        }
+        if (e instanceof ExpressionAffectation a) {
+            return !ecritCible(a.getCible(), compteur, fin) && sansEcriture(a.getValeur(), compteur, fin);
+        }
+        if (e instanceof ExpressionPostfix p) {
+            return !ecritCible(p.getExpr(), compteur, fin);
+        }
+        if (e instanceof ExpressionUnaire u) {
+            boolean increment = u.getOperateur() == Operateur.INCR || u.getOperateur() == Operateur.DECR;
+            return !(increment && ecritCible(u.getExpr(), compteur, fin)) && sansEcriture(u.getExpr(), compteur, fin);
+        }
+        return false;
+    }
+
+    private static boolean ecritCible(Expression cible, String compteur, String fin) {
+        // cible non identifiant : inconnue, on suppose le pire
+        return !(cible instanceof Identifiant id) || ecrit(id.getNom(), compteur, fin);
+    }
+
+    private static boolean ecrit(String nom, String compteur, String fin) {
+        return nom.equals(compteur) || nom.equals(fin);
+    }
 }
@@ -0,0 +1,127 @@
+package main.java.codegenerator;
+
+import main.java.parseur.ast.Classe;
+import main.java.parseur.ast.Fonction;
+import main.java.semantic.AnalyseSemantique;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Répartition des fonctions d'une classe en plusieurs classes Java (JavaGeneratorOptions.fonctionsMaxParClasse).
+ *
+ * Regroupement par graphe d'appels, déterministe :
+ * 1) arêtes appelant/appelé (non orientées, poids = nombre de sens d'appel), fusionnées par poids
+ *    décroissant tant que le groupe tient dans la limite : fonctions récursives et voisins proches
+ *    restent ensemble, la plupart des appels restent donc non qualifiés (et inlinables par le JIT) ;
+ * 2) les groupes, dans l'ordre du source, sont rangés dans la première classe qui a la place.
+ *
+ * La classe qui contient main garde le nom d'origine (et porte le runtime partagé) ;
+ * les autres s'appellent Nom_1, Nom_2... Dans chaque classe, les fonctions gardent l'ordre du source.
+ */
+final class ClassPartitioner {
+
+    private ClassPartitioner() {}
+
+    /** Classes produites (principale d'abord) et classe de chaque fonction. */
+    record Partition(List<Classe> classes, Map<String, String> classeDe) {
+        String principale() {
+            return classes.get(0).getNom();
+        }
+    }
+
+    /** null si la classe tient dans la limite (pas de découpage). */
+    static Partition partitionner(Classe classe, AnalyseSemantique sem, int maxFonctions) {
+        List<Fonction> fonctions = classe.getFonctions();
+        int n = (fonctions == null) ? 0 : fonctions.size();
+        if (maxFonctions <= 0 || n <= maxFonctions) return null;
+
+        Map<String, Integer> index = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) index.putIfAbsent(fonctions.get(i).getNom(), i);
+
+        // 1) arêtes : (a < b) -> poids
+        Map<Long, int[]> aretes = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            for (String appele : sem.appelsDe(fonctions.get(i))) {
+                Integer j = index.get(appele);
+                if (j == null || j == i) continue;
+                long cle = ((long) Math.min(i, j) << 32) | Math.max(i, j);
+                aretes.computeIfAbsent(cle, k -> new int[1])[0]++;
+            }
+        }
+        List<Map.Entry<Long, int[]>> triees = new ArrayList<>(aretes.entrySet());
+        triees.sort((x, y) -> (x.getValue()[0] != y.getValue()[0])
+                ? Integer.compare(y.getValue()[0], x.getValue()[0])
+                : Long.compare(x.getKey(), y.getKey()));
+
+        int[] parent = new int[n];
+        int[] taille = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            taille[i] = 1;
+        }
+        for (Map.Entry<Long, int[]> e : triees) {
+            int a = racine(parent, (int) (e.getKey() >>> 32));
+            int b = racine(parent, (int) (long) e.getKey());
+            if (a == b || taille[a] + taille[b] > maxFonctions) continue;
+            // la plus petite racine reste racine : groupes repérés par leur première fonction
+            if (b < a) { int t = a; a = b; b = t; }
+            parent[b] = a;
+            taille[a] += taille[b];
+        }
+
+        // 2) groupes dans l'ordre de leur première fonction -> première classe qui a la place
+        int[] classeDuGroupe = new int[n];
+        Arrays.fill(classeDuGroupe, -1);
+        List<int[]> remplissage = new ArrayList<>(); // par classe : {nombre de fonctions}
+        int[] classeDeFonction = new int[n];
+        for (int i = 0; i < n; i++) {
+            int r = racine(parent, i);
+            if (classeDuGroupe[r] < 0) {
+                int k = 0;
+                while (k < remplissage.size() && remplissage.get(k)[0] + taille[r] > maxFonctions) k++;
+                if (k == remplissage.size()) remplissage.add(new int[1]);
+                remplissage.get(k)[0] += taille[r];
+                classeDuGroupe[r] = k;
+            }
+            classeDeFonction[i] = classeDuGroupe[r];
+        }
+
+        int nbClasses = remplissage.size();
+        List<List<Fonction>> contenus = new ArrayList<>(nbClasses);
+        for (int k = 0; k < nbClasses; k++) contenus.add(new ArrayList<>());
+        for (int i = 0; i < n; i++) contenus.get(classeDeFonction[i]).add(fonctions.get(i));
+
+        Integer main = index.get("main");
+        int principale = (main == null) ? 0 : classeDeFonction[main];
+
+        // noms : principale = nom d'origine, puis Nom_1, Nom_2... dans l'ordre des classes
+        List<Classe> classes = new ArrayList<>(nbClasses);
+        Map<String, String> classeDe = new HashMap<>(n * 2);
+        classes.add(sousClasse(classe, classe.getNom(), contenus.get(principale), classeDe));
+        int suffixe = 1;
+        for (int k = 0; k < nbClasses; k++) {
+            if (k == principale) continue;
+            classes.add(sousClasse(classe, classe.getNom() + "_" + suffixe++, contenus.get(k), classeDe));
+        }
+        return new Partition(List.copyOf(classes), Map.copyOf(classeDe));
+    }
+
+    private static Classe sousClasse(Classe origine, String nom, List<Fonction> fonctions, Map<String, String> classeDe) {
+        for (Fonction f : fonctions) classeDe.putIfAbsent(f.getNom(), nom);
+        return new Classe(origine.getPosition(), nom, origine.getMeres(), origine.getPrives(),
+                origine.getPublics(), origine.getFinaux(), List.copyOf(fonctions));
+    }
+
+    private static int racine(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+}
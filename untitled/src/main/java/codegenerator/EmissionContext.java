@@ -0,0 +1,250 @@
+package main.java.codegenerator;
+
+import utils.diag.Position;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Etat collecté pendant genJava : helpers runtime utilisés + imports requis.
+ *
+ * Les noeuds AST n'ont que genJava(sem) : le contexte est lié au thread courant
+ * le temps de l'émission (avec(...)). Hors émission pilotée par JavaGenerator
+ * (aucun contexte lié), l'enregistrement est simplement ignoré.
+ *
+ * Non thread-safe : en émission parallèle, chaque tâche a son propre contexte,
+ * fusionné ensuite dans celui du programme (fusionner).
+ *
+ * Gardes d'exécution (JavaGeneratorOptions.gardePasMax / gardeProfondeurMax) : le contexte
+ * indique aux noeuds s'ils doivent instrumenter boucles et entrées de fonction.
+ * Carte source (JavaGeneratorOptions.sourceMap) : les noeuds insèrent des marques de position,
+ * retirées par JavaGenerator après assemblage (SourceMap.extraire).
+ * Classes multiples (JavaGeneratorOptions.fonctionsMaxParClasse) : les appels vers une fonction
+ * d'une autre classe et, hors classe principale, les appels au runtime partagé sont qualifiés.
+ */
+public final class EmissionContext {
+
+    private static final ThreadLocal<EmissionContext> COURANT = new ThreadLocal<>();
+
+    private final EnumSet<RuntimeHelper> helpers = EnumSet.noneOf(RuntimeHelper.class);
+    private final Set<String> imports = new TreeSet<>();
+
+    private final boolean gardePas;
+    private final boolean gardeProfondeur;
+    private final boolean carteSource;
+    private int appelsEmis;
+    private int bouclesGardees;
+
+    // classes multiples (null = une seule classe)
+    private Map<String, String> classeDe;
+    private String classeCourante;
+    private String classePrincipale;
+
+    public EmissionContext() {
+        this(false, false, false);
+    }
+
+    /** Contexte d'émission réglé par les options (gardes, carte source). */
+    public EmissionContext(JavaGeneratorOptions options) {
+        this(options.getGardePasMax() > 0, options.getGardeProfondeurMax() > 0, options.isSourceMap());
+    }
+
+    private EmissionContext(boolean gardePas, boolean gardeProfondeur, boolean carteSource) {
+        this.gardePas = gardePas;
+        this.gardeProfondeur = gardeProfondeur;
+        this.carteSource = carteSource;
+    }
+
+    /** Contexte vierge avec les mêmes réglages (tâche d'émission parallèle). */
+    EmissionContext nouveauLocal() {
+        EmissionContext local = new EmissionContext(gardePas, gardeProfondeur, carteSource);
+        local.classeDe = classeDe;
+        local.classeCourante = classeCourante;
+        local.classePrincipale = classePrincipale;
+        return local;
+    }
+
+    /** Contexte d'une des classes d'un programme découpé (ClassPartitioner). */
+    EmissionContext pourClasse(Map<String, String> classeDe, String classeCourante, String classePrincipale) {
+        EmissionContext ctx = nouveauLocal();
+        ctx.classeDe = classeDe;
+        ctx.classeCourante = classeCourante;
+        ctx.classePrincipale = classePrincipale;
+        return ctx;
+    }
+
+    // ---------- liaison au thread ----------
+
+    /** Exécute action avec ctx comme contexte courant (restaure le précédent ensuite). */
+    public static <T> T avec(EmissionContext ctx, Supplier<T> action) {
+        EmissionContext precedent = COURANT.get();
+        COURANT.set(ctx);
+        try {
+            return action.get();
+        } finally {
+            if (precedent == null) COURANT.remove();
+            else COURANT.set(precedent);
+        }
+    }
+
+    /** Enregistre le helper dans le contexte courant et renvoie le code d'appel. */
+    public static String appelRuntime(RuntimeHelper helper, String args) {
+        EmissionContext ctx = COURANT.get();
+        if (ctx == null) return helper.appel(args);
+        ctx.requireHelper(helper);
+        // runtime injecté dans la seule classe principale
+        return ctx.horsPrincipale() ? ctx.classePrincipale + "." + helper.appel(args) : helper.appel(args);
+    }
+
+    /** Nom d'appel de la fonction .fc nom : qualifié si elle est émise dans une autre classe. */
+    public static String cibleAppel(String nom) {
+        EmissionContext ctx = COURANT.get();
+        if (ctx == null || ctx.classeDe == null) return nom;
+        String classe = ctx.classeDe.get(nom);
+        return (classe == null || classe.equals(ctx.classeCourante)) ? nom : classe + "." + nom;
+    }
+
+    private boolean horsPrincipale() {
+        return classeDe != null && !classePrincipale.equals(classeCourante);
+    }
+
+    /**
+     * Ce dont dépend le Java d'une fonction en plus de son empreinte quand le programme est découpé :
+     * sa classe, la classe principale et celle de chacun de ses appelés ("" sans découpage).
+     */
+    String clePartition(Collection<String> appeles) {
+        if (classeDe == null) return "";
+        StringBuilder sb = new StringBuilder("|K").append(classeCourante).append('>').append(classePrincipale);
+        for (String a : new TreeSet<>(appeles)) {
+            sb.append(';').append(a).append('=').append(classeDe.get(a));
+        }
+        return sb.toString();
+    }
+
+    // ---------- gardes d'exécution ----------
+
+    /**
+     * Corps de boucle instrumenté (arc arrière) : les itérations sont comptées dans une locale
+     * de la fonction, reportées au compteur global par lots de RuntimeSupport.LOT_GARDE.
+     * Sans garde de pas, le corps est renvoyé tel quel.
+     */
+    public static String garderCorpsBoucle(String corpsJava) {
+        EmissionContext ctx = COURANT.get();
+        if (ctx == null || !ctx.gardePas) return corpsJava;
+        ctx.bouclesGardees++;
+
+        String garde = "if (++" + RuntimeSupport.COMPTEUR_LOCAL_GARDE + " >= " + RuntimeSupport.LOT_GARDE + ") "
+                + RuntimeSupport.COMPTEUR_LOCAL_GARDE + " = "
+                + appelRuntime(RuntimeHelper.GARDE_PAS, RuntimeSupport.COMPTEUR_LOCAL_GARDE) + ";";
+        String trimmed = (corpsJava == null) ? "" : corpsJava.trim();
+        if (trimmed.startsWith("{")) {
+            return "{\n  " + garde + trimmed.substring(1);
+        }
+        StringBuilder sb = new StringBuilder("{\n  ").append(garde).append("\n");
+        if (!trimmed.isEmpty()) {
+            for (String line : trimmed.split("\n")) {
+                sb.append("  ").append(line).append("\n");
+            }
+        }
+        return sb.append("}").toString();
+    }
+
+    /**
+     * Garde d'un pour dont le nombre de tours est connu à l'entrée (AstInspector.toursConnusAEntree) :
+     * les tours sont ajoutés au compteur en une fois avant la boucle, dont le corps reste sans
+     * instrumentation (déroulable / vectorisable par le JIT) ni compteur local. Vide sans garde de pas.
+     * pas signé : +pas pour un +=, -pas pour un -= ; un compteur qui sortirait des int (boucle
+     * sans fin) lève l'erreur de limite avant la boucle.
+     */
+    public static String chargerTours(String debut, String fin, String pas) {
+        EmissionContext ctx = COURANT.get();
+        if (ctx == null || !ctx.gardePas) return "";
+        return appelRuntime(RuntimeHelper.GARDE_TOURS, debut + ", " + fin + ", " + pas) + ";";
+    }
+
+    /** Noté par AppelFonction : une fonction sans appel n'a besoin ni de pas à l'entrée ni de garde de profondeur. */
+    public static void noterAppel() {
+        EmissionContext ctx = COURANT.get();
+        if (ctx != null) ctx.appelsEmis++;
+    }
+
+    /** Nombre d'appels émis jusqu'ici dans le contexte courant (0 hors émission). */
+    public static int appelsEmis() {
+        EmissionContext ctx = COURANT.get();
+        return (ctx == null) ? 0 : ctx.appelsEmis;
+    }
+
+    /** Nombre de boucles gardées par itération jusqu'ici (la fonction doit alors déclarer le compteur local). */
+    public static int bouclesGardees() {
+        EmissionContext ctx = COURANT.get();
+        return (ctx == null) ? 0 : ctx.bouclesGardees;
+    }
+
+    /** Garde de pas : boucles + entrées des fonctions qui appellent (récursion, appels en cascade). */
+    public static boolean gardePasActive() {
+        EmissionContext ctx = COURANT.get();
+        return ctx != null && ctx.gardePas;
+    }
+
+    /** Garde de profondeur : l'entrée de fonction incrémente, un finally décrémente. */
+    public static boolean gardeProfondeurActive() {
+        EmissionContext ctx = COURANT.get();
+        return ctx != null && ctx.gardeProfondeur;
+    }
+
+    // ---------- carte source ----------
+
+    /** Marque de début de fonction (vide sans carte source). */
+    public static String marqueFonction(String nom, Position pos) {
+        EmissionContext ctx = COURANT.get();
+        return (ctx == null || !ctx.carteSource) ? "" : SourceMap.marqueFonction(nom, pos);
+    }
+
+    /** Marque d'instruction .fc commençant sur la ligne (vide sans carte source ou sans position). */
+    public static String marqueInstruction(Position pos) {
+        EmissionContext ctx = COURANT.get();
+        return (ctx == null || !ctx.carteSource || pos == null) ? "" : SourceMap.marqueInstruction(pos);
+    }
+
+    /** Marque de fin de fonction : les lignes suivantes sont hors source. */
+    public static String marqueFin() {
+        EmissionContext ctx = COURANT.get();
+        return (ctx == null || !ctx.carteSource) ? "" : SourceMap.marqueFin();
+    }
+
+    // ---------- état ----------
+
+    public void requireHelper(RuntimeHelper helper) {
+        helpers.add(helper);
+    }
+
+    public void requireImport(String qualifiedName) {
+        imports.add(qualifiedName);
+    }
+
+    public boolean uses(RuntimeHelper helper) {
+        return helpers.contains(helper);
+    }
+
+    public boolean usesTypeRuntime() {
+        for (RuntimeHelper h : helpers) {
+            if (h.isTypeRuntime()) return true;
+        }
+        return false;
+    }
+
+    public Set<RuntimeHelper> getHelpers() { return Collections.unmodifiableSet(helpers); }
+
+    /** Imports triés (sortie déterministe). */
+    public Set<String> getImports() { return Collections.unmodifiableSet(imports); }
+
+    public void fusionner(EmissionContext autre) {
+        helpers.addAll(autre.helpers);
+        imports.addAll(autre.imports);
+    }
+}
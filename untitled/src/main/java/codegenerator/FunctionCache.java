@@ -0,0 +1,206 @@
+package main.java.codegenerator;
+
+import utils.io.IOUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cache du Java généré par fonction (JavaGeneratorOptions.functionCache).
+ *
+ * Clé = SHA-256 de AnalyseSemantique.empreinteEmission(f) + options qui changent l'émission
+ * d'une fonction (gardes, carte source) : AST, signature, variables locales et types inférés
+ * de chaque expression. Une fonction inchangée dont les appelés ont gardé leurs types
+ * retrouve donc son Java sans repasser par genJava.
+ *
+ * Valeur = Java de la fonction + helpers runtime / imports qu'elle a enregistrés.
+ *
+ * - mémoire (LRU) : partagée entre générations (mode --watch, serveur...) ;
+ * - disque (optionnel) : un fichier par clé dans le dossier donné, persistant entre exécutions.
+ *
+ * Thread-safe (émission parallèle des fonctions).
+ */
+public final class FunctionCache {
+
+    private static final String ENTETE = "fc-cache 1";
+    private static final int CAPACITE_MEMOIRE = 4096;
+
+    /** Java d'une fonction et ce qu'il requiert du reste de l'unité de compilation. */
+    public record Entree(String java, Set<RuntimeHelper> helpers, Set<String> imports) {
+        public Entree {
+            helpers = helpers.isEmpty() ? Set.of() : Collections.unmodifiableSet(EnumSet.copyOf(helpers));
+            imports = Collections.unmodifiableSet(new TreeSet<>(imports));
+        }
+    }
+
+    private final Path dossier;
+    private final Map<String, Entree> memoire = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entree> e) {
+            return size() > CAPACITE_MEMOIRE;
+        }
+    };
+
+    private final AtomicInteger succes = new AtomicInteger();
+    private final AtomicInteger echecs = new AtomicInteger();
+
+    /** Cache en mémoire seulement. */
+    public FunctionCache() {
+        this.dossier = null;
+    }
+
+    /** Cache en mémoire + fichiers dans dossier (créé au besoin). */
+    public FunctionCache(Path dossier) throws IOException {
+        this.dossier = Files.createDirectories(dossier);
+    }
+
+    /* =========================
+     *  COMPTEURS
+     * ========================= */
+
+    /** Fonctions dont le Java a été réutilisé (mémoire ou disque). */
+    public int getSucces() { return succes.get(); }
+
+    /** Fonctions régénérées (absentes du cache ou non cachables). */
+    public int getEchecs() { return echecs.get(); }
+
+    public void reinitialiserCompteurs() {
+        succes.set(0);
+        echecs.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "Cache fonctions: " + succes.get() + " réutilisée(s), " + echecs.get() + " générée(s)";
+    }
+
+    /* =========================
+     *  ACCÈS (FunctionEmitter)
+     * ========================= */
+
+    /** Clé de la fonction, null si son empreinte est inconnue (fonction non cachable). */
+    static String cle(String empreinte, JavaGeneratorOptions options) {
+        if (empreinte == null) return null;
+        String complet = "g" + (options.getGardePasMax() > 0 ? 1 : 0)
+                + (options.getGardeProfondeurMax() > 0 ? 1 : 0)
+                + "s" + (options.isSourceMap() ? 1 : 0)
+                + "|" + empreinte;
+        return sha256(complet);
+    }
+
+    /** Entrée pour cle (null = absente) ; compte un succès ou un échec. */
+    Entree lire(String cle) {
+        if (cle == null) {
+            echecs.incrementAndGet();
+            return null;
+        }
+        Entree e;
+        synchronized (memoire) {
+            e = memoire.get(cle);
+        }
+        if (e == null && dossier != null) {
+            e = lireFichier(dossier.resolve(cle));
+            if (e != null) {
+                synchronized (memoire) {
+                    memoire.put(cle, e);
+                }
+            }
+        }
+        (e != null ? succes : echecs).incrementAndGet();
+        return e;
+    }
+
+    void ecrire(String cle, Entree e) {
+        if (cle == null) return;
+        synchronized (memoire) {
+            memoire.put(cle, e);
+        }
+        if (dossier == null) return;
+        try {
+            IOUtils.ecrireTexteAtomique(dossier.resolve(cle), serialiser(e));
+        } catch (IOException ignored) {
+            // cache disque en best effort : la génération reste correcte sans lui
+        }
+    }
+
+    /* =========================
+     *  FORMAT DISQUE
+     * ========================= */
+
+    // fc-cache 1
+    // helpers: AS_INT LIRE
+    // imports: java.util.Scanner
+    // <ligne vide>
+    // <java de la fonction>
+    private static String serialiser(Entree e) {
+        StringBuilder sb = new StringBuilder(e.java().length() + 64);
+        sb.append(ENTETE).append('\n');
+        sb.append("helpers:");
+        for (RuntimeHelper h : e.helpers()) sb.append(' ').append(h.name());
+        sb.append('\n');
+        sb.append("imports:");
+        for (String i : e.imports()) sb.append(' ').append(i);
+        sb.append("\n\n");
+        sb.append(e.java());
+        return sb.toString();
+    }
+
+    /** null si absent ou illisible (autre version, fichier tronqué) : traité comme un échec. */
+    private static Entree lireFichier(Path f) {
+        String texte;
+        try {
+            texte = Files.readString(f, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException absent) {
+            return null;
+        } catch (IOException | RuntimeException illisible) {
+            return null;
+        }
+
+        int l1 = texte.indexOf('\n');
+        int l2 = (l1 < 0) ? -1 : texte.indexOf('\n', l1 + 1);
+        int l3 = (l2 < 0) ? -1 : texte.indexOf('\n', l2 + 1);
+        if (l3 < 0 || l3 + 1 >= texte.length() || texte.charAt(l3 + 1) != '\n') return null;
+        if (!texte.substring(0, l1).equals(ENTETE)) return null;
+
+        String helpers = texte.substring(l1 + 1, l2);
+        String imports = texte.substring(l2 + 1, l3);
+        if (!helpers.startsWith("helpers:") || !imports.startsWith("imports:")) return null;
+
+        Set<RuntimeHelper> hs = EnumSet.noneOf(RuntimeHelper.class);
+        try {
+            for (String h : mots(helpers.substring("helpers:".length()))) hs.add(RuntimeHelper.valueOf(h));
+        } catch (IllegalArgumentException inconnu) {
+            return null;
+        }
+        Set<String> is = new TreeSet<>(mots(imports.substring("imports:".length())));
+        return new Entree(texte.substring(l3 + 2), hs, is);
+    }
+
+    private static java.util.List<String> mots(String s) {
+        String t = s.trim();
+        return t.isEmpty() ? java.util.List.of() : java.util.List.of(t.split(" "));
+    }
+
+    private static String sha256(String s) {
+        try {
+            byte[] h = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(h.length * 2);
+            for (byte b : h) hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package main.java.codegenerator;
+
+import main.java.parseur.ast.Classe;
+import main.java.parseur.ast.Fonction;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emission du programme avec génération des fonctions en parallèle.
+ *
+ * Une fois verifier() terminé, AnalyseSemantique n'est plus que lue par genJava :
+ * chaque Fonction peut donc être émise indépendamment (parallel stream sur le
+ * ForkJoinPool commun). L'ordre de rencontre est conservé par toList(), puis
+ * Classe.genJava(sem, fonctionsJava) assemble : sortie identique au chemin séquentiel.
+ *
+ * Avec un FunctionCache (JavaGeneratorOptions.functionCache), chaque fonction passe par ce
+ * chemin, même en séquentiel : une fonction de même empreinte d'émission reprend son Java et
+ * ses helpers / imports depuis le cache au lieu d'être réémise.
+ */
+final class FunctionEmitter {
+
+    private FunctionEmitter() {}
+
+    private record FunctionOutput(String java, EmissionContext ctx) {}
+
+    static String emit(Programme programme, AnalyseSemantique sem, JavaGeneratorOptions options, EmissionContext ctx) {
+        FunctionCache cache = options.getFunctionCache();
+        boolean parallele = options.isParallelFunctions() && countFunctions(programme) >= options.getParallelThreshold();
+        if (cache == null && !parallele) {
+            return EmissionContext.avec(ctx, () -> programme.genJava(sem));
+        }
+
+        // Même assemblage que Programme.genJava
+        StringBuilder code = new StringBuilder();
+        for (Classe classe : programme.getClasses()) {
+            // un contexte par tâche (pas de partage entre threads), fusionné ensuite
+            List<Fonction> fonctions = classe.getFonctions();
+            List<FunctionOutput> outputs = (parallele ? fonctions.parallelStream() : fonctions.stream())
+                    .map(f -> emettre(f, sem, options, cache, ctx))
+                    .toList();
+
+            List<String> fonctionsJava = new ArrayList<>(outputs.size());
+            for (FunctionOutput out : outputs) {
+                fonctionsJava.add(out.java());
+                ctx.fusionner(out.ctx());
+            }
+            code.append(EmissionContext.avec(ctx, () -> classe.genJava(sem, fonctionsJava))).append("\n\n");
+        }
+        return code.toString();
+    }
+
+    private static FunctionOutput emettre(Fonction f, AnalyseSemantique sem, JavaGeneratorOptions options,
+                                          FunctionCache cache, EmissionContext ctx) {
+        EmissionContext local = ctx.nouveauLocal();
+        String cle = null;
+        if (cache != null) {
+            String empreinte = sem.empreinteEmission(f, options.isSourceMap());
+            if (empreinte != null) empreinte += ctx.clePartition(sem.appelsDe(f));
+            cle = FunctionCache.cle(empreinte, options);
+            FunctionCache.Entree e = cache.lire(cle);
+            if (e != null) {
+                e.helpers().forEach(local::requireHelper);
+                e.imports().forEach(local::requireImport);
+                return new FunctionOutput(e.java(), local);
+            }
+        }
+
+        String java = EmissionContext.avec(local, () -> f.genJava(sem));
+        if (cache != null) cache.ecrire(cle, new FunctionCache.Entree(java, local.getHelpers(), local.getImports()));
+        return new FunctionOutput(java, local);
+    }
+
+    private static int countFunctions(Programme programme) {
+        int n = 0;
+        for (Classe c : programme.getClasses()) {
+            List<Fonction> fs = c.getFonctions();
+            n += (fs == null) ? 0 : fs.size();
+        }
+        return n;
+    }
+}
@@ -2,20 +2,47 @@ package main.java.codegenerator;
 
 import main.java.semantic.AnalyseSemantique;
 
+import java.util.List;
+
 public class GenerationResult {
+    /**
+     * Une unité de compilation (un fichier Nom.java).
+     * nomClasse : null pour un résultat construit depuis un source seul (nom non suivi).
+     */
+    public record Unite(String nomClasse, String source, SourceMap sourceMap) {}
+
     private final String javaSource;
     private final AnalyseSemantique semantic;
+    private final SourceMap sourceMap;
+    private final List<Unite> unites;
 
     public GenerationResult(String javaSource, AnalyseSemantique semantic) {
-        this.javaSource = javaSource;
+        this(javaSource, semantic, SourceMap.VIDE);
+    }
+
+    public GenerationResult(String javaSource, AnalyseSemantique semantic, SourceMap sourceMap) {
+        this(List.of(new Unite(null, javaSource, (sourceMap == null) ? SourceMap.VIDE : sourceMap)), semantic);
+    }
+
+    /** unites : classe principale (main + runtime partagé) en premier. */
+    public GenerationResult(List<Unite> unites, AnalyseSemantique semantic) {
+        if (unites.isEmpty()) throw new IllegalArgumentException("unites vide");
+        this.unites = List.copyOf(unites);
+        this.javaSource = unites.get(0).source();
         this.semantic = semantic;
+        this.sourceMap = (unites.get(0).sourceMap() == null) ? SourceMap.VIDE : unites.get(0).sourceMap();
     }
 
+    /** Source de la classe principale (le seul source sans découpage en classes). */
     public String getJavaSource() { return javaSource; }
     public AnalyseSemantique getSemantic() { return semantic; }
     public String getSource() { return javaSource; }
 
+    /** Lignes Java -> positions .fc (VIDE sauf avec JavaGeneratorOptions.sourceMap(true)). */
+    public SourceMap getSourceMap() { return sourceMap; }
 
+    /** Toutes les unités, principale d'abord (plusieurs avec JavaGeneratorOptions.fonctionsMaxParClasse). */
+    public List<Unite> getUnites() { return unites; }
 
     @Override
     public String toString() { return javaSource; }
@@ -1,10 +1,14 @@
 package main.java.codegenerator;
 
+import main.java.parseur.ast.Classe;
 import main.java.parseur.ast.Programme;
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.DiagnosticCollector;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 
 public class JavaGenerator {
 
@@ -20,34 +24,121 @@ public class JavaGenerator {
                 ? runSemantic(programme)
                 : options.getSemanticOrThrow();
 
-        String source = programme.genJava(sem);
+        ClassPartitioner.Partition partition = (programme.getClasses().size() == 1)
+                ? ClassPartitioner.partitionner(programme.getClasses().get(0), sem, options.getFonctionsMaxParClasse())
+                : null;
+        if (partition != null) {
+            return generateClasses(programme, partition, sem, options);
+        }
 
-        // (A) runtime pour lire()
-        boolean needsLireRuntime = options.isForceLireRuntime()
-                || RuntimeSupport.programmeUsesLire(programme);
+        // Helpers runtime / imports enregistrés pendant l'émission (pas de scan du source)
+        EmissionContext ctx = new EmissionContext(options);
+        String body = FunctionEmitter.emit(programme, sem, options, ctx);
+        List<String> chunks = runtimeChunks(options, ctx, ctx, false);
+
+        String source = assemble(options.getPackageName(), ctx.getImports(), body, chunks);
+        String nom = (programme.getClasses().size() == 1) ? programme.getClasses().get(0).getNom() : null;
+        return new GenerationResult(List.of(unite(nom, source, options)), sem);
+    }
+
+    /**
+     * Programme découpé (ClassPartitioner) : une unité par classe, même paquet.
+     * Le runtime (lire, RuntimeSupport, gardes) n'est injecté qu'une fois, dans la classe principale,
+     * pour les besoins de toutes les classes : un seul Scanner sur System.in, un seul budget de pas.
+     */
+    private GenerationResult generateClasses(Programme programme, ClassPartitioner.Partition partition,
+                                             AnalyseSemantique sem, JavaGeneratorOptions options) {
+        EmissionContext racine = new EmissionContext(options);
+        EmissionContext besoins = racine.nouveauLocal();
+        List<EmissionContext> contextes = new ArrayList<>(partition.classes().size());
+        List<String> corps = new ArrayList<>(partition.classes().size());
+        for (Classe classe : partition.classes()) {
+            EmissionContext ctx = racine.pourClasse(partition.classeDe(), classe.getNom(), partition.principale());
+            Programme seul = new Programme(programme.getPosition(), List.of(classe));
+            corps.add(FunctionEmitter.emit(seul, sem, options, ctx));
+            contextes.add(ctx);
+            besoins.fusionner(ctx);
+        }
 
-        if (needsLireRuntime) {
-            String runtimeChunk = RuntimeSupport.lireIntRuntimeChunk(
+        List<String> chunks = runtimeChunks(options, besoins, contextes.get(0), true);
+        List<GenerationResult.Unite> unites = new ArrayList<>(corps.size());
+        for (int i = 0; i < corps.size(); i++) {
+            String source = assemble(options.getPackageName(), contextes.get(i).getImports(), corps.get(i),
+                    (i == 0) ? chunks : List.of());
+            unites.add(unite(partition.classes().get(i).getNom(), source, options));
+        }
+        return new GenerationResult(unites, sem);
+    }
+
+    /** Runtime injecté selon les helpers de besoins ; ses imports vont dans imports. */
+    private List<String> runtimeChunks(JavaGeneratorOptions options, EmissionContext besoins,
+                                       EmissionContext imports, boolean partage) {
+        List<String> chunks = new ArrayList<>(2);
+
+        // (A) runtime pour lire()
+        if (options.isForceLireRuntime() || besoins.uses(RuntimeHelper.LIRE)) {
+            chunks.add(RuntimeSupport.lireIntRuntimeChunk(
                     options.getScannerFieldName(),
                     options.getScannerInitExpr(),
                     options.getLireMethodName()
-            );
-            source = SourcePatcher.injectBeforeLastBrace(source, runtimeChunk);
-            source = ImportManager.ensureImport(source, "java.util.Scanner");
+            ));
+            imports.requireImport("java.util.Scanner");
         }
 
         // (B) runtime pour casts/conversions (asInt/asBool/...)
-        boolean needsTypeRuntime =
-                source.contains("RuntimeSupport.asInt(") ||
-                        source.contains("RuntimeSupport.asBool(") ||
-                        source.contains("RuntimeSupport.asString(") ||
-                        source.contains("RuntimeSupport.asChar(");
-
-        if (needsTypeRuntime && !source.contains("class RuntimeSupport")) {
-            source = SourcePatcher.injectBeforeLastBrace(source, typeRuntimeChunk());
+        if (options.isInjectTypeRuntime() && besoins.usesTypeRuntime()) {
+            chunks.add(typeRuntimeChunk());
+        }
+
+        // (C) gardes d'exécution (compteurs de pas / profondeur)
+        if (besoins.uses(RuntimeHelper.GARDE_PAS) || besoins.uses(RuntimeHelper.GARDE_TOURS)
+                || besoins.uses(RuntimeHelper.GARDE_ENTREE)) {
+            chunks.add(RuntimeSupport.gardesRuntimeChunk(options.getGardePasMax(), options.getGardeProfondeurMax(), partage));
+        }
+        return chunks;
+    }
+
+    private static GenerationResult.Unite unite(String nomClasse, String source, JavaGeneratorOptions options) {
+        if (!options.isSourceMap()) {
+            return new GenerationResult.Unite(nomClasse, source, SourceMap.VIDE);
+        }
+        // lignes connues seulement après assemblage (package, imports) : marques retirées ici
+        SourceMap.Extraction ex = SourceMap.extraire(source);
+        return new GenerationResult.Unite(nomClasse, ex.source(), ex.carte());
+    }
+
+    /**
+     * Unité de compilation construite en une seule passe :
+     * package, imports, puis le corps avec les chunks runtime avant la dernière '}'.
+     */
+    private static String assemble(String packageName, Set<String> imports, String body, List<String> chunks) {
+        int chunksLength = 0;
+        for (String c : chunks) chunksLength += c.length() + 1;
+
+        StringBuilder out = new StringBuilder(body.length() + chunksLength + 64 * (imports.size() + 1));
+
+        if (packageName != null) {
+            out.append("package ").append(packageName).append(";\n\n");
+        }
+        if (!imports.isEmpty()) {
+            for (String imp : imports) {
+                out.append("import ").append(imp).append(";\n");
+            }
+            out.append("\n");
+        }
+
+        int idx = body.lastIndexOf('}');
+        if (idx < 0) {
+            // Pas de classe ? on concatène
+            out.append(body);
+            for (String c : chunks) out.append("\n").append(c);
+            return out.toString();
         }
 
-        return new GenerationResult(source, sem);
+        out.append(body, 0, idx);
+        for (String c : chunks) out.append(c).append("\n");
+        out.append(body, idx, body.length());
+        return out.toString();
     }
 
     private AnalyseSemantique runSemantic(Programme programme) {
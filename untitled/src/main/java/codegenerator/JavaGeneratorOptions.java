@@ -10,6 +10,27 @@ public class JavaGeneratorOptions {
     private String scannerInitExpr = "new Scanner(System.in)";
     private String lireMethodName = "lire";
 
+    // --- unité de compilation ---
+    private String packageName = null;
+    private boolean injectTypeRuntime = true;
+
+    // --- émission parallèle des fonctions ---
+    private boolean parallelFunctions = true;
+    private int parallelThreshold = 64;
+
+    // --- gardes d'exécution (programmes non fiables), 0 = désactivé ---
+    private long gardePasMax = 0;
+    private int gardeProfondeurMax = 0;
+
+    // --- carte source (lignes Java -> positions .fc) ---
+    private boolean sourceMap = false;
+
+    // --- découpage en plusieurs classes Java, 0 = une seule classe ---
+    private int fonctionsMaxParClasse = 0;
+
+    // --- cache du Java par fonction (recompilation partielle), null = désactivé ---
+    private FunctionCache functionCache = null;
+
     // --- sémantique ---
     private boolean runSemanticAnalysis = true;
     private AnalyseSemantique semantic = null;
@@ -23,6 +44,22 @@ public class JavaGeneratorOptions {
     public String getScannerInitExpr() { return scannerInitExpr; }
     public String getLireMethodName() { return lireMethodName; }
 
+    public String getPackageName() { return packageName; }
+    public boolean isInjectTypeRuntime() { return injectTypeRuntime; }
+
+    public boolean isParallelFunctions() { return parallelFunctions; }
+    public int getParallelThreshold() { return parallelThreshold; }
+
+    public long getGardePasMax() { return gardePasMax; }
+    public int getGardeProfondeurMax() { return gardeProfondeurMax; }
+    public boolean isGardesActives() { return gardePasMax > 0 || gardeProfondeurMax > 0; }
+
+    public boolean isSourceMap() { return sourceMap; }
+
+    public FunctionCache getFunctionCache() { return functionCache; }
+
+    public int getFonctionsMaxParClasse() { return fonctionsMaxParClasse; }
+
     public boolean isRunSemanticAnalysis() { return runSemanticAnalysis; }
 
     public AnalyseSemantique getSemanticOrThrow() {
@@ -55,6 +92,82 @@ public class JavaGeneratorOptions {
         return this;
     }
 
+    /** Ajoute "package v;" en tête du source généré (null/blank = paquet par défaut). */
+    public JavaGeneratorOptions packageName(String v) {
+        this.packageName = (v == null || v.isBlank()) ? null : v;
+        return this;
+    }
+
+    /**
+     * false => la classe imbriquée RuntimeSupport n'est pas injectée :
+     * l'hôte doit fournir une classe RuntimeSupport visible depuis le paquet généré.
+     */
+    public JavaGeneratorOptions injectTypeRuntime(boolean v) {
+        this.injectTypeRuntime = v;
+        return this;
+    }
+
+    /** Génère les fonctions en parallèle (sortie identique au séquentiel). */
+    public JavaGeneratorOptions parallelFunctions(boolean v) {
+        this.parallelFunctions = v;
+        return this;
+    }
+
+    /** Nombre minimal de fonctions pour passer en parallèle (en dessous, le coût du fork domine). */
+    public JavaGeneratorOptions parallelThreshold(int v) {
+        if (v < 0) throw new IllegalArgumentException("parallelThreshold doit être >= 0");
+        this.parallelThreshold = v;
+        return this;
+    }
+
+    /**
+     * Budget de pas : chaque itération de tantque/pour et chaque entrée d'une fonction qui en appelle
+     * d'autres coûte un pas (un pour dont les tours sont connus à l'entrée est facturé en une fois) ;
+     * au-delà, le programme généré lève IllegalStateException (RuntimeSupport.MESSAGE_LIMITE).
+     * 0 = pas d'instrumentation (sortie inchangée).
+     */
+    public JavaGeneratorOptions gardePasMax(long v) {
+        if (v < 0) throw new IllegalArgumentException("gardePasMax doit être >= 0");
+        this.gardePasMax = v;
+        return this;
+    }
+
+    /**
+     * Profondeur d'appel maximale (récursion infinie arrêtée avant le StackOverflowError), comptée
+     * sur les fonctions qui appellent (une feuille n'ajoute qu'un cadre). 0 = désactivé.
+     */
+    public JavaGeneratorOptions gardeProfondeurMax(int v) {
+        if (v < 0) throw new IllegalArgumentException("gardeProfondeurMax doit être >= 0");
+        this.gardeProfondeurMax = v;
+        return this;
+    }
+
+    /** Construit GenerationResult.getSourceMap() (le Java produit est identique avec ou sans). */
+    public JavaGeneratorOptions sourceMap(boolean v) {
+        this.sourceMap = v;
+        return this;
+    }
+
+    /**
+     * Au-delà de v fonctions, la classe est découpée en plusieurs classes Java regroupées par graphe
+     * d'appels (GenerationResult.getUnites()) : javac par classe, loin des limites de taille de classe.
+     * 0 = une seule classe (sortie inchangée).
+     */
+    public JavaGeneratorOptions fonctionsMaxParClasse(int v) {
+        if (v < 0) throw new IllegalArgumentException("fonctionsMaxParClasse doit être >= 0");
+        this.fonctionsMaxParClasse = v;
+        return this;
+    }
+
+    /**
+     * Réutilise le Java des fonctions inchangées (même empreinte d'émission) d'une génération
+     * à l'autre ; la sortie est identique à une génération complète.
+     */
+    public JavaGeneratorOptions functionCache(FunctionCache v) {
+        this.functionCache = v;
+        return this;
+    }
+
     public JavaGeneratorOptions runSemanticAnalysis(boolean v) {
         this.runSemanticAnalysis = v;
         return this;
@@ -0,0 +1,254 @@
+package main.java.codegenerator;
+
+import utils.diag.Position;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Réécrit la table des lignes d'un .class javac pour qu'elle désigne le source .fc :
+ * - LineNumberTable de chaque méthode : ligne Java -> ligne .fc (SourceMap) ;
+ *   les lignes hors source (wrapper main(String[]), lire(), gardes) sont retirées ;
+ * - attribut SourceFile : nom du fichier .fc.
+ *
+ * Les traces de pile, débogueurs et profileurs lisent directement ces tables : aucun
+ * coût à l'exécution. Seule la classe principale est concernée (RuntimeSupport est une
+ * classe imbriquée, fichier .class distinct, laissée sur ses lignes Java).
+ *
+ * Le reste du fichier est recopié octet pour octet ; le pool de constantes est
+ * seulement complété (nom du .fc, et "SourceFile" si javac ne l'avait pas émis).
+ */
+public final class LineTableRewriter {
+
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private LineTableRewriter() {}
+
+    /**
+     * @param classFile  octets produits par javac pour la classe générée
+     * @param carte      carte du source Java compilé (GenerationResult.getSourceMap())
+     * @param sourceFile nom affiché dans les traces (ex. "programme.fc")
+     * @return nouveaux octets ; classFile tel quel si la carte est vide
+     * @throws IllegalArgumentException si classFile n'est pas un fichier .class valide
+     */
+    public static byte[] rewrite(byte[] classFile, SourceMap carte, String sourceFile) {
+        if (carte == null || carte.estVide()) return classFile;
+        try {
+            return new Passe(classFile, carte, sourceFile).executer();
+        } catch (IOException e) {
+            // EOF sur un tableau en mémoire : fichier tronqué
+            throw new IllegalArgumentException("Fichier .class invalide: " + e.getMessage(), e);
+        }
+    }
+
+    /** Une réécriture : lecture séquentielle, écriture au fil de l'eau. */
+    private static final class Passe {
+        private final DataInputStream in;
+        private final ByteArrayOutputStream octets;
+        private final DataOutputStream out;
+        private final SourceMap carte;
+        private final String sourceFile;
+
+        private final Map<String, Integer> utf8 = new HashMap<>();
+        private int taillePool;
+        private int indexSourceFile;   // nom .fc (ajouté)
+        private int nomSourceFile;     // "SourceFile"
+        private int nomCode;
+        private int nomLignes;
+
+        Passe(byte[] classe, SourceMap carte, String sourceFile) {
+            this.in = new DataInputStream(new ByteArrayInputStream(classe));
+            this.octets = new ByteArrayOutputStream(classe.length + 64);
+            this.out = new DataOutputStream(octets);
+            this.carte = carte;
+            this.sourceFile = sourceFile;
+        }
+
+        byte[] executer() throws IOException {
+            if (in.readInt() != MAGIC) throw new IllegalArgumentException("Fichier .class invalide (magic)");
+            out.writeInt(MAGIC);
+            out.writeShort(in.readUnsignedShort()); // minor
+            out.writeShort(in.readUnsignedShort()); // major
+
+            byte[] pool = lirePool();
+            nomCode = utf8.getOrDefault("Code", -1);
+            nomLignes = utf8.getOrDefault("LineNumberTable", -1);
+
+            // constantes ajoutées en fin de pool
+            ByteArrayOutputStream ajouts = new ByteArrayOutputStream();
+            DataOutputStream a = new DataOutputStream(ajouts);
+            int prochain = taillePool;
+            indexSourceFile = prochain++;
+            a.writeByte(1);
+            a.writeUTF(sourceFile);
+            Integer sf = utf8.get("SourceFile");
+            if (sf == null) {
+                nomSourceFile = prochain++;
+                a.writeByte(1);
+                a.writeUTF("SourceFile");
+            } else {
+                nomSourceFile = sf;
+            }
+
+            out.writeShort(prochain);
+            out.write(pool);
+            out.write(ajouts.toByteArray());
+
+            copier(6);                                   // access, this, super
+            int interfaces = in.readUnsignedShort();
+            out.writeShort(interfaces);
+            copier(2 * interfaces);
+
+            membres(false);                              // champs
+            membres(true);                               // méthodes
+            attributsClasse();
+
+            if (in.read() != -1) throw new IllegalArgumentException("Fichier .class invalide (octets en trop)");
+            return octets.toByteArray();
+        }
+
+        private byte[] lirePool() throws IOException {
+            taillePool = in.readUnsignedShort();
+            ByteArrayOutputStream pool = new ByteArrayOutputStream();
+            DataOutputStream p = new DataOutputStream(pool);
+            for (int i = 1; i < taillePool; i++) {
+                int tag = in.readUnsignedByte();
+                p.writeByte(tag);
+                switch (tag) {
+                    case 1 -> {
+                        String s = in.readUTF();
+                        p.writeUTF(s);
+                        utf8.putIfAbsent(s, i);
+                    }
+                    case 3, 4, 9, 10, 11, 12, 17, 18 -> transferer(p, 4);
+                    case 5, 6 -> {
+                        transferer(p, 8);
+                        i++; // long / double : deux entrées
+                    }
+                    case 7, 8, 16, 19, 20 -> transferer(p, 2);
+                    case 15 -> transferer(p, 3);
+                    default -> throw new IllegalArgumentException("Fichier .class invalide (constante " + tag + ")");
+                }
+            }
+            return pool.toByteArray();
+        }
+
+        private void membres(boolean methodes) throws IOException {
+            int n = in.readUnsignedShort();
+            out.writeShort(n);
+            for (int i = 0; i < n; i++) {
+                copier(6);                               // access, name, descriptor
+                int attributs = in.readUnsignedShort();
+                out.writeShort(attributs);
+                for (int j = 0; j < attributs; j++) {
+                    int nom = in.readUnsignedShort();
+                    int longueur = in.readInt();
+                    if (methodes && nom == nomCode) {
+                        byte[] code = reecrireCode(in.readNBytes(longueur));
+                        out.writeShort(nom);
+                        out.writeInt(code.length);
+                        out.write(code);
+                    } else {
+                        out.writeShort(nom);
+                        out.writeInt(longueur);
+                        copier(longueur);
+                    }
+                }
+            }
+        }
+
+        /** Attribut Code : seules les LineNumberTable imbriquées changent. */
+        private byte[] reecrireCode(byte[] code) throws IOException {
+            DataInputStream c = new DataInputStream(new ByteArrayInputStream(code));
+            ByteArrayOutputStream res = new ByteArrayOutputStream(code.length);
+            DataOutputStream r = new DataOutputStream(res);
+
+            transferer(c, r, 4);                         // max_stack, max_locals
+            int longueurCode = c.readInt();
+            r.writeInt(longueurCode);
+            transferer(c, r, longueurCode);
+            int exceptions = c.readUnsignedShort();
+            r.writeShort(exceptions);
+            transferer(c, r, 8 * exceptions);
+
+            int attributs = c.readUnsignedShort();
+            r.writeShort(attributs);
+            for (int j = 0; j < attributs; j++) {
+                int nom = c.readUnsignedShort();
+                int longueur = c.readInt();
+                if (nom != nomLignes) {
+                    r.writeShort(nom);
+                    r.writeInt(longueur);
+                    transferer(c, r, longueur);
+                    continue;
+                }
+
+                int entrees = c.readUnsignedShort();
+                ByteArrayOutputStream table = new ByteArrayOutputStream(4 * entrees);
+                DataOutputStream t = new DataOutputStream(table);
+                int gardees = 0;
+                for (int k = 0; k < entrees; k++) {
+                    int pc = c.readUnsignedShort();
+                    int ligneJava = c.readUnsignedShort();
+                    Position pos = carte.positionDe(ligneJava);
+                    if (pos == null) continue;           // hors source : pas de ligne .fc
+                    t.writeShort(pc);
+                    t.writeShort(pos.ligne());
+                    gardees++;
+                }
+                r.writeShort(nom);
+                r.writeInt(2 + 4 * gardees);
+                r.writeShort(gardees);
+                r.write(table.toByteArray());
+            }
+            return res.toByteArray();
+        }
+
+        private void attributsClasse() throws IOException {
+            int n = in.readUnsignedShort();
+            ByteArrayOutputStream attrs = new ByteArrayOutputStream();
+            DataOutputStream a = new DataOutputStream(attrs);
+            boolean sourceFileVu = false;
+            for (int i = 0; i < n; i++) {
+                int nom = in.readUnsignedShort();
+                int longueur = in.readInt();
+                a.writeShort(nom);
+                a.writeInt(longueur);
+                if (nom == nomSourceFile) {
+                    in.readUnsignedShort();
+                    a.writeShort(indexSourceFile);
+                    sourceFileVu = true;
+                } else {
+                    transferer(in, a, longueur);
+                }
+            }
+            if (!sourceFileVu) {
+                a.writeShort(nomSourceFile);
+                a.writeInt(2);
+                a.writeShort(indexSourceFile);
+                n++;
+            }
+            out.writeShort(n);
+            out.write(attrs.toByteArray());
+        }
+
+        private void copier(int n) throws IOException {
+            transferer(in, out, n);
+        }
+
+        private void transferer(DataOutputStream vers, int n) throws IOException {
+            transferer(in, vers, n);
+        }
+
+        private static void transferer(DataInputStream de, DataOutputStream vers, int n) throws IOException {
+            byte[] b = de.readNBytes(n);
+            if (b.length != n) throw new IOException("fin de fichier inattendue");
+            vers.write(b);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package main.java.codegenerator;
+
+/**
+ * Helpers runtime que le code généré peut appeler.
+ * Enregistrés pendant l'émission (EmissionContext) au lieu d'être retrouvés
+ * ensuite par recherche de chaînes dans le source Java.
+ */
+public enum RuntimeHelper {
+    AS_INT("RuntimeSupport.asInt", true),
+    AS_BOOL("RuntimeSupport.asBool", true),
+    AS_STRING("RuntimeSupport.asString", true),
+    AS_CHAR("RuntimeSupport.asChar", true),
+    LIRE("lire", false),
+    GARDE_PAS("__gardePas", false),
+    GARDE_TOURS("__gardeTours", false),
+    GARDE_ENTREE("__gardeEntree", false),
+    GARDE_SORTIE("__gardeSortie", false);
+
+    private final String methode;
+    private final boolean typeRuntime;
+
+    RuntimeHelper(String methode, boolean typeRuntime) {
+        this.methode = methode;
+        this.typeRuntime = typeRuntime;
+    }
+
+    public String getMethode() { return methode; }
+
+    /** true => fourni par la classe RuntimeSupport injectée (conversions). */
+    public boolean isTypeRuntime() { return typeRuntime; }
+
+    public String appel(String args) {
+        return methode + "(" + args + ")";
+    }
+}
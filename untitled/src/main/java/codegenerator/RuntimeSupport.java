@@ -125,4 +125,71 @@ public final class RuntimeSupport {
                         "    return " + scannerFieldName + ".nextInt();\n" +
                         "  }\n";
     }
+
+    /** Préfixe du message levé par les gardes d'exécution (budget de pas ou de profondeur épuisé). */
+    public static final String MESSAGE_LIMITE = "Limite d'exécution dépassée";
+
+    /** Itérations comptées localement avant report au compteur global (lecture/écriture statique amortie). */
+    public static final int LOT_GARDE = 1024;
+
+    /**
+     * Compteur d'itérations local, déclaré par les fonctions qui contiennent une boucle gardée
+     * par itération et reporté au compteur global dans leur finally (le reliquat sous LOT_GARDE compte aussi).
+     */
+    public static final String COMPTEUR_LOCAL_GARDE = "__pasLocaux";
+
+    /**
+     * Compteurs des gardes d'exécution : aucun appel système, le compteur global n'est touché
+     * qu'une fois par lot d'itérations, à la sortie des fonctions qui bouclent, avant un pour
+     * dont les tours sont facturés d'avance et à l'entrée des fonctions qui appellent.
+     * Champs statiques => un budget par chargement de la classe générée.
+     * Un budget à 0 n'émet pas la vérification correspondante.
+     */
+    public static String gardesRuntimeChunk(long pasMax, int profondeurMax) {
+        return gardesRuntimeChunk(pasMax, profondeurMax, false);
+    }
+
+    /** partage : méthodes visibles du paquet (appelées depuis les autres classes d'un programme découpé). */
+    public static String gardesRuntimeChunk(long pasMax, int profondeurMax, boolean partage) {
+        String visibilite = partage ? "  static " : "  private static ";
+        StringBuilder sb = new StringBuilder("\n  // ===== Gardes d'exécution =====\n");
+        sb.append("  private static long __pas;\n");
+        sb.append("  private static int __profondeur;\n\n");
+
+        sb.append(visibilite).append("int __gardePas(long n) {\n");
+        sb.append("    __pas += n;\n");
+        if (pasMax > 0) {
+            sb.append("    if (__pas > ").append(pasMax).append("L) throw new IllegalStateException(\"")
+                    .append(MESSAGE_LIMITE).append(" : plus de ").append(pasMax).append(" pas\");\n");
+        }
+        sb.append("    return 0;\n");
+        sb.append("  }\n\n");
+
+        // pour [debut; fin], pas signé (+pas pour +=, -pas pour -=) : tous les tours comptés avant la boucle.
+        // Compteur int : si la valeur après le dernier tour sort des int, il reboucle => boucle sans fin.
+        sb.append(visibilite).append("void __gardeTours(long debut, long fin, long pas) {\n");
+        sb.append("    long ecart = (pas > 0) ? fin - debut : debut - fin;\n");
+        sb.append("    if (ecart < 0) return;\n");
+        sb.append("    long tours = ecart / Math.abs(pas) + 1;\n");
+        sb.append("    long apres = debut + tours * pas;\n");
+        if (pasMax > 0) {
+            sb.append("    if (apres > Integer.MAX_VALUE || apres < Integer.MIN_VALUE) throw new IllegalStateException(\"")
+                    .append(MESSAGE_LIMITE).append(" : boucle pour sans fin (compteur hors des int)\");\n");
+        }
+        sb.append("    __gardePas(tours);\n");
+        sb.append("  }\n\n");
+
+        sb.append(visibilite).append("void __gardeEntree() {\n");
+        if (profondeurMax > 0) {
+            sb.append("    if (__profondeur >= ").append(profondeurMax).append(") throw new IllegalStateException(\"")
+                    .append(MESSAGE_LIMITE).append(" : profondeur d'appel > ").append(profondeurMax).append("\");\n");
+        }
+        sb.append("    __profondeur++;\n");
+        sb.append("  }\n\n");
+
+        sb.append(visibilite).append("void __gardeSortie() {\n");
+        sb.append("    __profondeur--;\n");
+        sb.append("  }\n");
+        return sb.toString();
+    }
 }
@@ -0,0 +1,217 @@
+package main.java.codegenerator;
+
+import utils.diag.Position;
+
+import java.util.Arrays;
+
+/**
+ * Carte source : ligne du Java généré -> Position .fc et fonction .fc.
+ *
+ * Entrées triées par ligne Java ; une ligne sans entrée hérite de la dernière entrée
+ * qui la précède (plancher), jusqu'à une marque de fin de fonction. Les lignes hors
+ * fonction (wrapper main(String[]), runtime injecté) n'ont pas de position.
+ *
+ * Construction pendant l'émission : les noeuds insèrent des marques invisibles
+ * (marqueFonction / marqueInstruction / marqueFin), retirées par extraire(...)
+ * une fois l'unité de compilation assemblée. Le Java nettoyé est identique à
+ * celui produit sans carte.
+ */
+public final class SourceMap {
+
+    public static final SourceMap VIDE = new SourceMap(new int[0], new Position[0], new String[0], 0);
+
+    // Marques : DEBUT type charge FIN (U+E000 / U+E001, zone privée Unicode)
+    private static final char DEBUT = '\uE000';
+    private static final char FIN = '\uE001';
+    private static final char FONCTION = 'F';
+    private static final char INSTRUCTION = 'I';
+    private static final char SORTIE = 'X';
+
+    private final int[] lignes;          // lignes Java (1-based), croissantes
+    private final Position[] positions;  // null = hors source
+    private final String[] fonctions;    // fonction .fc de l'entrée (null = hors fonction)
+    private final int taille;
+
+    private SourceMap(int[] lignes, Position[] positions, String[] fonctions, int taille) {
+        this.lignes = lignes;
+        this.positions = positions;
+        this.fonctions = fonctions;
+        this.taille = taille;
+    }
+
+    /* =========================
+     *  REQUÊTES
+     * ========================= */
+
+    /** Position .fc de la ligne Java (1-based), null si la ligne n'appartient à aucune fonction .fc. */
+    public Position positionDe(int ligneJava) {
+        int i = plancher(ligneJava);
+        return (i < 0) ? null : positions[i];
+    }
+
+    /** Fonction .fc qui a produit la ligne Java, null hors fonction. */
+    public String fonctionDe(int ligneJava) {
+        int i = plancher(ligneJava);
+        return (i < 0) ? null : fonctions[i];
+    }
+
+    /** Nombre d'entrées (lignes Java marquées). */
+    public int taille() {
+        return taille;
+    }
+
+    public boolean estVide() {
+        return taille == 0;
+    }
+
+    private int plancher(int ligneJava) {
+        int i = Arrays.binarySearch(lignes, 0, taille, ligneJava);
+        if (i < 0) i = -i - 2;
+        return i;
+    }
+
+    /** Une entrée par ligne : "java:L -> fc:L:C (fonction)". */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < taille; i++) {
+            sb.append("java:").append(lignes[i]).append(" -> ");
+            if (positions[i] == null) {
+                sb.append("-");
+            } else {
+                sb.append("fc:").append(positions[i].ligne()).append(':').append(positions[i].colonne())
+                        .append(" (").append(fonctions[i]).append(')');
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    /* =========================
+     *  MARQUES (émission)
+     * ========================= */
+
+    /** Début de fonction : la ligne portant la marque et les suivantes appartiennent à nom. */
+    static String marqueFonction(String nom, Position pos) {
+        if (pos == null) return DEBUT + "" + FONCTION + nom + FIN;
+        return DEBUT + "" + FONCTION + nom + ':' + pos.ligne() + ':' + pos.colonne() + FIN;
+    }
+
+    /** Instruction .fc commençant sur cette ligne. */
+    static String marqueInstruction(Position pos) {
+        return DEBUT + "" + INSTRUCTION + pos.ligne() + ':' + pos.colonne() + FIN;
+    }
+
+    /** Fin de fonction : les lignes suivantes sont hors source. */
+    static String marqueFin() {
+        return DEBUT + "" + SORTIE + FIN;
+    }
+
+    /** Java nettoyé de ses marques + carte correspondante. */
+    public record Extraction(String source, SourceMap carte) {}
+
+    /**
+     * Retire les marques du source assemblé et construit la carte (une passe).
+     * Sans marque, renvoie le source tel quel et VIDE.
+     */
+    static Extraction extraire(String marque) {
+        if (marque.indexOf(DEBUT) < 0) return new Extraction(marque, VIDE);
+
+        Builder b = new Builder();
+        StringBuilder out = new StringBuilder(marque.length());
+        int ligne = 1;
+        String fonction = null;
+
+        int n = marque.length();
+        int i = 0;
+        while (i < n) {
+            char c = marque.charAt(i);
+            if (c == '\n') {
+                ligne++;
+                out.append(c);
+                i++;
+                continue;
+            }
+            int fin = (c == DEBUT) ? marque.indexOf(FIN, i + 1) : -1;
+            if (fin < 0 || fin == i + 1) {
+                out.append(c);
+                i++;
+                continue;
+            }
+
+            char type = marque.charAt(i + 1);
+            String charge = marque.substring(i + 2, fin);
+            switch (type) {
+                case FONCTION -> {
+                    int sep = charge.indexOf(':');
+                    fonction = (sep < 0) ? charge : charge.substring(0, sep);
+                    b.ajouter(ligne, (sep < 0) ? null : lirePosition(charge.substring(sep + 1)), fonction);
+                }
+                case INSTRUCTION -> {
+                    b.ajouter(ligne, lirePosition(charge), fonction);
+                }
+                case SORTIE -> {
+                    fonction = null;
+                    b.ajouter(ligne, null, null);
+                }
+                default -> {
+                    // pas une marque : texte ordinaire
+                    out.append(c);
+                    i++;
+                    continue;
+                }
+            }
+            i = fin + 1;
+        }
+        return new Extraction(out.toString(), b.construire());
+    }
+
+    private static Position lirePosition(String lc) {
+        int sep = lc.indexOf(':');
+        if (sep < 0) return null;
+        try {
+            return new Position(Integer.parseInt(lc.substring(0, sep)), Integer.parseInt(lc.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /* =========================
+     *  CONSTRUCTION DIRECTE
+     * ========================= */
+
+    /**
+     * Construction par lignes croissantes (générateurs qui comptent eux-mêmes leurs lignes, ex. IrVersJava).
+     * Sur une même ligne, la première entrée l'emporte.
+     */
+    public static final class Builder {
+        private int[] lignes = new int[16];
+        private Position[] positions = new Position[16];
+        private String[] fonctions = new String[16];
+        private int taille;
+
+        public Builder ajouter(int ligneJava, Position pos, String fonction) {
+            if (taille > 0) {
+                int derniere = lignes[taille - 1];
+                if (ligneJava < derniere) throw new IllegalArgumentException("lignes non croissantes: " + ligneJava);
+                if (ligneJava == derniere) return this; // plusieurs marques sur une ligne : la première l'emporte
+            }
+            if (taille == lignes.length) {
+                lignes = Arrays.copyOf(lignes, taille * 2);
+                positions = Arrays.copyOf(positions, taille * 2);
+                fonctions = Arrays.copyOf(fonctions, taille * 2);
+            }
+            lignes[taille] = ligneJava;
+            positions[taille] = pos;
+            fonctions[taille] = fonction;
+            taille++;
+            return this;
+        }
+
+        public SourceMap construire() {
+            if (taille == 0) return VIDE;
+            return new SourceMap(Arrays.copyOf(lignes, taille), Arrays.copyOf(positions, taille),
+                    Arrays.copyOf(fonctions, taille), taille);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package main.java.execution;
+
+import main.java.codegenerator.GenerationResult;
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.ir.IrFonction;
+import main.java.ir.IrProgramme;
+import main.java.ir.convertisseur.IrVersJava;
+import main.java.parseur.ast.Classe;
+import main.java.parseur.ast.Fonction;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Chargement "JIT" d'un programme .fc dans la JVM courante, sans passer par le disque.
+ *
+ * Pipeline : AST/IR -> source Java (paquet main.java.execution) -> javac en mémoire
+ * -> Lookup.defineHiddenClass -> un MethodHandle par fonction.
+ *
+ * Contraintes d'une classe cachée :
+ * - elle doit appartenir au paquet du Lookup (d'où packageName imposé au générateur) ;
+ * - elle ne peut pas avoir de classe imbriquée (d'où injectTypeRuntime(false),
+ *   le runtime de conversion étant fourni par {@link RuntimeSupport}).
+ *
+ * Chaque appel à charger() définit une nouvelle classe, collectable dès que
+ * le ProgrammeCharge n'est plus référencé (rechargement à chaud possible).
+ */
+public final class ChargeurProgramme {
+
+    static final String PAQUET = ChargeurProgramme.class.getPackageName();
+
+    private ChargeurProgramme() {}
+
+    // ---------- AST ----------
+
+    public static ProgrammeCharge charger(Programme programme) {
+        return charger(programme, null);
+    }
+
+    /** sem == null => l'analyse sémantique est exécutée par le générateur. */
+    public static ProgrammeCharge charger(Programme programme, AnalyseSemantique sem) {
+        Objects.requireNonNull(programme, "programme");
+        if (programme.getClasses().size() != 1) {
+            throw new IllegalArgumentException("Chargement en mémoire : exactement une classe attendue, trouvé "
+                    + programme.getClasses().size());
+        }
+        Classe classe = programme.getClasses().get(0);
+
+        JavaGeneratorOptions options = JavaGeneratorOptions.defaults()
+                .packageName(PAQUET)
+                .injectTypeRuntime(false);
+        if (sem != null) {
+            options.runSemanticAnalysis(false).semantic(sem);
+        }
+
+        GenerationResult gen = new JavaGenerator().generate(programme, options);
+        Set<String> noms = new LinkedHashSet<>();
+        for (Fonction f : classe.getFonctions()) noms.add(f.getNom());
+        return definir(classe.getNom(), gen.getJavaSource(), noms);
+    }
+
+    // ---------- IR ----------
+
+    public static ProgrammeCharge charger(IrProgramme programme, AnalyseSemantique sem) {
+        Objects.requireNonNull(programme, "programme");
+        String source = "package " + PAQUET + ";\n\n" + IrVersJava.generate(programme, sem);
+        Set<String> noms = new LinkedHashSet<>();
+        for (IrFonction f : programme.fonctions()) noms.add(f.nom());
+        return definir(programme.nomClasse(), source, noms);
+    }
+
+    // ---------- commun ----------
+
+    private static ProgrammeCharge definir(String nomClasse, String source, Set<String> noms) {
+        String nomQualifie = PAQUET + "." + nomClasse;
+        Map<String, byte[]> classes = CompilateurMemoire.compiler(nomQualifie, source);
+
+        byte[] octets = classes.get(nomQualifie);
+        if (octets == null || classes.size() != 1) {
+            throw new IllegalStateException("Une seule classe attendue pour " + nomQualifie
+                    + ", javac a produit: " + classes.keySet());
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClass(octets, true);
+            Class<?> cls = lookup.lookupClass();
+            return new ProgrammeCharge(cls, handles(lookup, cls, noms), source);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Définition de la classe cachée refusée: " + e.getMessage(), e);
+        }
+    }
+
+    // Une entrée par fonction .fc : ni le wrapper main(String[]) ni le runtime lire() injecté.
+    private static Map<String, MethodHandle> handles(MethodHandles.Lookup lookup, Class<?> cls, Set<String> noms)
+            throws IllegalAccessException {
+        Method[] methodes = cls.getDeclaredMethods();
+        Arrays.sort(methodes, Comparator.comparing(Method::getName));
+
+        Map<String, MethodHandle> res = new LinkedHashMap<>();
+        for (Method m : methodes) {
+            int mod = m.getModifiers();
+            if (!Modifier.isPublic(mod) || !Modifier.isStatic(mod) || m.isSynthetic()) continue;
+            if (!noms.contains(m.getName()) || estWrapperMain(m)) continue;
+            res.put(m.getName(), lookup.unreflect(m));
+        }
+        return res;
+    }
+
+    private static boolean estWrapperMain(Method m) {
+        return m.getName().equals("main")
+                && m.getParameterCount() == 1
+                && m.getParameterTypes()[0] == String[].class;
+    }
+}
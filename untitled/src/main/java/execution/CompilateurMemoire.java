@@ -0,0 +1,110 @@
+package main.java.execution;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.*;
+
+/**
+ * Compilation javac entièrement en mémoire (aucun fichier lu/écrit).
+ *
+ * Entrée : un source Java + son nom de classe qualifié.
+ * Sortie : les octets de chaque classe produite (clé = nom binaire, ex: "a.b.C$D").
+ */
+public final class CompilateurMemoire {
+
+    private CompilateurMemoire() {}
+
+    public static Map<String, byte[]> compiler(String nomQualifie, String source) {
+        Objects.requireNonNull(nomQualifie, "nomQualifie");
+        Objects.requireNonNull(source, "source");
+
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            throw new IllegalStateException("javac introuvable (JDK requis, pas seulement un JRE)");
+        }
+
+        DiagnosticCollector<JavaFileObject> diags = new DiagnosticCollector<>();
+        Map<String, ByteArrayOutputStream> sorties = new LinkedHashMap<>();
+
+        StandardJavaFileManager std = javac.getStandardFileManager(diags, null, StandardCharsets.UTF_8);
+        JavaFileManager fm = new ForwardingJavaFileManager<>(std) {
+            @Override
+            public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                       JavaFileObject.Kind kind, FileObject sibling) {
+                return new SimpleJavaFileObject(uri(className, kind), kind) {
+                    @Override
+                    public OutputStream openOutputStream() {
+                        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                        sorties.put(className, bos);
+                        return bos;
+                    }
+                };
+            }
+        };
+
+        JavaFileObject unite = new SimpleJavaFileObject(uri(nomQualifie, JavaFileObject.Kind.SOURCE),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        List<String> options = List.of(
+                "--release", "17",
+                "-encoding", "UTF-8",
+                "-classpath", classpathHote()
+        );
+
+        boolean ok = javac.getTask(null, fm, diags, options, null, List.of(unite)).call();
+        if (!ok) {
+            StringBuilder sb = new StringBuilder("Compilation en mémoire échouée:\n");
+            for (Diagnostic<? extends JavaFileObject> d : diags.getDiagnostics()) {
+                sb.append(formatDiagnostic(d)).append("\n");
+            }
+            throw new IllegalStateException(sb.toString());
+        }
+
+        Map<String, byte[]> res = new LinkedHashMap<>();
+        for (Map.Entry<String, ByteArrayOutputStream> e : sorties.entrySet()) {
+            res.put(e.getKey(), e.getValue().toByteArray());
+        }
+        return res;
+    }
+
+    // Le code généré référence des classes de l'hôte (RuntimeSupport) : on ajoute
+    // l'emplacement du compilateur lui-même au classpath courant.
+    private static String classpathHote() {
+        Set<String> entrees = new LinkedHashSet<>();
+        CodeSource cs = CompilateurMemoire.class.getProtectionDomain().getCodeSource();
+        if (cs != null && cs.getLocation() != null) {
+            try {
+                entrees.add(new File(cs.getLocation().toURI()).getPath());
+            } catch (Exception ignored) {
+                // classpath système seul
+            }
+        }
+        String cp = System.getProperty("java.class.path", "");
+        if (!cp.isBlank()) {
+            entrees.addAll(Arrays.asList(cp.split(File.pathSeparator)));
+        }
+        return String.join(File.pathSeparator, entrees);
+    }
+
+    private static URI uri(String className, JavaFileObject.Kind kind) {
+        return URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+    }
+
+    private static String formatDiagnostic(Diagnostic<? extends JavaFileObject> d) {
+        String file = (d.getSource() == null) ? "<unknown>" : d.getSource().getName();
+        long line = d.getLineNumber();
+        long col = d.getColumnNumber();
+        String pos = (line <= 0) ? "" : (":" + line + ":" + Math.max(col, 1));
+        return file + pos + ": " + d.getKind() + ": " + d.getMessage(null);
+    }
+}
@@ -0,0 +1,342 @@
+package main.java.execution;
+
+import main.java.codegenerator.GenerationResult;
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.codegenerator.RuntimeSupport;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+import main.java.semantic.ErreurSemantique;
+import utils.diag.DiagnosticCollector;
+import utils.diag.SourceTexte;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exécution de programmes .fc dans la JVM courante (banc de correction, tests...).
+ *
+ * - compilation .fc -> Java -> octets (javac en mémoire), mise en cache par texte source ;
+ * - chaque exécution : ClassLoader neuf (état statique remis à zéro, classes collectables),
+ *   thread dédié, System.in/System.out redirigés vers les tampons de l'exécution ({@link RoutageES}) ;
+ * - limites : temps mur (au-delà, le thread est interrompu puis arrêté) et taille de sortie ;
+ * - gardes optionnelles (gardes(pasMax, profondeurMax)) : compteurs injectés à la génération,
+ *   le programme s'arrête de lui-même (LIMITE_DEPASSEE) au lieu d'occuper le thread jusqu'au délai.
+ *
+ * Profilage : profiler(...) échantillonne la pile du thread d'exécution à période fixe
+ * et rapporte les fonctions / lignes .fc les plus chaudes (carte source du Java généré).
+ *
+ * Thread-safe : plusieurs exécutions peuvent tourner en parallèle sur la même instance.
+ *
+ * Exemple :
+ *   Executeur ex = new Executeur().tempsMax(Duration.ofMillis(500));
+ *   ResultatExecution r = ex.executer(sourceFc, "12\n");
+ */
+public final class Executeur {
+
+    public static final Duration TEMPS_MAX_DEFAUT = Duration.ofSeconds(2);
+    public static final int SORTIE_MAX_DEFAUT = 1 << 20;
+
+    private static final int CAPACITE_CACHE = 256;
+    private static final long DELAI_ARRET_MS = 100;
+
+    private volatile long tempsMaxNanos = TEMPS_MAX_DEFAUT.toNanos();
+    private volatile int sortieMax = SORTIE_MAX_DEFAUT;
+    private volatile long gardePasMax = 0;
+    private volatile int gardeProfondeurMax = 0;
+
+    // (gardes +) texte .fc -> programme compilé (LRU)
+    private final Map<String, ProgrammeCompile> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ProgrammeCompile> e) {
+            return size() > CAPACITE_CACHE;
+        }
+    };
+
+    public Executeur tempsMax(Duration d) {
+        Objects.requireNonNull(d, "d");
+        if (d.isNegative() || d.isZero()) throw new IllegalArgumentException("tempsMax doit être > 0");
+        this.tempsMaxNanos = d.toNanos();
+        return this;
+    }
+
+    public Executeur sortieMax(int octets) {
+        if (octets <= 0) throw new IllegalArgumentException("sortieMax doit être > 0");
+        this.sortieMax = octets;
+        return this;
+    }
+
+    /**
+     * Gardes d'exécution pour les compilations suivantes (voir JavaGeneratorOptions.gardePasMax) :
+     * budget de pas (itérations + appels) et profondeur d'appel, 0 = désactivé.
+     */
+    public Executeur gardes(long pasMax, int profondeurMax) {
+        if (pasMax < 0 || profondeurMax < 0) throw new IllegalArgumentException("gardes doivent être >= 0");
+        synchronized (cache) {
+            this.gardePasMax = pasMax;
+            this.gardeProfondeurMax = profondeurMax;
+        }
+        return this;
+    }
+
+    public int tailleCache() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /* =========================
+     *  COMPILATION (en cache)
+     * ========================= */
+
+    /**
+     * @throws IllegalArgumentException si le programme .fc est invalide (diagnostics formatés)
+     * @throws IllegalStateException    si javac rejette le Java généré
+     */
+    public ProgrammeCompile compiler(String sourceFc) {
+        Objects.requireNonNull(sourceFc, "sourceFc");
+        long pasMax;
+        int profondeurMax;
+        String cle;
+        synchronized (cache) {
+            pasMax = gardePasMax;
+            profondeurMax = gardeProfondeurMax;
+            cle = (pasMax == 0 && profondeurMax == 0) ? sourceFc : pasMax + ":" + profondeurMax + "\n" + sourceFc;
+            ProgrammeCompile p = cache.get(cle);
+            if (p != null) return p;
+        }
+
+        // hors verrou : deux compilations concurrentes du même texte donnent le même résultat
+        ProgrammeCompile p = compilerSansCache(sourceFc, pasMax, profondeurMax);
+        synchronized (cache) {
+            ProgrammeCompile deja = cache.putIfAbsent(cle, p);
+            return (deja != null) ? deja : p;
+        }
+    }
+
+    private static ProgrammeCompile compilerSansCache(String sourceFc, long pasMax, int profondeurMax) {
+        DiagnosticCollector diags = new DiagnosticCollector(new SourceTexte("<programme>", sourceFc));
+        Programme programme = AnaSynt.analyserParallele(sourceFc, diags);
+        if (programme == null || diags.aDesErreurs()) {
+            throw new IllegalArgumentException(diags.formatTous());
+        }
+        if (programme.getClasses().isEmpty()) {
+            throw new IllegalArgumentException("Programme vide");
+        }
+
+        AnalyseSemantique sem = new AnalyseSemantique(diags);
+        try {
+            sem.verifier(programme);
+        } catch (ErreurSemantique e) {
+            throw new IllegalArgumentException(diags.formatTous(), e);
+        }
+
+        JavaGeneratorOptions options = JavaGeneratorOptions.defaults().runSemanticAnalysis(false).semantic(sem)
+                .gardePasMax(pasMax)
+                .gardeProfondeurMax(profondeurMax)
+                .sourceMap(true);
+        GenerationResult gen = new JavaGenerator().generate(programme, options);
+        String java = gen.getJavaSource();
+        String nom = programme.getClasses().get(0).getNom();
+        return new ProgrammeCompile(nom, CompilateurMemoire.compiler(nom, java), java, gen.getSourceMap());
+    }
+
+    /* =========================
+     *  EXÉCUTION
+     * ========================= */
+
+    public ResultatExecution executer(String sourceFc, String entree) {
+        return executer(compiler(sourceFc), entree);
+    }
+
+    public ResultatExecution executer(ProgrammeCompile programme, String entree) {
+        return executer(programme, entree, null);
+    }
+
+    /* =========================
+     *  PROFILAGE
+     * ========================= */
+
+    public Profil profiler(String sourceFc, String entree, Duration periode) {
+        return profiler(compiler(sourceFc), entree, periode);
+    }
+
+    /**
+     * Exécution avec échantillonnage de pile toutes les {@code periode} (mêmes limites qu'executer).
+     * Coût pour le programme : une capture de pile par période, aucun code instrumenté.
+     */
+    public Profil profiler(ProgrammeCompile programme, String entree, Duration periode) {
+        Objects.requireNonNull(programme, "programme");
+        Objects.requireNonNull(periode, "periode");
+        if (periode.isNegative() || periode.isZero()) throw new IllegalArgumentException("periode doit être > 0");
+        Profil.Echantillonneur e = new Profil.Echantillonneur(programme, periode.toNanos());
+        ResultatExecution r = executer(programme, entree, e);
+        return e.construire(r);
+    }
+
+    /* =========================
+     *  EXÉCUTION (commun)
+     * ========================= */
+
+    private ResultatExecution executer(ProgrammeCompile programme, String entree, Profil.Echantillonneur echantillonneur) {
+        Objects.requireNonNull(programme, "programme");
+        RoutageES.installer();
+
+        Charset cs = RoutageES.charset();
+        InputStream in = new ByteArrayInputStream((entree == null ? "" : entree).getBytes(cs));
+        SortieBornee out = new SortieBornee(sortieMax);
+        AtomicReference<Throwable> echec = new AtomicReference<>();
+        ChargeurIsole chargeur = new ChargeurIsole(programme, Executeur.class.getClassLoader());
+
+        Thread t = new Thread(() -> {
+            RoutageES.lier(in, out);
+            try {
+                Class<?> cls = Class.forName(programme.getNomClasse(), true, chargeur);
+                Method main = cls.getMethod("main", String[].class);
+                main.invoke(null, (Object) new String[0]);
+            } catch (InvocationTargetException e) {
+                echec.set(e.getCause());
+            } catch (Throwable e) {
+                echec.set(e);
+            } finally {
+                RoutageES.liberer();
+            }
+        }, "fc-exec");
+        t.setDaemon(true);
+
+        long debut = System.nanoTime();
+        t.start();
+        boolean termine = (echantillonneur == null)
+                ? attendre(t, tempsMaxNanos)
+                : echantillonner(t, debut + tempsMaxNanos, echantillonneur);
+        if (!termine) arreter(t);
+        long duree = System.nanoTime() - debut;
+
+        String sortie = out.texte(cs);
+        if (!termine) {
+            return new ResultatExecution(ResultatExecution.Statut.TEMPS_DEPASSE, sortie,
+                    "Temps maximal dépassé (" + TimeUnit.NANOSECONDS.toMillis(tempsMaxNanos) + " ms)", duree);
+        }
+        if (out.depassee()) {
+            return new ResultatExecution(ResultatExecution.Statut.SORTIE_DEPASSEE, sortie,
+                    "Sortie maximale dépassée (" + sortieMax + " octets)", duree);
+        }
+        Throwable e = echec.get();
+        if (e instanceof ExceptionInInitializerError && e.getCause() != null) e = e.getCause();
+        if (e instanceof IllegalStateException && e.getMessage() != null
+                && e.getMessage().startsWith(RuntimeSupport.MESSAGE_LIMITE)) {
+            return new ResultatExecution(ResultatExecution.Statut.LIMITE_DEPASSEE, sortie, e.getMessage(), duree);
+        }
+        if (e != null) {
+            return new ResultatExecution(ResultatExecution.Statut.ERREUR, sortie, e.toString(), duree);
+        }
+        return new ResultatExecution(ResultatExecution.Statut.OK, sortie, null, duree);
+    }
+
+    /** Attente jusqu'à l'échéance en prenant un échantillon de pile à chaque période. */
+    private static boolean echantillonner(Thread t, long echeance, Profil.Echantillonneur e) {
+        while (true) {
+            long reste = echeance - System.nanoTime();
+            if (reste <= 0 || Thread.currentThread().isInterrupted()) return !t.isAlive();
+            if (attendre(t, Math.min(reste, e.periodeNanos()))) return true;
+            e.prendre(t.getStackTrace());
+        }
+    }
+
+    private static boolean attendre(Thread t, long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.timedJoin(t, nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !t.isAlive();
+    }
+
+    // Le code généré ne teste pas l'interruption : en dernier recours, Thread.stop
+    // (encore disponible en Java 17 ; le programme n'a accès qu'à ses propres objets).
+    @SuppressWarnings({"deprecation", "removal"})
+    private static void arreter(Thread t) {
+        t.interrupt();
+        if (attendre(t, TimeUnit.MILLISECONDS.toNanos(DELAI_ARRET_MS))) return;
+        try {
+            t.stop();
+        } catch (UnsupportedOperationException ignored) {
+            // JDK récents : le thread (démon) est abandonné
+        }
+        attendre(t, TimeUnit.MILLISECONDS.toNanos(DELAI_ARRET_MS));
+    }
+
+    /* =========================
+     *  SUPPORT
+     * ========================= */
+
+    /** Classes du programme d'abord (même si l'hôte a une classe du même nom), le reste au parent. */
+    private static final class ChargeurIsole extends ClassLoader {
+        private final Map<String, byte[]> classes;
+
+        ChargeurIsole(ProgrammeCompile p, ClassLoader parent) {
+            super("fc-programme", parent);
+            this.classes = p.getClasses();
+        }
+
+        @Override
+        protected Class<?> loadClass(String nom, boolean resoudre) throws ClassNotFoundException {
+            if (!classes.containsKey(nom)) return super.loadClass(nom, resoudre);
+            synchronized (getClassLoadingLock(nom)) {
+                Class<?> c = findLoadedClass(nom);
+                if (c == null) {
+                    byte[] b = classes.get(nom);
+                    c = defineClass(nom, b, 0, b.length);
+                }
+                if (resoudre) resolveClass(c);
+                return c;
+            }
+        }
+    }
+
+    /** Tampon de sortie à capacité bornée : au-delà, le programme reçoit une exception. */
+    private static final class SortieBornee extends ByteArrayOutputStream {
+        private final int max;
+        private volatile boolean depassee;
+
+        SortieBornee(int max) {
+            super(Math.min(max, 8192));
+            this.max = max;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            int place = max - count;
+            if (len > place) {
+                super.write(b, off, Math.max(place, 0));
+                depassee = true;
+                throw new IllegalStateException("Sortie maximale dépassée (" + max + " octets)");
+            }
+            super.write(b, off, len);
+        }
+
+        boolean depassee() {
+            return depassee;
+        }
+
+        synchronized String texte(Charset cs) {
+            return new String(buf, 0, count, cs);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package main.java.execution;
+
+import main.java.codegenerator.SourceMap;
+import utils.diag.Position;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Profil par échantillonnage d'une exécution ({@link Executeur#profiler}).
+ *
+ * Chaque échantillon est la pile du thread d'exécution : il est attribué à la première frame
+ * (en partant du sommet) qui appartient à une fonction .fc d'après la carte source. Le temps
+ * passé dans le runtime injecté (RuntimeSupport, lire...) compte donc pour la ligne .fc appelante.
+ */
+public final class Profil {
+
+    public record FonctionChaude(String fonction, int echantillons) {}
+
+    public record LigneChaude(int ligne, String fonction, int echantillons) {}
+
+    private final ResultatExecution resultat;
+    private final long periodeNanos;
+    private final int echantillons;
+    private final int horsSource;
+    private final List<FonctionChaude> fonctions;
+    private final List<LigneChaude> lignes;
+
+    private Profil(ResultatExecution resultat, long periodeNanos, int echantillons, int horsSource,
+                   List<FonctionChaude> fonctions, List<LigneChaude> lignes) {
+        this.resultat = resultat;
+        this.periodeNanos = periodeNanos;
+        this.echantillons = echantillons;
+        this.horsSource = horsSource;
+        this.fonctions = fonctions;
+        this.lignes = lignes;
+    }
+
+    public ResultatExecution getResultat() { return resultat; }
+
+    /** Nombre total d'échantillons (y compris hors source : chargement, wrapper main, JVM). */
+    public int getEchantillons() { return echantillons; }
+
+    public int getHorsSource() { return horsSource; }
+
+    /** Fonctions .fc, de la plus chaude à la moins chaude. */
+    public List<FonctionChaude> fonctionsChaudes(int n) {
+        return fonctions.subList(0, Math.min(n, fonctions.size()));
+    }
+
+    /** Lignes .fc, de la plus chaude à la moins chaude. */
+    public List<LigneChaude> lignesChaudes(int n) {
+        return lignes.subList(0, Math.min(n, lignes.size()));
+    }
+
+    /** Rapport texte : n fonctions puis n lignes les plus chaudes, en % des échantillons. */
+    public String rapport(int n) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Profil : ").append(echantillons).append(" échantillons (période ")
+                .append(String.format(Locale.ROOT, "%.1f", periodeNanos / 1e6)).append(" ms, hors source ")
+                .append(horsSource).append(")\n");
+        sb.append("Fonctions :\n");
+        for (FonctionChaude f : fonctionsChaudes(n)) {
+            sb.append(String.format(Locale.ROOT, "  %5.1f%%  %6d  %s%n", pourcent(f.echantillons()), f.echantillons(), f.fonction()));
+        }
+        sb.append("Lignes :\n");
+        for (LigneChaude l : lignesChaudes(n)) {
+            sb.append(String.format(Locale.ROOT, "  %5.1f%%  %6d  ligne %d (%s)%n",
+                    pourcent(l.echantillons()), l.echantillons(), l.ligne(), l.fonction()));
+        }
+        return sb.toString();
+    }
+
+    private double pourcent(int k) {
+        return (echantillons == 0) ? 0 : 100.0 * k / echantillons;
+    }
+
+    @Override
+    public String toString() {
+        return rapport(10);
+    }
+
+    /* =========================
+     *  COLLECTE
+     * ========================= */
+
+    /** Agrégation des piles ; utilisé par le seul thread qui échantillonne. */
+    static final class Echantillonneur {
+        private final String nomClasse;
+        private final SourceMap carte;
+        private final long periodeNanos;
+        private final Map<String, int[]> parFonction = new HashMap<>();
+        private final Map<Long, int[]> parLigne = new HashMap<>();     // (ligne .fc << 32 | id fonction)
+        private final Map<String, Integer> idsFonctions = new HashMap<>();
+        private final List<String> nomsFonctions = new ArrayList<>();
+        private int echantillons;
+        private int horsSource;
+
+        Echantillonneur(ProgrammeCompile programme, long periodeNanos) {
+            this.nomClasse = programme.getNomClasse();
+            this.carte = programme.getSourceMap();
+            this.periodeNanos = periodeNanos;
+        }
+
+        long periodeNanos() {
+            return periodeNanos;
+        }
+
+        void prendre(StackTraceElement[] pile) {
+            if (pile.length == 0) return; // thread terminé entre-temps
+            echantillons++;
+            for (StackTraceElement f : pile) {
+                if (!nomClasse.equals(f.getClassName()) || f.getLineNumber() <= 0) continue;
+                String fonction = carte.fonctionDe(f.getLineNumber());
+                if (fonction == null) continue;
+
+                parFonction.computeIfAbsent(fonction, k -> new int[1])[0]++;
+                Position pos = carte.positionDe(f.getLineNumber());
+                if (pos != null) {
+                    long cle = ((long) pos.ligne() << 32) | idFonction(fonction);
+                    parLigne.computeIfAbsent(cle, k -> new int[1])[0]++;
+                }
+                return;
+            }
+            horsSource++;
+        }
+
+        private int idFonction(String nom) {
+            Integer id = idsFonctions.get(nom);
+            if (id == null) {
+                id = nomsFonctions.size();
+                nomsFonctions.add(nom);
+                idsFonctions.put(nom, id);
+            }
+            return id;
+        }
+
+        Profil construire(ResultatExecution resultat) {
+            List<FonctionChaude> fs = new ArrayList<>(parFonction.size());
+            parFonction.forEach((nom, k) -> fs.add(new FonctionChaude(nom, k[0])));
+            fs.sort(Comparator.comparingInt(FonctionChaude::echantillons).reversed()
+                    .thenComparing(FonctionChaude::fonction));
+
+            List<LigneChaude> ls = new ArrayList<>(parLigne.size());
+            parLigne.forEach((cle, k) -> ls.add(new LigneChaude((int) (cle >>> 32),
+                    nomsFonctions.get((int) (long) cle), k[0])));
+            ls.sort(Comparator.comparingInt(LigneChaude::echantillons).reversed()
+                    .thenComparingInt(LigneChaude::ligne));
+
+            return new Profil(resultat, periodeNanos, echantillons, horsSource, List.copyOf(fs), List.copyOf(ls));
+        }
+    }
+}
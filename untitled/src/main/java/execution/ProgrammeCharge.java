@@ -0,0 +1,42 @@
+package main.java.execution;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Programme .fc chargé en mémoire : la classe cachée + un MethodHandle par fonction.
+ */
+public final class ProgrammeCharge {
+
+    private final Class<?> classe;
+    private final Map<String, MethodHandle> fonctions;
+    private final String sourceJava;
+
+    ProgrammeCharge(Class<?> classe, Map<String, MethodHandle> fonctions, String sourceJava) {
+        this.classe = Objects.requireNonNull(classe, "classe");
+        this.fonctions = Collections.unmodifiableMap(fonctions);
+        this.sourceJava = sourceJava;
+    }
+
+    public Class<?> getClasse() { return classe; }
+    public Map<String, MethodHandle> getFonctions() { return fonctions; }
+    public Set<String> nomsFonctions() { return fonctions.keySet(); }
+    public String getSourceJava() { return sourceJava; }
+
+    /** MethodHandle de la fonction "nom" (type exact : params/retour typés par la sémantique). */
+    public MethodHandle fonction(String nom) {
+        MethodHandle mh = fonctions.get(nom);
+        if (mh == null) {
+            throw new IllegalArgumentException("Fonction inconnue: " + nom + " (disponibles: " + fonctions.keySet() + ")");
+        }
+        return mh;
+    }
+
+    /** Appel non typé (boxing) : pratique pour les scripts, moins rapide qu'un invokeExact. */
+    public Object invoquer(String nom, Object... args) throws Throwable {
+        return fonction(nom).invokeWithArguments(args);
+    }
+}
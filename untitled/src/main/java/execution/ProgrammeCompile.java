@@ -0,0 +1,37 @@
+package main.java.execution;
+
+import main.java.codegenerator.SourceMap;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Programme .fc compilé en octets (javac en mémoire), prêt à être chargé
+ * autant de fois que nécessaire : chaque exécution le redéfinit dans un ClassLoader neuf.
+ */
+public final class ProgrammeCompile {
+
+    private final String nomClasse;
+    private final Map<String, byte[]> classes;
+    private final String sourceJava;
+    private final SourceMap sourceMap;
+
+    ProgrammeCompile(String nomClasse, Map<String, byte[]> classes, String sourceJava, SourceMap sourceMap) {
+        this.nomClasse = Objects.requireNonNull(nomClasse, "nomClasse");
+        this.classes = Collections.unmodifiableMap(classes);
+        this.sourceJava = sourceJava;
+        this.sourceMap = (sourceMap == null) ? SourceMap.VIDE : sourceMap;
+    }
+
+    /** Nom binaire de la classe principale (celle qui porte main(String[])). */
+    public String getNomClasse() { return nomClasse; }
+
+    /** Octets de chaque classe produite (clé = nom binaire). Ne pas modifier les tableaux. */
+    public Map<String, byte[]> getClasses() { return classes; }
+
+    public String getSourceJava() { return sourceJava; }
+
+    /** Lignes de getSourceJava() -> positions .fc (profilage, traces). */
+    public SourceMap getSourceMap() { return sourceMap; }
+}
@@ -0,0 +1,28 @@
+package main.java.execution;
+
+/**
+ * Issue d'une exécution par {@link Executeur}.
+ *
+ * @param statut  comment l'exécution s'est terminée
+ * @param sortie  tout ce que le programme a écrit sur System.out (tronqué si SORTIE_DEPASSEE)
+ * @param erreur  description de l'exception du programme (null si OK)
+ * @param dureeNanos temps mur de l'exécution (chargement des classes compris)
+ */
+public record ResultatExecution(Statut statut, String sortie, String erreur, long dureeNanos) {
+
+    public enum Statut {
+        OK,
+        /** Exception levée par le programme (division par zéro, lire() sans entrée, pile...). */
+        ERREUR,
+        /** Limite de temps mur dépassée : le thread d'exécution a été arrêté. */
+        TEMPS_DEPASSE,
+        /** Limite de taille de sortie atteinte. */
+        SORTIE_DEPASSEE,
+        /** Budget de pas ou de profondeur des gardes épuisé (Executeur.gardes) : le programme s'est arrêté. */
+        LIMITE_DEPASSEE
+    }
+
+    public boolean estOk() {
+        return statut == Statut.OK;
+    }
+}
@@ -0,0 +1,120 @@
+package main.java.execution;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+
+/**
+ * Redirection de System.in / System.out par thread.
+ *
+ * Le code généré écrit dans System.out et lit System.in "en dur". Plutôt que de remplacer
+ * ces flux globaux à chaque exécution (impossible avec des exécutions concurrentes),
+ * on installe UNE fois des flux aiguilleurs : un thread d'exécution a ses propres
+ * entrée/sortie, tous les autres threads passent par les flux d'origine.
+ */
+final class RoutageES {
+
+    private static final ThreadLocal<InputStream> ENTREE = new ThreadLocal<>();
+    private static final ThreadLocal<OutputStream> SORTIE = new ThreadLocal<>();
+
+    private static boolean installe;
+
+    private RoutageES() {}
+
+    /** Charset des flux aiguilleurs (celui de la console, comme System.out sous Java 17). */
+    static Charset charset() {
+        String enc = System.getProperty("sun.stdout.encoding");
+        try {
+            return (enc != null) ? Charset.forName(enc) : Charset.defaultCharset();
+        } catch (RuntimeException e) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    static synchronized void installer() {
+        if (installe) return;
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        try {
+            System.setOut(new PrintStream(new SortieAiguillee(out), true, charset().name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        System.setIn(new EntreeAiguillee(in));
+        installe = true;
+    }
+
+    /** Lie le thread courant à ses flux ; à défaire avec liberer() dans un finally. */
+    static void lier(InputStream entree, OutputStream sortie) {
+        ENTREE.set(entree);
+        SORTIE.set(sortie);
+    }
+
+    static void liberer() {
+        ENTREE.remove();
+        SORTIE.remove();
+    }
+
+    /* =========================
+     *  FLUX AIGUILLEURS
+     * ========================= */
+
+    private static final class SortieAiguillee extends OutputStream {
+        private final OutputStream origine;
+
+        SortieAiguillee(OutputStream origine) {
+            this.origine = origine;
+        }
+
+        private OutputStream cible() {
+            OutputStream o = SORTIE.get();
+            return (o != null) ? o : origine;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            cible().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            cible().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            cible().flush();
+        }
+    }
+
+    private static final class EntreeAiguillee extends InputStream {
+        private final InputStream origine;
+
+        EntreeAiguillee(InputStream origine) {
+            this.origine = origine;
+        }
+
+        private InputStream source() {
+            InputStream i = ENTREE.get();
+            return (i != null) ? i : origine;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return source().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return source().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return source().available();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package main.java.execution;
+
+/**
+ * Runtime de conversion fourni par l'hôte pour les programmes chargés en mémoire.
+ *
+ * Une classe cachée (hidden class) ne peut pas embarquer de classe imbriquée :
+ * le générateur est donc appelé avec injectTypeRuntime(false) et le code généré,
+ * placé dans ce paquet, résout "RuntimeSupport.asX(...)" vers cette classe.
+ * Sémantique identique à la classe injectée par JavaGenerator.
+ */
+public final class RuntimeSupport {
+
+    private RuntimeSupport() {}
+
+    public static int asInt(Object v) {
+        if (v instanceof Integer i) return i;
+        if (v instanceof Character c) return (int) c;
+        if (v instanceof Boolean b) return b ? 1 : 0;
+        throw new RuntimeException("Valeur non convertible en int: " + v);
+    }
+
+    public static boolean asBool(Object v) {
+        if (v instanceof Boolean b) return b;
+        if (v instanceof Integer i) return i != 0;
+        throw new RuntimeException("Valeur non convertible en boolean: " + v);
+    }
+
+    public static String asString(Object v) {
+        if (v == null) return "null";
+        return v.toString();
+    }
+
+    public static char asChar(Object v) {
+        if (v instanceof Character c) return c;
+        if (v instanceof Integer i) return (char) (int) i;
+        throw new RuntimeException("Valeur non convertible en char: " + v);
+    }
+}
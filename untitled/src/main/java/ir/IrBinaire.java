@@ -1,5 +1,7 @@
 package main.java.ir;
 
+import main.java.parseur.ast.Operateur;
+
 import java.util.Objects;
 
 /**
@@ -15,4 +17,9 @@ public record IrBinaire(IrExpression gauche, String op, IrExpression droite) imp
         Objects.requireNonNull(op, "op");
         Objects.requireNonNull(droite, "droite");
     }
+
+    /** Opérateur typé (null si le symbole n'est pas un opérateur du langage, ex: "?"). */
+    public Operateur operateur() {
+        return Operateur.depuisSymbole(op);
+    }
 }
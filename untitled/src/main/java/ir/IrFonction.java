@@ -1,5 +1,7 @@
 package main.java.ir;
 
+import utils.diag.Position;
+
 import java.util.List;
 import java.util.Objects;
 
@@ -10,8 +12,14 @@ import java.util.Objects;
  * - params : noms des paramètres (non typés ici -> Object côté Java)
  * - typeRetour : type de retour (peut venir de la sémantique)
  * - corps : bloc d’instructions
+ * - position : déclaration dans le source .fc (nullable, carte source de IrVersJava)
  */
-public record IrFonction(String nom, List<String> params, IrType typeRetour, IrBloc corps) implements IrNoeud {
+public record IrFonction(String nom, List<String> params, IrType typeRetour, IrBloc corps, Position position)
+        implements IrNoeud {
+
+    public IrFonction(String nom, List<String> params, IrType typeRetour, IrBloc corps) {
+        this(nom, params, typeRetour, corps, null);
+    }
 
     public IrFonction {
         nom = (nom == null || nom.isBlank()) ? "<anonyme>" : nom;
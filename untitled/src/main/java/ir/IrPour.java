@@ -1,5 +1,7 @@
 package main.java.ir;
 
+import main.java.parseur.ast.Operateur;
+
 import java.util.Objects;
 
 /**
@@ -33,4 +35,9 @@ public record IrPour(
         Objects.requireNonNull(pas, "pas");
         Objects.requireNonNull(corps, "corps");
     }
+
+    /** Opérateur de pas typé (null si non reconnu). */
+    public Operateur operateur() {
+        return Operateur.depuisSymbole(operateurPas);
+    }
 }
@@ -79,7 +79,7 @@ public final class AstVersIr {
         }
 
         IrBloc corps = convertirBloc(f.getCorps());
-        return new IrFonction(nom, params, typeRetour, corps);
+        return new IrFonction(nom, params, typeRetour, corps, f.getPosition());
     }
 
     private static IrBloc convertirBloc(Bloc bloc) {
@@ -151,7 +151,7 @@ public final class AstVersIr {
                     safeString(p.getNomVar(), "<i?>"),
                     convertirExpression(p.getDebut()),
                     convertirExpression(p.getFin()),
-                    safeString(p.getOperateur(), "+="),
+                    safeString(p.getOp(), "+="),
                     convertirExpression(p.getPas()),
                     convertirInstruction(p.getCorps())
             );
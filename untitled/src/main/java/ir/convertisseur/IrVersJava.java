@@ -1,6 +1,9 @@
 package main.java.ir.convertisseur;
 
+import main.java.codegenerator.GenerationResult;
+import main.java.codegenerator.SourceMap;
 import main.java.ir.*;
+import main.java.parseur.ast.Operateur;
 import main.java.semantic.AnalyseSemantique;
 import main.java.semantic.TypeSimple;
 
@@ -22,6 +25,14 @@ public final class IrVersJava {
     }
 
     public static String generate(IrProgramme p, AnalyseSemantique sem) {
+        return generer(p, sem).getJavaSource();
+    }
+
+    /**
+     * Même source que generate(p, sem), plus une carte source au grain de la fonction :
+     * l'IR ne porte que la position de déclaration des fonctions (IrFonction.position).
+     */
+    public static GenerationResult generer(IrProgramme p, AnalyseSemantique sem) {
         if (p == null) throw new IllegalArgumentException("IR programme null");
 
         String className = (p.nomClasse() == null || p.nomClasse().isBlank())
@@ -64,13 +75,28 @@ public final class IrVersJava {
 
         // Fonctions
         List<IrFonction> fonctions = (p.fonctions() == null) ? List.of() : p.fonctions();
+        SourceMap.Builder carte = new SourceMap.Builder();
+        int ligne = 1 + compterLignes(out);
         for (IrFonction f : fonctions) {
-            out.append(genFunction(f, sem));
+            String fJava = genFunction(f, sem);
+            carte.ajouter(ligne, f.position(), f.nom());
+            ligne += compterLignes(fJava);
+            carte.ajouter(ligne, null, null);
+            out.append(fJava);
             out.append("\n");
+            ligne++;
         }
 
         out.append("}\n");
-        return out.toString();
+        return new GenerationResult(out.toString(), sem, carte.construire());
+    }
+
+    private static int compterLignes(CharSequence s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) == '\n') n++;
+        }
+        return n;
     }
 
     private static IrFonction findFunction(List<IrFonction> fs, String name) {
@@ -256,11 +282,10 @@ public final class IrVersJava {
                 out.add(ind + i + " = " + start + ";");
             }
 
-            String cond = switch (op) {
-                case "+=" -> i + " <= " + end;
-                case "-=" -> i + " >= " + end;
-                default -> i + " != " + end; // *=, /= etc.
-            };
+            Operateur opPas = p.operateur();
+            String cond = (opPas == Operateur.PLUS_EGAL) ? i + " <= " + end
+                    : (opPas == Operateur.MOINS_EGAL) ? i + " >= " + end
+                    : i + " != " + end; // *=, /= etc.
 
             out.add(ind + "while (" + cond + ") {");
             out.addAll(genInstructionLines(p.corps(), sem, fnName, varTypes, declared, indentLevel + 1));
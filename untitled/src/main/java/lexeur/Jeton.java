@@ -1,5 +1,7 @@
 package main.java.lexeur;
 
+import utils.diag.Position;
+import utils.diag.Span;
 
 /**
  * La classe Jeton représente une unité lexicale détectée dans le code source.
@@ -14,6 +16,7 @@ package main.java.lexeur;
  * - son type (TypeJeton) qui décrit sa catégorie (mot-clé, opérateur, identifiant, etc.)
  * - sa valeur brute (chaîne de caractères lue dans le texte source)
  * - sa position dans le code (numéro de ligne et de colonne)
+ * - son étendue en offsets (Span, un seul long), pour un rendu précis des diagnostics
  */
 public class Jeton {
 
@@ -27,12 +30,23 @@ public class Jeton {
     private final int ligne;     // numéro de ligne
     private final int colonne;   // position dans la ligne
 
+    // [debut, fin) dans le texte source (Span.AUCUN pour un jeton synthétique)
+    private final long span;
+
+    // Position partagée par tous les nœuds / diagnostics issus de ce jeton (créée au 1er besoin)
+    private Position position;
+
     // Constructeur
     public Jeton(TypeJeton type, String valeur, int ligne, int colonne) {
+        this(type, valeur, ligne, colonne, Span.AUCUN);
+    }
+
+    public Jeton(TypeJeton type, String valeur, int ligne, int colonne, long span) {
         this.type = type;
         this.valeur = valeur;
         this.ligne = ligne;
         this.colonne = colonne;
+        this.span = span;
     }
 
     //#########################################################################
@@ -52,6 +66,20 @@ public class Jeton {
     public int getColonne() {
         return colonne;
     }
+
+    public long getSpan() {
+        return span;
+    }
+
+    /** Position (ligne/colonne bornées à 1), allouée une seule fois par jeton. */
+    public Position getPosition() {
+        Position p = position;
+        if (p == null) {
+            p = new Position(Math.max(1, ligne), Math.max(1, colonne));
+            position = p;
+        }
+        return p;
+    }
     //#########################################################################
 
     //je mes mes VERIFICATEURS icci:
@@ -2,10 +2,13 @@ package main.java.lexeur;
 
 import utils.diag.DiagnosticCollector;
 import utils.diag.Position;
+import utils.diag.Span;
+import utils.lang.Interneur;
 
 import java.io.Reader;
 import java.io.IOException;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
@@ -18,6 +21,11 @@ public class Lexeur {
 
     private final DiagnosticCollector diags;
 
+    // Noms et textes littéraux canonisés : une seule instance par nom distinct dans la compilation
+    private final Interneur interneur;
+    // Ids des identifiants rencontrés (noms vivants de cette source, voir Interneur.aCompacter)
+    private final BitSet identifiants = new BitSet();
+
     private final String texte;
     private int position;
     private int ligne;
@@ -95,7 +103,12 @@ public class Lexeur {
     }
 
     public Lexeur(String texte, DiagnosticCollector diags) {
+        this(texte, diags, new Interneur());
+    }
+
+    public Lexeur(String texte, DiagnosticCollector diags, Interneur interneur) {
         this.diags = diags;
+        this.interneur = interneur;
         this.texte = texte;
         this.position = 0;
         this.ligne = 1;
@@ -132,7 +145,14 @@ public class Lexeur {
     public List<Jeton> analyser() {
         List<Jeton> jetons = new ArrayList<>();
 
-        while (!estTermine()) {
+        // Entrée binaire / non textuelle : un seul diagnostic, pas de lexing caractère par caractère
+        if (!ressembleATexte(texte)) {
+            diags.erreur("Entrée non textuelle (fichier binaire ou mal encodé ?)", new Position(1, 1));
+            jetons.add(new Jeton(TypeJeton.FinFichier, "", 1, 1, Span.de(0, 0)));
+            return jetons;
+        }
+
+        while (!estTermine() && !diags.limiteAtteinte()) {
             char caractere = caractereActuel();
 
             if (estEspace(caractere)) {
@@ -146,10 +166,34 @@ public class Lexeur {
             }
         }
 
-        jetons.add(new Jeton(TypeJeton.FinFichier, "", ligne, colonne));
+        jetons.add(new Jeton(TypeJeton.FinFichier, "", ligne, colonne, Span.de(position, position)));
         return jetons;
     }
 
+    /** Identifiants distincts lus par analyser() (noms vivants : voir Interneur.aCompacter). */
+    public int identifiantsDistincts() {
+        return identifiants.cardinality();
+    }
+
+    /** Nombre de caractères examinés par ressembleATexte (le début suffit à reconnaître un binaire). */
+    static final int TAILLE_PRE_VERIFICATION = 8192;
+
+    /**
+     * Pré-vérification en O(8 Kio) : refuse un NUL, ou plus de 10 % de caractères de contrôle
+     * (hors \t \n \r \f) ou de U+FFFD (octets non décodables en UTF-8).
+     */
+    public static boolean ressembleATexte(String s) {
+        if (s == null) return true;
+        int n = Math.min(s.length(), TAILLE_PRE_VERIFICATION);
+        int suspects = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c == '\0') return false;
+            if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r' && c != '\f') || c == '\uFFFD') suspects++;
+        }
+        return suspects * 10 <= n;
+    }
+
     private Jeton lireJeton() {
         char c = caractereActuel();
 
@@ -177,6 +221,7 @@ public class Lexeur {
 
     private Jeton lireMotOuIdentifiant() {
         int colonneDepart = colonne;
+        int debut = position;
         StringBuilder mot = new StringBuilder();
 
         while (!estTermine() && (Character.isLetterOrDigit(caractereActuel()) || caractereActuel() == '_')) {
@@ -186,11 +231,17 @@ public class Lexeur {
 
         String valeurLue = mot.toString();
         TypeJeton type = MOTS_CLES.getOrDefault(valeurLue, TypeJeton.Identifiant);
-        return new Jeton(type, valeurLue, ligne, colonneDepart);
+        if (type == TypeJeton.Identifiant) {
+            int id = interneur.id(valeurLue);
+            identifiants.set(id);
+            valeurLue = interneur.nom(id);
+        }
+        return new Jeton(type, valeurLue, ligne, colonneDepart, Span.de(debut, position));
     }
 
     private Jeton lireNombre() {
         int colonneDepart = colonne;
+        int debut = position;
         StringBuilder nombre = new StringBuilder();
 
         while (!estTermine() && Character.isDigit(caractereActuel())) {
@@ -199,11 +250,12 @@ public class Lexeur {
         }
 
         String valeurLue = nombre.toString();
-        return new Jeton(TypeJeton.Nombre, valeurLue, ligne, colonneDepart);
+        return new Jeton(TypeJeton.Nombre, valeurLue, ligne, colonneDepart, Span.de(debut, position));
     }
 
     private Jeton lireSymbole() {
         int colonneDepart = colonne;
+        int debut = position;
 
         char premier = caractereActuel();
         avancer(premier);
@@ -225,12 +277,13 @@ public class Lexeur {
             return null;
         }
 
-        return new Jeton(SYMBOLES.get(symbole), symbole, ligne, colonneDepart);
+        return new Jeton(SYMBOLES.get(symbole), symbole, ligne, colonneDepart, Span.de(debut, position));
     }
 
     private Jeton lireTexteLitteral() {
         int ligneDepart = ligne;
         int colonneDepart = colonne;
+        int debut = position;
 
         avancer('"');
 
@@ -242,7 +295,7 @@ public class Lexeur {
             if (c == '\n') {
                 diags.erreur("TexteLitteral non terminé (\" manquant avant fin de ligne)",
                         new Position(ligneDepart, colonneDepart));
-                return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart);
+                return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart, Span.de(debut, position));
             }
 
             sb.append(c);
@@ -252,17 +305,18 @@ public class Lexeur {
         if (estTermine()) {
             diags.erreur("TexteLitteral non terminé (\" manquant) à la fin du fichier",
                     new Position(ligneDepart, colonneDepart));
-            return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart);
+            return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart, Span.de(debut, position));
         }
 
         avancer('"');
 
-        return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart);
+        return new Jeton(TypeJeton.TexteLitteral, sb.toString(), ligneDepart, colonneDepart, Span.de(debut, position));
     }
 
     private Jeton lireCaractereLitteral() {
         int ligneDepart = ligne;
         int colonneDepart = colonne;
+        int debut = position;
 
         avancer('\'');
 
@@ -285,12 +339,12 @@ public class Lexeur {
                 avancer('\'');
             }
 
-            return new Jeton(TypeJeton.CaractereLitteral, String.valueOf(valeur), ligneDepart, colonneDepart);
+            return new Jeton(TypeJeton.CaractereLitteral, String.valueOf(valeur), ligneDepart, colonneDepart, Span.de(debut, position));
         }
 
         avancer('\'');
 
-        return new Jeton(TypeJeton.CaractereLitteral, String.valueOf(valeur), ligne, colonneDepart);
+        return new Jeton(TypeJeton.CaractereLitteral, String.valueOf(valeur), ligne, colonneDepart, Span.de(debut, position));
     }
 
     private void ignorerCommentaireLigne() {
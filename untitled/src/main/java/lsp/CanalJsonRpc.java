@@ -0,0 +1,78 @@
+package main.java.lsp;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Transport JSON-RPC de LSP : chaque message est précédé d'en-têtes HTTP-like,
+ *
+ *   Content-Length: <octets>\r\n
+ *   \r\n
+ *   <JSON UTF-8>
+ *
+ * Lecture depuis un seul thread ; écriture thread-safe (réponses et notifications
+ * peuvent partir de threads différents).
+ */
+final class CanalJsonRpc {
+
+    private final InputStream in;
+    private final OutputStream out;
+    private final Object verrouEcriture = new Object();
+
+    CanalJsonRpc(InputStream in, OutputStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    /** Message suivant, ou null en fin de flux. */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> lire() throws IOException {
+        int longueur = -1;
+        while (true) {
+            String ligne = lireLigneEnTete();
+            if (ligne == null) return null;
+            if (ligne.isEmpty()) {
+                if (longueur >= 0) break;
+                continue; // ligne vide parasite avant les en-têtes
+            }
+            int deuxPoints = ligne.indexOf(':');
+            if (deuxPoints > 0 && ligne.substring(0, deuxPoints).trim().toLowerCase(Locale.ROOT).equals("content-length")) {
+                longueur = Integer.parseInt(ligne.substring(deuxPoints + 1).trim());
+            }
+        }
+
+        byte[] corps = in.readNBytes(longueur);
+        if (corps.length < longueur) return null;
+
+        Object v = Json.lire(new String(corps, StandardCharsets.UTF_8));
+        if (!(v instanceof Map)) throw new IOException("message JSON-RPC non objet");
+        return (Map<String, Object>) v;
+    }
+
+    void ecrire(Map<String, Object> message) throws IOException {
+        byte[] corps = Json.ecrire(message).getBytes(StandardCharsets.UTF_8);
+        byte[] entete = ("Content-Length: " + corps.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+        synchronized (verrouEcriture) {
+            out.write(entete);
+            out.write(corps);
+            out.flush();
+        }
+    }
+
+    // En-têtes en ASCII, terminés par \r\n (on tolère \n seul).
+    private String lireLigneEnTete() throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(32);
+        while (true) {
+            int b = in.read();
+            if (b < 0) return (buf.size() == 0) ? null : buf.toString(StandardCharsets.US_ASCII);
+            if (b == '\n') break;
+            if (b != '\r') buf.write(b);
+        }
+        return buf.toString(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,98 @@
+package main.java.lsp;
+
+import main.java.lexeur.Jeton;
+import main.java.lexeur.Lexeur;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+import main.java.semantic.ErreurSemantique;
+import utils.diag.Diagnostic;
+import utils.diag.DiagnosticCollector;
+import utils.diag.SourceTexte;
+import utils.lang.Interneur;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Document ouvert dans l'éditeur : dernier texte reçu + état chaud de compilation
+ * (interneur, collecteur, analyse sémantique incrémentale), réutilisé d'une frappe à l'autre.
+ *
+ * Le texte est écrit par le thread de lecture ; l'état chaud n'est touché que par le thread d'analyse.
+ */
+final class DocumentOuvert {
+
+    /** Ce qu'une analyse doit traiter : un texte et sa version. */
+    record Version(String texte, int numero) {}
+
+    /** Résultat d'une analyse menée jusqu'au bout. */
+    record Resultat(SourceTexte source, List<Diagnostic> diagnostics) {}
+
+    static final int LIMITE_ERREURS = 100;
+
+    final String uri;
+
+    private volatile Version courante;
+    private volatile boolean ferme;
+
+    private final DiagnosticCollector diags = new DiagnosticCollector().limiteErreurs(LIMITE_ERREURS);
+    // remplacés ensemble quand l'interneur grossit sans borne au fil des frappes (Interneur.aCompacter)
+    private Interneur interneur = new Interneur();
+    private AnalyseSemantique sem = new AnalyseSemantique(diags, interneur);
+
+    DocumentOuvert(String uri, String texte, int version) {
+        this.uri = uri;
+        this.courante = new Version(texte, version);
+    }
+
+    void mettreAJour(String texte, int version) {
+        courante = new Version(texte, version);
+    }
+
+    Version courante() {
+        return courante;
+    }
+
+    void fermer() {
+        ferme = true;
+    }
+
+    /** Vrai si v n'est plus la dernière version (ou si le document est fermé) : analyse à abandonner. */
+    boolean estPerimee(Version v) {
+        return ferme || courante != v;
+    }
+
+    /**
+     * Lexeur + parseur + sémantique sur v. Abandon entre deux phases si une version
+     * plus récente est arrivée entre-temps : null (rien à publier).
+     */
+    Resultat analyser(Version v) {
+        BooleanSupplier perimee = () -> estPerimee(v);
+        if (perimee.getAsBoolean()) return null;
+
+        SourceTexte source = new SourceTexte(uri, v.texte());
+        diags.vider();
+        diags.definirSourceParDefaut(source);
+
+        Lexeur lexeur = new Lexeur(v.texte(), diags, interneur);
+        List<Jeton> jetons = lexeur.analyser();
+        if (interneur.aCompacter(lexeur.identifiantsDistincts())) {
+            // les noms des frappes passées ne servent plus : table neuve (la prochaine analyse sera complète)
+            interneur = new Interneur();
+            sem = new AnalyseSemantique(diags, interneur);
+        }
+        Programme programme = AnaSynt.analyserParallele(jetons, diags);
+        if (perimee.getAsBoolean()) return null;
+
+        if (programme != null && !diags.aDesErreurs()) {
+            try {
+                sem.verifierIncremental(programme);
+            } catch (ErreurSemantique ignored) {
+                // les diagnostics sont déjà dans le collecteur
+            }
+            if (perimee.getAsBoolean()) return null;
+        }
+
+        return new Resultat(source, List.copyOf(diags.diagnostics().tous()));
+    }
+}
@@ -0,0 +1,240 @@
+package main.java.lsp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON minimal pour le protocole LSP (pas de dépendance externe).
+ *
+ * Correspondance :
+ *   objet -> Map<String, Object> (ordre conservé), tableau -> List<Object>,
+ *   chaîne -> String, nombre -> Long (entier) ou Double, true/false -> Boolean, null -> null.
+ */
+public final class Json {
+
+    private final String s;
+    private int i;
+
+    private Json(String s) {
+        this.s = s;
+    }
+
+    /* =========================
+     *  LECTURE
+     * ========================= */
+
+    public static Object lire(String texte) {
+        Json p = new Json(texte);
+        p.blancs();
+        Object v = p.valeur();
+        p.blancs();
+        if (p.i != p.s.length()) throw p.erreur("contenu après la valeur");
+        return v;
+    }
+
+    private Object valeur() {
+        if (i >= s.length()) throw erreur("fin de texte inattendue");
+        char c = s.charAt(i);
+        return switch (c) {
+            case '{' -> objet();
+            case '[' -> tableau();
+            case '"' -> chaine();
+            case 't' -> mot("true", Boolean.TRUE);
+            case 'f' -> mot("false", Boolean.FALSE);
+            case 'n' -> mot("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) yield nombre();
+                throw erreur("caractère inattendu '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> objet() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        i++; // {
+        blancs();
+        if (suivant('}')) return m;
+        do {
+            blancs();
+            if (i >= s.length() || s.charAt(i) != '"') throw erreur("clé attendue");
+            String cle = chaine();
+            blancs();
+            attendre(':');
+            blancs();
+            m.put(cle, valeur());
+            blancs();
+        } while (suivant(','));
+        attendre('}');
+        return m;
+    }
+
+    private List<Object> tableau() {
+        List<Object> l = new ArrayList<>();
+        i++; // [
+        blancs();
+        if (suivant(']')) return l;
+        do {
+            blancs();
+            l.add(valeur());
+            blancs();
+        } while (suivant(','));
+        attendre(']');
+        return l;
+    }
+
+    private String chaine() {
+        i++; // "
+        StringBuilder sb = null;
+        int debut = i;
+        while (true) {
+            if (i >= s.length()) throw erreur("chaîne non terminée");
+            char c = s.charAt(i);
+            if (c == '"') {
+                String fin = s.substring(debut, i++);
+                return (sb == null) ? fin : sb.append(fin).toString();
+            }
+            if (c != '\\') {
+                i++;
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder();
+            sb.append(s, debut, i);
+            if (i + 1 >= s.length()) throw erreur("échappement incomplet");
+            char e = s.charAt(i + 1);
+            i += 2;
+            switch (e) {
+                case '"', '\\', '/' -> sb.append(e);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    if (i + 4 > s.length()) throw erreur("\\u incomplet");
+                    sb.append((char) Integer.parseInt(s.substring(i, i + 4), 16));
+                    i += 4;
+                }
+                default -> throw erreur("échappement inconnu \\" + e);
+            }
+            debut = i;
+        }
+    }
+
+    private Object nombre() {
+        int debut = i;
+        boolean reel = false;
+        if (s.charAt(i) == '-') i++;
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                i++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                reel = true;
+                i++;
+            } else {
+                break;
+            }
+        }
+        String t = s.substring(debut, i);
+        try {
+            return reel ? (Object) Double.parseDouble(t) : (Object) Long.parseLong(t);
+        } catch (NumberFormatException e) {
+            throw erreur("nombre invalide '" + t + "'");
+        }
+    }
+
+    private Object mot(String mot, Object valeur) {
+        if (!s.startsWith(mot, i)) throw erreur(mot + " attendu");
+        i += mot.length();
+        return valeur;
+    }
+
+    private void blancs() {
+        while (i < s.length()) {
+            char c = s.charAt(i);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') return;
+            i++;
+        }
+    }
+
+    private boolean suivant(char c) {
+        if (i < s.length() && s.charAt(i) == c) {
+            i++;
+            return true;
+        }
+        return false;
+    }
+
+    private void attendre(char c) {
+        if (!suivant(c)) throw erreur("'" + c + "' attendu");
+    }
+
+    private IllegalArgumentException erreur(String msg) {
+        return new IllegalArgumentException("JSON invalide (offset " + i + ") : " + msg);
+    }
+
+    /* =========================
+     *  ÉCRITURE
+     * ========================= */
+
+    public static String ecrire(Object valeur) {
+        StringBuilder sb = new StringBuilder();
+        ecrire(sb, valeur);
+        return sb.toString();
+    }
+
+    private static void ecrire(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String str) {
+            chaine(sb, str);
+        } else if (v instanceof Boolean || v instanceof Integer || v instanceof Long) {
+            sb.append(v);
+        } else if (v instanceof Number n) {
+            double d = n.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) throw new IllegalArgumentException("nombre non JSON: " + d);
+            sb.append(d);
+        } else if (v instanceof Map<?, ?> m) {
+            sb.append('{');
+            boolean premier = true;
+            for (Map.Entry<?, ?> e : m.entrySet()) {
+                if (!premier) sb.append(',');
+                premier = false;
+                chaine(sb, String.valueOf(e.getKey()));
+                sb.append(':');
+                ecrire(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (v instanceof List<?> l) {
+            sb.append('[');
+            for (int k = 0; k < l.size(); k++) {
+                if (k > 0) sb.append(',');
+                ecrire(sb, l.get(k));
+            }
+            sb.append(']');
+        } else {
+            throw new IllegalArgumentException("type non JSON: " + v.getClass().getName());
+        }
+    }
+
+    private static void chaine(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,283 @@
+package main.java.lsp;
+
+import utils.diag.Diagnostic;
+import utils.diag.Gravite;
+import utils.diag.Intervalle;
+import utils.diag.Position;
+import utils.diag.SourceTexte;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serveur de langage (LSP, JSON-RPC sur stdio) : diagnostics en direct pendant la frappe.
+ *
+ * Exemple (configuration d'éditeur) :
+ *   java -cp target/classes main.java.lsp.ServeurLangage
+ *
+ * - synchronisation "Full" : chaque didChange porte le texte complet ;
+ * - un état chaud par document (DocumentOuvert) : lexeur et parseur (parallèle) repassent sur
+ *   tout le texte à chaque frappe ; seule la sémantique est incrémentale (fonctions modifiées) ;
+ * - un seul thread d'analyse : une analyse dont le document a changé entre-temps est abandonnée
+ *   (avant de commencer, entre les phases, avant publication), donc une rafale de frappes
+ *   ne coûte que l'analyse de la dernière version ;
+ * - publication : textDocument/publishDiagnostics.
+ *
+ * Latence mesurée par ServeurLangageTest.latence_des_frappes (@Tag("perf"), hors build par défaut) :
+ * document de 200 fonctions, p95 d'une frappe isolée et fin d'une rafale sous
+ * LATENCE_FRAPPE_MS / LATENCE_RAFALE_MS.
+ */
+public final class ServeurLangage {
+
+    // Codes d'erreur JSON-RPC / LSP
+    private static final int METHODE_INCONNUE = -32601;
+    private static final int PARAMETRES_INVALIDES = -32602;
+    private static final int NON_INITIALISE = -32002;
+
+    /** Objectif : diagnostics d'une frappe isolée publiés en moins de (p95, document de 200 fonctions). */
+    public static final long LATENCE_FRAPPE_MS = 100;
+    /** Objectif : après la dernière frappe d'une rafale, diagnostics de sa version publiés en moins de. */
+    public static final long LATENCE_RAFALE_MS = 250;
+
+    private final CanalJsonRpc canal;
+    private final Map<String, DocumentOuvert> documents = new ConcurrentHashMap<>();
+    private final ExecutorService analyseur = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "fc-lsp-analyse");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private boolean initialise;
+    private boolean arretDemande;
+
+    public ServeurLangage(InputStream in, OutputStream out) {
+        this.canal = new CanalJsonRpc(in, out);
+    }
+
+    public static void main(String[] args) {
+        System.exit(new ServeurLangage(System.in, System.out).executer());
+    }
+
+    /**
+     * Boucle de lecture jusqu'à "exit" ou fin du flux.
+     * @return 0 si "shutdown" a précédé la sortie, 1 sinon (convention LSP)
+     */
+    public int executer() {
+        try {
+            Map<String, Object> msg;
+            while ((msg = canal.lire()) != null) {
+                if ("exit".equals(msg.get("method"))) break;
+                traiter(msg);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("fc-lsp: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        } finally {
+            analyseur.shutdownNow();
+            try {
+                analyseur.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return arretDemande ? 0 : 1;
+    }
+
+    /* =========================
+     *  DISPATCH
+     * ========================= */
+
+    private void traiter(Map<String, Object> msg) throws IOException {
+        Object id = msg.get("id");
+        String methode = (String) msg.get("method");
+        Map<String, Object> params = objet(msg.get("params"));
+
+        if (methode == null) return; // réponse à une requête du serveur : on n'en émet pas
+
+        if (!initialise && !methode.equals("initialize")) {
+            if (id != null) repondreErreur(id, NON_INITIALISE, "serveur non initialisé");
+            return;
+        }
+
+        try {
+            switch (methode) {
+                case "initialize" -> {
+                    initialise = true;
+                    repondre(id, capacites());
+                }
+                case "initialized", "$/cancelRequest", "workspace/didChangeConfiguration" -> {
+                    // requêtes traitées de façon synchrone : rien à annuler ;
+                    // les analyses périmées sont abandonnées via la version du document
+                }
+                case "shutdown" -> {
+                    arretDemande = true;
+                    repondre(id, null);
+                }
+                case "textDocument/didOpen" -> {
+                    Map<String, Object> doc = objet(params.get("textDocument"));
+                    String uri = (String) doc.get("uri");
+                    DocumentOuvert d = new DocumentOuvert(uri, (String) doc.get("text"), entier(doc.get("version")));
+                    // réouverture sans didClose : l'ancien document ne doit plus rien publier
+                    DocumentOuvert remplace = documents.put(uri, d);
+                    if (remplace != null) remplace.fermer();
+                    planifier(d);
+                }
+                case "textDocument/didChange" -> {
+                    Map<String, Object> doc = objet(params.get("textDocument"));
+                    DocumentOuvert d = documents.get((String) doc.get("uri"));
+                    List<?> changements = (List<?>) params.get("contentChanges");
+                    if (d == null || changements == null || changements.isEmpty()) return;
+                    // synchro Full : le dernier changement porte le texte entier
+                    Map<String, Object> dernier = objet(changements.get(changements.size() - 1));
+                    d.mettreAJour((String) dernier.get("text"), entier(doc.get("version")));
+                    planifier(d);
+                }
+                case "textDocument/didClose" -> {
+                    String uri = (String) objet(params.get("textDocument")).get("uri");
+                    DocumentOuvert d = documents.remove(uri);
+                    if (d != null) {
+                        d.fermer();
+                        publier(uri, null, List.of());
+                    }
+                }
+                default -> {
+                    if (id != null) repondreErreur(id, METHODE_INCONNUE, "méthode non supportée: " + methode);
+                }
+            }
+        } catch (ClassCastException | NullPointerException e) {
+            if (id != null) repondreErreur(id, PARAMETRES_INVALIDES, "paramètres invalides pour " + methode);
+        }
+    }
+
+    private static Map<String, Object> capacites() {
+        Map<String, Object> sync = new LinkedHashMap<>();
+        sync.put("openClose", true);
+        sync.put("change", 1); // Full
+
+        Map<String, Object> caps = new LinkedHashMap<>();
+        caps.put("textDocumentSync", sync);
+
+        Map<String, Object> info = new LinkedHashMap<>();
+        info.put("name", "fc-lsp");
+
+        Map<String, Object> res = new LinkedHashMap<>();
+        res.put("capabilities", caps);
+        res.put("serverInfo", info);
+        return res;
+    }
+
+    /* =========================
+     *  ANALYSE
+     * ========================= */
+
+    private void planifier(DocumentOuvert d) {
+        DocumentOuvert.Version v = d.courante();
+        analyseur.execute(() -> {
+            try {
+                DocumentOuvert.Resultat r = d.analyser(v);
+                if (r == null || d.estPerimee(v)) return; // une version plus récente suit
+                List<Object> lsp = new ArrayList<>(r.diagnostics().size());
+                for (Diagnostic diag : r.diagnostics()) lsp.add(versLsp(diag, r.source()));
+                publier(d.uri, v.numero(), lsp);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("fc-lsp: analyse de " + d.uri + " : " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private void publier(String uri, Integer version, List<Object> diagnostics) throws IOException {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("uri", uri);
+        if (version != null) params.put("version", version);
+        params.put("diagnostics", diagnostics);
+        notifier("textDocument/publishDiagnostics", params);
+    }
+
+    /** Diagnostic du compilateur -> Diagnostic LSP (lignes/colonnes à partir de 0, fin exclusive). */
+    static Map<String, Object> versLsp(Diagnostic d, SourceTexte source) {
+        Intervalle iv = d.intervalle(source);
+        Position debut = (iv == null) ? null : iv.debut();
+        Position fin = (iv == null || !iv.aUneFin()) ? debut : iv.fin();
+
+        int l0 = (debut == null) ? 0 : Math.max(debut.ligne() - 1, 0);
+        int c0 = (debut == null) ? 0 : Math.max(debut.colonne() - 1, 0);
+        int l1 = (fin == null) ? l0 : Math.max(fin.ligne() - 1, 0);
+        int c1 = (fin == null) ? c0 : fin.colonne(); // dernière colonne incluse (1-based) = fin exclusive (0-based)
+
+        Map<String, Object> range = new LinkedHashMap<>();
+        range.put("start", positionLsp(l0, c0));
+        range.put("end", positionLsp(l1, Math.max(c1, c0 + ((l1 == l0) ? 1 : 0))));
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("range", range);
+        out.put("severity", severite(d.gravite()));
+        if (d.code() != null) out.put("code", d.code());
+        out.put("source", "fc");
+        out.put("message", d.message());
+        return out;
+    }
+
+    private static Map<String, Object> positionLsp(int ligne, int caractere) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("line", ligne);
+        p.put("character", caractere);
+        return p;
+    }
+
+    private static int severite(Gravite g) {
+        return switch (g) {
+            case ERREUR -> 1;
+            case AVERTISSEMENT -> 2;
+            case INFO -> 3;
+        };
+    }
+
+    /* =========================
+     *  MESSAGES
+     * ========================= */
+
+    private void repondre(Object id, Object resultat) throws IOException {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jsonrpc", "2.0");
+        m.put("id", id);
+        m.put("result", resultat);
+        canal.ecrire(m);
+    }
+
+    private void repondreErreur(Object id, int code, String message) throws IOException {
+        Map<String, Object> err = new LinkedHashMap<>();
+        err.put("code", code);
+        err.put("message", message);
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jsonrpc", "2.0");
+        m.put("id", id);
+        m.put("error", err);
+        canal.ecrire(m);
+    }
+
+    private void notifier(String methode, Object params) throws IOException {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jsonrpc", "2.0");
+        m.put("method", methode);
+        m.put("params", params);
+        canal.ecrire(m);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> objet(Object o) {
+        return (o instanceof Map) ? (Map<String, Object>) o : Map.of();
+    }
+
+    private static int entier(Object o) {
+        return (o instanceof Number n) ? n.intValue() : 0;
+    }
+}
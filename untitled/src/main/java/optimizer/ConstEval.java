@@ -46,7 +46,9 @@ final class ConstEval {
         return null;
     }
 
-    static ConstValue tryEvalBinary(String op, Expression g, Expression d) {
+    static ConstValue tryEvalBinary(Operateur op, Expression g, Expression d) {
+        if (op == null) return null;
+
         Integer gi = tryEvalInt(g);
         Integer di = tryEvalInt(d);
         String gs = tryEvalString(g);
@@ -55,24 +57,24 @@ final class ConstEval {
         Boolean db = tryEvalBoolean(d);
 
         // TEXTE + TEXTE (ou autre déjà converti par ton langage) -> TEXTE
-        if ("+".equals(op) && gs != null && ds != null) {
+        if (op == Operateur.PLUS && gs != null && ds != null) {
             return ConstValue.text(gs + ds);
         }
 
         // Arithmétique ENTIER
         if (gi != null && di != null) {
             return switch (op) {
-                case "+" -> ConstValue.integer(gi + di);
-                case "-" -> ConstValue.integer(gi - di);
-                case "*" -> ConstValue.integer(gi * di);
-                case "/" -> (di == 0) ? null : ConstValue.integer(gi / di);
-                case "%" -> (di == 0) ? null : ConstValue.integer(gi % di);
-                case "<" -> ConstValue.bool(gi < di);
-                case "<=" -> ConstValue.bool(gi <= di);
-                case ">" -> ConstValue.bool(gi > di);
-                case ">=" -> ConstValue.bool(gi >= di);
-                case "==" -> ConstValue.bool(gi.equals(di));
-                case "!=" -> ConstValue.bool(!gi.equals(di));
+                case PLUS -> ConstValue.integer(gi + di);
+                case MOINS -> ConstValue.integer(gi - di);
+                case MULT -> ConstValue.integer(gi * di);
+                case DIV -> (di == 0) ? null : ConstValue.integer(gi / di);
+                case MOD -> (di == 0) ? null : ConstValue.integer(gi % di);
+                case INF -> ConstValue.bool(gi < di);
+                case INF_EGAL -> ConstValue.bool(gi <= di);
+                case SUP -> ConstValue.bool(gi > di);
+                case SUP_EGAL -> ConstValue.bool(gi >= di);
+                case EGAL -> ConstValue.bool(gi.equals(di));
+                case DIFFERENT -> ConstValue.bool(!gi.equals(di));
                 default -> null;
             };
         }
@@ -80,10 +82,10 @@ final class ConstEval {
         // Logique BOOLEEN
         if (gb != null && db != null) {
             return switch (op) {
-                case "&&" -> ConstValue.bool(gb && db);
-                case "||" -> ConstValue.bool(gb || db);
-                case "==" -> ConstValue.bool(gb.equals(db));
-                case "!=" -> ConstValue.bool(!gb.equals(db));
+                case ET -> ConstValue.bool(gb && db);
+                case OU -> ConstValue.bool(gb || db);
+                case EGAL -> ConstValue.bool(gb.equals(db));
+                case DIFFERENT -> ConstValue.bool(!gb.equals(db));
                 default -> null;
             };
         }
@@ -91,8 +93,8 @@ final class ConstEval {
         // Egalité TEXTE
         if (gs != null && ds != null) {
             return switch (op) {
-                case "==" -> ConstValue.bool(gs.equals(ds));
-                case "!=" -> ConstValue.bool(!gs.equals(ds));
+                case EGAL -> ConstValue.bool(gs.equals(ds));
+                case DIFFERENT -> ConstValue.bool(!gs.equals(ds));
                 default -> null;
             };
         }
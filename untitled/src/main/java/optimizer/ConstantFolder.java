@@ -96,7 +96,7 @@ class ConstantFolder {
             AstReflection.trySetField(b, "droite", d2);
 
             // tenter evaluation constante
-            ConstValue cv = ConstEval.tryEvalBinary(b.getop(), g2, d2);
+            ConstValue cv = ConstEval.tryEvalBinary(b.getOperateur(), g2, d2);
             if (cv != null) {
                 Expression rebuilt = ConstEval.buildConstExpression(cv);
                 if (rebuilt != null) return rebuilt;
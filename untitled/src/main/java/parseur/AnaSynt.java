@@ -7,11 +7,15 @@ import main.java.parseur.ast.*;
 import main.java.parseur.ast.controle.Pour;
 import main.java.parseur.ast.controle.Si;
 import main.java.parseur.ast.controle.TantQue;
+import utils.diag.Diagnostic;
 import utils.diag.DiagnosticCollector;
 import utils.diag.Position;
+import utils.diag.Span;
+import utils.lang.Interneur;
 import main.java.parseur.ast.Expression;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class AnaSynt {
 
@@ -19,11 +23,33 @@ public class AnaSynt {
     private int position;
     private final DiagnosticCollector diags;
 
+    /** Nombre d'erreurs de syntaxe au-delà duquel le parseur abandonne (indépendamment du collecteur). */
+    public static final int BUDGET_ERREURS_DEFAUT = 100;
+
+    private int budgetErreurs = BUDGET_ERREURS_DEFAUT;
+    private int erreursSyntaxe;
+
+    // Mode panique : après une erreur, les suivantes sont tues jusqu'à la resynchronisation
+    // (';' ou '}' en fin d'instruction, prochain 'fonction' au niveau programme).
+    private boolean enPanique;
+
     private Position pos(Jeton j) {
+        return posJeton(j);
+    }
+
+    // Position mémorisée dans le jeton : une allocation par jeton au plus, partagée par nœuds et diagnostics.
+    private static Position posJeton(Jeton j) {
         if (j == null) return new Position(1, 1);
-        int l = Math.max(1, j.getLigne());
-        int c = Math.max(1, j.getColonne());
-        return new Position(l, c);
+        return j.getPosition();
+    }
+
+    /** Étend n de premier jusqu'au dernier jeton consommé (offsets seulement, aucune Position créée). */
+    private <N extends NoeudAst> N couvrir(N n, Jeton premier) {
+        if (position == 0 || position > jetons.size()) return n;
+        long debut = premier.getSpan();
+        long fin = jetons.get(position - 1).getSpan();
+        if (Span.estDefini(debut) && Span.estDefini(fin)) n.definirSpan(Span.englobant(debut, fin));
+        return n;
     }
 
     public AnaSynt(List<Jeton> jetons, DiagnosticCollector diags) {
@@ -41,24 +67,32 @@ public class AnaSynt {
      * ====================== */
 
     public Programme analyserProgramme() {
+        return construireProgramme(jetons, analyserFonctions());
+    }
+
+    // Boucle "fonction*" jusqu'à la fin des jetons (partagée par le mode séquentiel et le mode parallèle)
+    private List<Fonction> analyserFonctions() {
         List<Fonction> fonctions = new ArrayList<>();
 
-        while (!estFin()) {
+        // limite d'erreurs atteinte : inutile de continuer à produire des erreurs en cascade
+        while (!estFin() && !estAbandonne()) {
             if (est(TypeJeton.Fonction)) {
                 fonctions.add(analyserFonction());
             } else if (est(TypeJeton.FinFichier)) {
                 break;
             } else {
                 Jeton j = courant();
-                diags.erreur(
-                        "Mot-clé 'fonction' attendu (trouvé : " + j.getType() + " '" + j.getValeur() + "')",
-                        pos(j)
-                );
-                avancer();
+                signaler("Mot-clé 'fonction' attendu (trouvé : " + j.getType() + " '" + j.getValeur() + "')", j);
+                // un seul diagnostic pour toute la séquence parasite
+                while (!estFin() && !est(TypeJeton.Fonction)) avancer();
+                enPanique = false;
             }
         }
+        return fonctions;
+    }
 
-        Position p0 = jetons.isEmpty() ? new Position(1, 1) : pos(jetons.get(0));
+    private static Programme construireProgramme(List<Jeton> jetons, List<Fonction> fonctions) {
+        Position p0 = jetons.isEmpty() ? new Position(1, 1) : posJeton(jetons.get(0));
         Classe classePrincipale = new Classe(
                 p0,
                 "ProgrammePrincipal",
@@ -74,6 +108,113 @@ public class AnaSynt {
         return new Programme(p0, classes);
     }
 
+    /* ======================
+     *  PARSE PARALLÈLE
+     * ====================== */
+
+    /** En dessous de ce nombre de fonctions, le mode parallèle retombe sur le parse séquentiel. */
+    public static final int SEUIL_PARALLELE = 32;
+
+    /**
+     * Parse parallèle : les fonctions sont des unités indépendantes au niveau 0 d'accolades.
+     *
+     * 1) pré-scan des jetons 'fonction' à profondeur 0 (appariement { }) ;
+     * 2) chaque segment est parsé par son propre AnaSynt avec son propre DiagnosticCollector ;
+     * 3) fonctions et diagnostics sont fusionnés dans l'ordre du source, sous le budget d'erreurs
+     *    (BUDGET_ERREURS_DEFAUT) et la limite du collecteur, comme en séquentiel.
+     *
+     * Pas de DiagnosticCollector.concurrent() partagé entre segments : sous limite d'erreurs, les
+     * erreurs gardées seraient celles des threads les plus rapides, et les diagnostics des segments
+     * situés après une erreur fatale remonteraient ; la fusion ordonnée garde la sortie du séquentiel.
+     *
+     * Sur une entrée valide, le Programme est identique à analyserProgramme().
+     * Sur une entrée invalide, la reprise sur erreur reste confinée au segment fautif.
+     */
+    public static Programme analyserParallele(List<Jeton> jetons, DiagnosticCollector diags) {
+        List<Integer> debuts = debutsDeFonctions(jetons);
+        if (debuts.size() < SEUIL_PARALLELE) {
+            return new AnaSynt(jetons, diags).analyserProgramme();
+        }
+
+        int fin = finUtile(jetons);
+        List<ResultatSegment> resultats = IntStream.range(0, debuts.size())
+                .parallel()
+                .mapToObj(i -> {
+                    int debut = debuts.get(i);
+                    int finSeg = (i + 1 < debuts.size()) ? debuts.get(i + 1) : fin;
+                    return analyserSegment(jetons.subList(debut, finSeg), diags.limiteErreurs());
+                })
+                .toList();
+
+        // chaque segment a eu tout le budget d'erreurs : celui du séquentiel est appliqué ici, dans
+        // l'ordre du source, et la fusion s'arrête là où le séquentiel aurait abandonné
+        int budget = BUDGET_ERREURS_DEFAUT;
+        List<Fonction> fonctions = new ArrayList<>();
+        for (ResultatSegment r : resultats) {
+            for (Diagnostic d : r.diags().diagnostics().tous()) {
+                if (d.estErreur()) {
+                    if (budget == 0 || diags.limiteAtteinte()) break;
+                    budget--;
+                }
+                diags.ajouter(d);
+            }
+            // même comportement que le séquentiel : la première erreur fatale (dans l'ordre du source) remonte
+            if (r.echec() != null) throw r.echec();
+            fonctions.addAll(r.fonctions());
+            if (budget == 0 || diags.limiteAtteinte()) break;
+        }
+        return construireProgramme(jetons, fonctions);
+    }
+
+    /** Lexing + parse parallèle. */
+    public static Programme analyserParallele(String source, DiagnosticCollector diags) {
+        return analyserParallele(source, diags, new Interneur());
+    }
+
+    /** Idem, avec l'interneur de la compilation (partagé ensuite avec AnalyseSemantique). */
+    public static Programme analyserParallele(String source, DiagnosticCollector diags, Interneur interneur) {
+        return analyserParallele(new Lexeur(source, diags, interneur).analyser(), diags);
+    }
+
+    private record ResultatSegment(List<Fonction> fonctions, DiagnosticCollector diags, RuntimeException echec) {}
+
+    private static ResultatSegment analyserSegment(List<Jeton> segment, int limiteErreurs) {
+        DiagnosticCollector local = new DiagnosticCollector().limiteErreurs(limiteErreurs);
+        try {
+            return new ResultatSegment(new AnaSynt(segment, local).analyserFonctions(), local, null);
+        } catch (RuntimeException e) {
+            return new ResultatSegment(List.of(), local, e);
+        }
+    }
+
+    /**
+     * Indices des jetons 'fonction' hors de toute accolade.
+     * Le premier segment démarre toujours à 0 (jetons parasites avant la 1re fonction inclus).
+     */
+    static List<Integer> debutsDeFonctions(List<Jeton> jetons) {
+        List<Integer> debuts = new ArrayList<>();
+        int profondeur = 0;
+        for (int i = 0; i < jetons.size(); i++) {
+            TypeJeton t = jetons.get(i).getType();
+            if (t == TypeJeton.AccoladeOuvr) {
+                profondeur++;
+            } else if (t == TypeJeton.AccoFerma) {
+                if (profondeur > 0) profondeur--;
+            } else if (t == TypeJeton.Fonction && profondeur == 0) {
+                debuts.add(i);
+            }
+        }
+        if (debuts.isEmpty() || debuts.get(0) != 0) debuts.add(0, 0);
+        return debuts;
+    }
+
+    // Exclut le FinFichier final : chaque segment a sa propre fin synthétique (courant()).
+    private static int finUtile(List<Jeton> jetons) {
+        int n = jetons.size();
+        while (n > 0 && jetons.get(n - 1).getType() == TypeJeton.FinFichier) n--;
+        return n;
+    }
+
     // Helpers debug
     public Programme parse() { return analyserProgramme(); }
     public Programme analyser() { return analyserProgramme(); }
@@ -91,7 +232,7 @@ public class AnaSynt {
      * ====================== */
 
     private Fonction analyserFonction() {
-        consommer(TypeJeton.Fonction, "Mot-clé 'fonction' attendu");
+        Jeton kw = consommer(TypeJeton.Fonction, "Mot-clé 'fonction' attendu");
         Jeton nom = consommer(TypeJeton.Identifiant, "Nom de fonction attendu");
 
         consommer(TypeJeton.ParOuvr, "'(' attendu après le nom de fonction");
@@ -107,17 +248,19 @@ public class AnaSynt {
         consommer(TypeJeton.ParFerm, "')' attendu après la liste des paramètres");
 
         Bloc corps = analyserBloc();
-        return new Fonction(pos(nom), nom.getValeur(), params, corps);
+        enPanique = false;
+        return couvrir(new Fonction(pos(nom), nom.getValeur(), params, corps), kw);
     }
 
     private Bloc analyserBloc() {
         Jeton ouv = consommer(TypeJeton.AccoladeOuvr, "'{' attendu pour commencer un bloc");
         List<Instruction> instructions = new ArrayList<>();
-        while (!est(TypeJeton.AccoFerma) && !estFin()) {
+        // 'fonction' dans un bloc : '}' manquant, on laisse le niveau programme reprendre
+        while (!est(TypeJeton.AccoFerma) && !est(TypeJeton.Fonction) && !estFin() && !estAbandonne()) {
             instructions.add(analyserInstruction());
         }
         consommer(TypeJeton.AccoFerma, "'}' attendu pour terminer un bloc");
-        return new Bloc(pos(ouv), instructions);
+        return couvrir(new Bloc(pos(ouv), instructions), ouv);
     }
 
     /* ======================
@@ -125,6 +268,13 @@ public class AnaSynt {
      * ====================== */
 
     private Instruction analyserInstruction() {
+        Jeton premier = courant();
+        Instruction instr = couvrir(analyserInstructionSansSpan(), premier);
+        if (enPanique) synchroniserInstruction();
+        return instr;
+    }
+
+    private Instruction analyserInstructionSansSpan() {
         if (est(TypeJeton.AccoladeOuvr)) return analyserBloc();
         if (est(TypeJeton.Si)) return analyserSi();
         if (est(TypeJeton.TantQue)) return analyserTantQue();
@@ -142,7 +292,7 @@ public class AnaSynt {
         }
 
         Jeton j = courant();
-        diags.erreur("Instruction inattendue : " + j.getType() + " (" + j.getValeur() + ")", pos(j));
+        signaler("Instruction inattendue : " + j.getType() + " (" + j.getValeur() + ")", j);
         avancer();
         return new Bloc(pos(j), List.of());
     }
@@ -230,14 +380,14 @@ public class AnaSynt {
         consommer(TypeJeton.CrochetFermant, "']' attendu après l'expression de fin dans 'pour'");
         consommer(TypeJeton.Virgule, "',' attendu après les bornes dans 'pour'");
 
-        String operateur = lireOperateurPas();
+        Operateur operateur = lireOperateurPas();
         Expression pas = analyserExpression();
         Instruction corps = analyserInstruction();
 
         return new Pour(pos(kw), ident.getValeur(), debut, fin, operateur, pas, corps);
     }
 
-    private String lireOperateurPas() {
+    private Operateur lireOperateurPas() {
         Jeton j = courant();
         TypeJeton t = j.getType();
 
@@ -246,12 +396,12 @@ public class AnaSynt {
                 t == TypeJeton.ModEgal) {
             avancer();
             return switch (t) {
-                case PlusEgal -> "+=";
-                case MoinsEgal -> "-=";
-                case MultEgal -> "*=";
-                case DivEgal -> "/=";
-                case ModEgal -> "%=";
-                default -> "+=";
+                case PlusEgal -> Operateur.PLUS_EGAL;
+                case MoinsEgal -> Operateur.MOINS_EGAL;
+                case MultEgal -> Operateur.MULT_EGAL;
+                case DivEgal -> Operateur.DIV_EGAL;
+                case ModEgal -> Operateur.MOD_EGAL;
+                default -> Operateur.PLUS_EGAL;
             };
         }
 
@@ -271,11 +421,13 @@ public class AnaSynt {
      * ====================== */
 
     private Expression analyserExpression() {
-        return analyserAffectationExpr();
+        Jeton premier = courant();
+        return couvrir(analyserAffectationExpr(), premier);
     }
 
     // affectation right-associative
     private Expression analyserAffectationExpr() {
+        Jeton premier = courant();
         Expression gauche = analyserOu();
 
         if (estAffectOp(courant().getType())) {
@@ -283,58 +435,62 @@ public class AnaSynt {
             TypeJeton opType = opTok.getType();
             avancer();
 
-            String op = switch (opType) {
-                case Affecte -> "=";
-                case PlusEgal -> "+=";
-                case MoinsEgal -> "-=";
-                case MultEgal -> "*=";
-                case DivEgal -> "/=";
-                case ModEgal -> "%=";
-                default -> "=";
+            Operateur op = switch (opType) {
+                case Affecte -> Operateur.AFFECTE;
+                case PlusEgal -> Operateur.PLUS_EGAL;
+                case MoinsEgal -> Operateur.MOINS_EGAL;
+                case MultEgal -> Operateur.MULT_EGAL;
+                case DivEgal -> Operateur.DIV_EGAL;
+                case ModEgal -> Operateur.MOD_EGAL;
+                default -> Operateur.AFFECTE;
             };
 
             Expression droite = analyserAffectationExpr(); // ✅ right-assoc
-            return new ExpressionAffectation(pos(opTok), gauche, op, droite);
+            return couvrir(new ExpressionAffectation(pos(opTok), gauche, op, droite), premier);
         }
 
         return gauche;
     }
 
     private Expression analyserOu() {
+        Jeton premier = courant();
         Expression expr = analyserEt();
         while (est(TypeJeton.Ou)) {
             Jeton opTok = consommer(TypeJeton.Ou, "'||' attendu");
             Expression droite = analyserEt();
-            expr = new ExpressionBinaire(pos(opTok), expr, "||", droite);
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, Operateur.OU, droite), premier);
         }
         return expr;
     }
 
     private Expression analyserEt() {
+        Jeton premier = courant();
         Expression expr = analyserEgalite();
         while (est(TypeJeton.Et)) {
             Jeton opTok = consommer(TypeJeton.Et, "'&&' attendu");
             Expression droite = analyserEgalite();
-            expr = new ExpressionBinaire(pos(opTok), expr, "&&", droite);
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, Operateur.ET, droite), premier);
         }
         return expr;
     }
 
     private Expression analyserEgalite() {
+        Jeton premier = courant();
         Expression expr = analyserComparaison();
 
         while (est(TypeJeton.Egal) || est(TypeJeton.PasEgal)) {
             Jeton opTok = courant();
             avancer();
             Expression droite = analyserComparaison();
-            String opStr = (opTok.getType() == TypeJeton.Egal) ? "==" : "!=";
-            expr = new ExpressionBinaire(pos(opTok), expr, opStr, droite);
+            Operateur opStr = (opTok.getType() == TypeJeton.Egal) ? Operateur.EGAL : Operateur.DIFFERENT;
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, opStr, droite), premier);
         }
 
         return expr;
     }
 
     private Expression analyserComparaison() {
+        Jeton premier = courant();
         Expression expr = analyserAddition();
 
         while (est(TypeJeton.Inf) || est(TypeJeton.InfEgal)
@@ -344,35 +500,37 @@ public class AnaSynt {
             avancer();
             Expression droite = analyserAddition();
 
-            String opStr = switch (opTok.getType()) {
-                case Inf -> "<";
-                case InfEgal -> "<=";
-                case Superieur -> ">";
-                case SupEgal -> ">=";
-                default -> "<";
+            Operateur opStr = switch (opTok.getType()) {
+                case Inf -> Operateur.INF;
+                case InfEgal -> Operateur.INF_EGAL;
+                case Superieur -> Operateur.SUP;
+                case SupEgal -> Operateur.SUP_EGAL;
+                default -> Operateur.INF;
             };
 
-            expr = new ExpressionBinaire(pos(opTok), expr, opStr, droite);
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, opStr, droite), premier);
         }
 
         return expr;
     }
 
     private Expression analyserAddition() {
+        Jeton premier = courant();
         Expression expr = analyserMultiplication();
 
         while (est(TypeJeton.Plus) || est(TypeJeton.Moins)) {
             Jeton opTok = courant();
             avancer();
             Expression droite = analyserMultiplication();
-            String opStr = (opTok.getType() == TypeJeton.Plus) ? "+" : "-";
-            expr = new ExpressionBinaire(pos(opTok), expr, opStr, droite);
+            Operateur opStr = (opTok.getType() == TypeJeton.Plus) ? Operateur.PLUS : Operateur.MOINS;
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, opStr, droite), premier);
         }
 
         return expr;
     }
 
     private Expression analyserMultiplication() {
+        Jeton premier = courant();
         Expression expr = analyserUnaire();
 
         while (est(TypeJeton.Mult) || est(TypeJeton.Div) || est(TypeJeton.Modulo)) {
@@ -380,14 +538,14 @@ public class AnaSynt {
             avancer();
             Expression droite = analyserUnaire();
 
-            String opStr = switch (opTok.getType()) {
-                case Mult -> "*";
-                case Div -> "/";
-                case Modulo -> "%";
-                default -> "*";
+            Operateur opStr = switch (opTok.getType()) {
+                case Mult -> Operateur.MULT;
+                case Div -> Operateur.DIV;
+                case Modulo -> Operateur.MOD;
+                default -> Operateur.MULT;
             };
 
-            expr = new ExpressionBinaire(pos(opTok), expr, opStr, droite);
+            expr = couvrir(new ExpressionBinaire(pos(opTok), expr, opStr, droite), premier);
         }
 
         return expr;
@@ -400,27 +558,27 @@ public class AnaSynt {
         if (est(TypeJeton.Incr)) {
             avancer();
             Expression e = analyserUnaire();
-            return new ExpressionUnaire(pos(j), "++", e);
+            return couvrir(new ExpressionUnaire(pos(j), Operateur.INCR, e), j);
         }
         if (est(TypeJeton.Decr)) {
             avancer();
             Expression e = analyserUnaire();
-            return new ExpressionUnaire(pos(j), "--", e);
+            return couvrir(new ExpressionUnaire(pos(j), Operateur.DECR, e), j);
         }
         if (est(TypeJeton.Non)) {
             avancer();
             Expression e = analyserUnaire();
-            return new ExpressionUnaire(pos(j), "!", e);
+            return couvrir(new ExpressionUnaire(pos(j), Operateur.NON, e), j);
         }
         if (est(TypeJeton.Moins)) {
             avancer();
             Expression e = analyserUnaire();
-            return new ExpressionUnaire(pos(j), "-", e);
+            return couvrir(new ExpressionUnaire(pos(j), Operateur.MOINS, e), j);
         }
         if (est(TypeJeton.Plus)) {
             avancer();
             Expression e = analyserUnaire();
-            return new ExpressionUnaire(pos(j), "+", e);
+            return couvrir(new ExpressionUnaire(pos(j), Operateur.PLUS, e), j);
         }
 
         return analyserPostfix();
@@ -428,13 +586,14 @@ public class AnaSynt {
 
     // postfix : x++ x--
     private Expression analyserPostfix() {
+        Jeton premier = courant();
         Expression expr = analyserPrimaire();
 
         while (est(TypeJeton.Incr) || est(TypeJeton.Decr)) {
             Jeton opTok = courant();
             avancer();
-            String op = (opTok.getType() == TypeJeton.Incr) ? "++" : "--";
-            expr = new ExpressionPostfix(pos(opTok), expr, op);
+            Operateur op = (opTok.getType() == TypeJeton.Incr) ? Operateur.INCR : Operateur.DECR;
+            expr = couvrir(new ExpressionPostfix(pos(opTok), expr, op), premier);
         }
 
         return expr;
@@ -445,19 +604,19 @@ public class AnaSynt {
 
         if (est(TypeJeton.Nombre)) {
             avancer();
-            return new Nombre(pos(j), Integer.parseInt(j.getValeur()));
+            return couvrir(new Nombre(pos(j), Integer.parseInt(j.getValeur())), j);
         }
 
         if (est(TypeJeton.Lire)) {
             Jeton lireTok = consommer(TypeJeton.Lire, "Mot-clé 'lire' attendu");
             consommer(TypeJeton.ParOuvr, "'(' attendu après 'lire'");
             consommer(TypeJeton.ParFerm, "')' attendu après 'lire'");
-            return new Lire(pos(lireTok));
+            return couvrir(new Lire(pos(lireTok)), lireTok);
         }
 
         if (est(TypeJeton.TexteLitteral)) {
             avancer();
-            return new Texte(pos(j), j.getValeur());
+            return couvrir(new Texte(pos(j), j.getValeur()), j);
         }
 
         if (est(TypeJeton.CaractereLitteral)) {
@@ -466,7 +625,7 @@ public class AnaSynt {
                 diags.erreur("CaractereLitteral invalide : '" + j.getValeur() + "'", pos(j));
                 return new Caractere(pos(j), '\0');
             }
-            return new Caractere(pos(j), j.getValeur().charAt(0));
+            return couvrir(new Caractere(pos(j), j.getValeur().charAt(0)), j);
         }
 
         if (est(TypeJeton.Identifiant)) {
@@ -485,10 +644,10 @@ public class AnaSynt {
                 }
 
                 consommer(TypeJeton.ParFerm, "')' attendu après les arguments");
-                return new AppelFonction(pos(nom), nom.getValeur(), args);
+                return couvrir(new AppelFonction(pos(nom), nom.getValeur(), args), nom);
             }
 
-            return new Identifiant(pos(nom), nom.getValeur());
+            return couvrir(new Identifiant(pos(nom), nom.getValeur()), nom);
         }
 
         if (est(TypeJeton.Vrai)) { avancer(); return new Identifiant(pos(j), "true"); }
@@ -501,8 +660,8 @@ public class AnaSynt {
             return expr;
         }
 
-        diags.erreur("Expression primaire attendue, trouvé : " + j.getType() + " (" + j.getValeur() + ")", pos(j));
-        avancer();
+        signaler("Expression primaire attendue, trouvé : " + j.getType() + " (" + j.getValeur() + ")", j);
+        if (!estSynchronisation(j.getType())) avancer();
         return new Nombre(pos(j), 0);
     }
 
@@ -534,11 +693,59 @@ public class AnaSynt {
             return j;
         }
         Jeton j = courant();
-        diags.erreur(messageErreur + " (trouvé : " + j.getType() + " '" + j.getValeur() + "')", pos(j));
-        avancer();
+        signaler(messageErreur + " (trouvé : " + j.getType() + " '" + j.getValeur() + "')", j);
+        // jeton structurant : on fait comme si le jeton attendu était présent (pas de cascade)
+        if (!estSynchronisation(j.getType())) avancer();
         return j;
     }
 
+    /* ======================
+     *  REPRISE SUR ERREUR
+     * ====================== */
+
+    /** Modifie le budget d'erreurs de syntaxe (n <= 0 : illimité). */
+    public AnaSynt budgetErreurs(int n) {
+        this.budgetErreurs = n;
+        return this;
+    }
+
+    public int nombreErreursSyntaxe() {
+        return erreursSyntaxe;
+    }
+
+    private boolean estAbandonne() {
+        return diags.limiteAtteinte() || (budgetErreurs > 0 && erreursSyntaxe >= budgetErreurs);
+    }
+
+    private void signaler(String message, Jeton j) {
+        if (enPanique || estAbandonne()) return;
+        enPanique = true;
+        erreursSyntaxe++;
+        diags.erreur(message, pos(j));
+    }
+
+    private static boolean estSynchronisation(TypeJeton t) {
+        return t == TypeJeton.PointVirgule
+                || t == TypeJeton.AccoladeOuvr
+                || t == TypeJeton.AccoFerma
+                || t == TypeJeton.Fonction
+                || t == TypeJeton.FinFichier;
+    }
+
+    // Fin d'instruction fautive : saute jusqu'à ';' (consommé) ou '}' / 'fonction' (laissés au niveau englobant).
+    private void synchroniserInstruction() {
+        Jeton precedent = (position > 0 && position <= jetons.size()) ? jetons.get(position - 1) : null;
+        boolean dejaSynchro = precedent != null
+                && (precedent.getType() == TypeJeton.PointVirgule || precedent.getType() == TypeJeton.AccoFerma);
+
+        while (!dejaSynchro && !estFin() && !est(TypeJeton.AccoFerma) && !est(TypeJeton.Fonction)) {
+            boolean finInstr = est(TypeJeton.PointVirgule);
+            avancer();
+            if (finInstr) break;
+        }
+        enPanique = false;
+    }
+
     private boolean consommerOptionnel(TypeJeton type) {
         if (est(type)) { avancer(); return true; }
         return false;
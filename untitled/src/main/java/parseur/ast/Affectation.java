@@ -2,18 +2,26 @@ package main.java.parseur.ast;
 
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.lang.Interneur;
 
 public class Affectation extends Instruction {
     private final String nomVar;
-    private final String operateur; // "=", "+=", "-=", "*=", "/=", "%="
+    private final Operateur operateur; // "=", "+=", "-=", "*=", "/=", "%="
     private final Expression expression;
 
+    // Id de nomVar, résolu une fois par interneur (voir Identifiant.symbole)
+    private Interneur.Resolu symbole;
+
     // Ancien constructeur conservé (compat)
     public Affectation(Position pos, String nomVar, Expression expression) {
-        this(pos, nomVar, "=", expression);
+        this(pos, nomVar, Operateur.AFFECTE, expression);
     }
 
     public Affectation(Position pos, String nomVar, String operateur, Expression expression) {
+        this(pos, nomVar, Operateur.deSymbole(operateur), expression);
+    }
+
+    public Affectation(Position pos, String nomVar, Operateur operateur, Expression expression) {
         super(pos);
         this.nomVar = nomVar;
         this.operateur = operateur;
@@ -21,11 +29,22 @@ public class Affectation extends Instruction {
     }
 
     public String getNomVar() { return nomVar; }
-    public String getOperateur() { return operateur; }
+
+    /** Id de nomVar dans interneur (haché au premier appel seulement). */
+    public int symbole(Interneur interneur) {
+        Interneur.Resolu r = symbole;
+        if (r == null || r.interneur() != interneur) {
+            r = new Interneur.Resolu(interneur, interneur.id(nomVar));
+            symbole = r;
+        }
+        return r.id();
+    }
+    public Operateur getOperateur() { return operateur; }
+    public String getOp() { return operateur.symbole(); }
     public Expression getExpression() { return expression; }
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return nomVar + " " + operateur + " " + expression.genJava(sem) + ";";
+        return nomVar + " " + operateur.symbole() + " " + expression.genJava(sem) + ";";
     }
 }
@@ -1,5 +1,6 @@
 package main.java.parseur.ast;
 
+import main.java.codegenerator.EmissionContext;
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
 
@@ -26,8 +27,9 @@ public class AppelFonction extends Expression {
 
     @Override
     public String genJava(AnalyseSemantique sem) {
+        EmissionContext.noterAppel();
         StringBuilder sb = new StringBuilder();
-        sb.append(nom).append("(");
+        sb.append(EmissionContext.cibleAppel(nom)).append("(");
 
         for (int i = 0; i < args.size(); i++) {
             if (i > 0) sb.append(", ");
@@ -4,7 +4,11 @@ package main.java.parseur.ast;
 
 
 import utils.diag.Position;
+import utils.diag.Span;
 
 public interface AvecPosition {
     Position getPosition(); // peut être null au début
+
+    /** Étendue [debut, fin) en offsets dans le source (Span.AUCUN si inconnue). */
+    default long getSpan() { return Span.AUCUN; }
 }
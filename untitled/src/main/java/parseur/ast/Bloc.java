@@ -1,5 +1,6 @@
 package main.java.parseur.ast;
 
+import main.java.codegenerator.EmissionContext;
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
 
@@ -20,7 +21,9 @@ public class Bloc extends Instruction{
         StringBuilder sb = new StringBuilder();
         sb.append("{\n");
         for (Instruction instr : instructions) {
-            sb.append("  ").append(instr.genJava(sem)).append("\n"); // ✅ sem
+            sb.append("  ")
+                    .append(EmissionContext.marqueInstruction(instr.getPosition()))
+                    .append(instr.genJava(sem)).append("\n"); // ✅ sem
         }
         sb.append("}");
         return sb.toString();
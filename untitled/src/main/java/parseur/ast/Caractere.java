@@ -2,6 +2,7 @@ package main.java.parseur.ast;
 
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.text.StringEscape;
 
 public class Caractere extends Expression {
 
@@ -20,6 +21,7 @@ public class Caractere extends Expression {
     public String genJava(AnalyseSemantique sem) {
         if (valeur == '\\') return "'\\\\'";
         if (valeur == '\'') return "'\\''";
+        if (StringEscape.estZonePrivee(valeur)) return StringEscape.literalJavaChar(valeur); // marques de carte source
         return "'" + valeur + "'";
     }
 }
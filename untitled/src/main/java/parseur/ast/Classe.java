@@ -4,6 +4,7 @@ import main.java.semantic.AnalyseSemantique;
 import main.java.semantic.TypeSimple;
 import utils.diag.Position;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -40,6 +41,23 @@ public class Classe extends NoeudAst {
 
     @Override
     public String genJava(AnalyseSemantique sem) {
+        List<String> fonctionsJava = new ArrayList<>(fonctions.size());
+        for (Fonction f : fonctions) {
+            fonctionsJava.add(f.genJava(sem));
+        }
+        return genJava(sem, fonctionsJava);
+    }
+
+    /**
+     * Assemble la classe à partir du Java déjà généré pour chaque fonction
+     * (même ordre que getFonctions()). Permet de générer les fonctions en parallèle
+     * tout en gardant une sortie identique à la génération séquentielle.
+     */
+    public String genJava(AnalyseSemantique sem, List<String> fonctionsJava) {
+        if (fonctionsJava.size() != fonctions.size()) {
+            throw new IllegalArgumentException("fonctionsJava: " + fonctionsJava.size()
+                    + " éléments, attendu " + fonctions.size());
+        }
         StringBuilder cls = new StringBuilder();
         cls.append("public class ").append(nom).append(" {\n\n");
 
@@ -70,8 +88,8 @@ public class Classe extends NoeudAst {
         // Générer toutes les fonctions de la classe
         if (!fonctions.isEmpty()) {
             cls.append("  // Méthodes\n");
-            for (Fonction f : fonctions) {
-                cls.append("  ").append(f.genJava(sem).replaceAll("\n", "\n  ")).append("\n\n");
+            for (String fJava : fonctionsJava) {
+                cls.append("  ").append(fJava.replaceAll("\n", "\n  ")).append("\n\n");
             }
         }
 
@@ -6,23 +6,28 @@ import utils.diag.Position;
 public class ExpressionAffectation extends Expression {
 
     private final Expression cible;
-    private final String op;
+    private final Operateur op;
     private final Expression valeur;
 
-    public ExpressionAffectation(Position position, Expression cible, String op, Expression valeur) {
+    public ExpressionAffectation(Position position, Expression cible, Operateur op, Expression valeur) {
         super(position);
         this.cible = cible;
         this.op = op;
         this.valeur = valeur;
     }
 
+    public ExpressionAffectation(Position position, Expression cible, String op, Expression valeur) {
+        this(position, cible, Operateur.deSymbole(op), valeur);
+    }
+
     public Expression getCible() { return cible; }
-    public String getOp() { return op; }
+    public Operateur getOperateur() { return op; }
+    public String getOp() { return op.symbole(); }
     public Expression getValeur() { return valeur; }
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return cible.genJava(sem) + " " + op + " " + valeur.genJava(sem);
+        return cible.genJava(sem) + " " + op.symbole() + " " + valeur.genJava(sem);
     }
 
 }
@@ -1,5 +1,7 @@
 package main.java.parseur.ast;
 
+import main.java.codegenerator.EmissionContext;
+import main.java.codegenerator.RuntimeHelper;
 import main.java.semantic.AnalyseSemantique;
 import main.java.semantic.TypeSimple;
 import utils.diag.Position;
@@ -10,26 +12,23 @@ public class ExpressionBinaire extends Expression {
 
     private final Expression gauche;
     private final Expression droite;
-    private final String op;
+    private final Operateur op;
 
-    public ExpressionBinaire(Position pos, Expression gauche, String op, Expression droite) {
+    public ExpressionBinaire(Position pos, Expression gauche, Operateur op, Expression droite) {
         super(pos);
         this.gauche = gauche;
         this.droite = droite;
         this.op = op;
     }
 
-    public Expression getGauche() { return gauche; }
-    public Expression getDroite() { return droite; }
-    public String getop() { return op; }
-
-    private static boolean isArithNoPlus(String op) {
-        return "-".equals(op) || "*".equals(op) || "/".equals(op) || "%".equals(op);
+    public ExpressionBinaire(Position pos, Expression gauche, String op, Expression droite) {
+        this(pos, gauche, Operateur.deSymbole(op), droite);
     }
 
-    private static boolean isCompare(String op) {
-        return "<".equals(op) || "<=".equals(op) || ">".equals(op) || ">=".equals(op);
-    }
+    public Expression getGauche() { return gauche; }
+    public Expression getDroite() { return droite; }
+    public Operateur getOperateur() { return op; }
+    public String getop() { return op.symbole(); }
 
     @Override
     public String genJava(AnalyseSemantique sem) {
@@ -42,60 +41,64 @@ public class ExpressionBinaire extends Expression {
         String jg = gauche.genJava(sem);
         String jd = droite.genJava(sem);
 
-        java.util.function.Function<String, String> asInt  = s -> "RuntimeSupport.asInt(" + s + ")";
-        java.util.function.Function<String, String> asBool = s -> "RuntimeSupport.asBool(" + s + ")";
-        java.util.function.Function<String, String> asStr  = s -> "RuntimeSupport.asString(" + s + ")";
-
-        // LOGIQUE
-        if ("&&".equals(op) || "||".equals(op)) {
-            if (tg == TypeSimple.INCONNU) jg = asBool.apply(jg);
-            if (td == TypeSimple.INCONNU) jd = asBool.apply(jd);
-            return "(" + jg + " " + op + " " + jd + ")";
-        }
-
-        // ARITH + COMPARE : besoin int
-        if (isArithNoPlus(op) || isCompare(op)) {
-            if (tg == TypeSimple.INCONNU) jg = asInt.apply(jg);
-            if (td == TypeSimple.INCONNU) jd = asInt.apply(jd);
-            return "(" + jg + " " + op + " " + jd + ")";
-        }
+        java.util.function.Function<String, String> asInt  = s -> EmissionContext.appelRuntime(RuntimeHelper.AS_INT, s);
+        java.util.function.Function<String, String> asBool = s -> EmissionContext.appelRuntime(RuntimeHelper.AS_BOOL, s);
+        java.util.function.Function<String, String> asStr  = s -> EmissionContext.appelRuntime(RuntimeHelper.AS_STRING, s);
 
-        // EGALITÉ
-        if ("==".equals(op) || "!=".equals(op)) {
-            boolean useObjectsEquals =
-                    tg == TypeSimple.TEXTE || td == TypeSimple.TEXTE ||
-                            tg == TypeSimple.INCONNU || td == TypeSimple.INCONNU;
+        String sym = op.symbole();
 
-            if (useObjectsEquals) {
-                String eq = "java.util.Objects.equals(" + jg + ", " + jd + ")";
-                return "==".equals(op) ? eq : "!" + eq;
-            }
-
-            // types primitifs mêmes -> == / !=
-            if (tg == td && (tg == TypeSimple.ENTIER || tg == TypeSimple.BOOLEEN || tg == TypeSimple.CARACTERE)) {
-                return "(" + jg + " " + op + " " + jd + ")";
+        switch (op.categorie()) {
+            case LOGIQUE -> {
+                if (tg == TypeSimple.INCONNU) jg = asBool.apply(jg);
+                if (td == TypeSimple.INCONNU) jd = asBool.apply(jd);
+                return "(" + jg + " " + sym + " " + jd + ")";
             }
-
-            // fallback safe
-            String eq = "java.util.Objects.equals(" + jg + ", " + jd + ")";
-            return "==".equals(op) ? eq : "!" + eq;
-        }
-
-        // PLUS : concat / addition / fallback dynamique
-        if ("+".equals(op)) {
-            if (tr == TypeSimple.TEXTE || tg == TypeSimple.TEXTE) {
-                return "(" + asStr.apply(jg) + " + " + asStr.apply(jd) + ")";
-            }
-            if (tr == TypeSimple.ENTIER) {
+            // COMPARE : besoin int
+            case COMPARAISON -> {
                 if (tg == TypeSimple.INCONNU) jg = asInt.apply(jg);
                 if (td == TypeSimple.INCONNU) jd = asInt.apply(jd);
-                return "(" + jg + " + " + jd + ")";
+                return "(" + jg + " " + sym + " " + jd + ")";
+            }
+            // EGALITÉ
+            case EGALITE -> {
+                boolean useObjectsEquals =
+                        tg == TypeSimple.TEXTE || td == TypeSimple.TEXTE ||
+                                tg == TypeSimple.INCONNU || td == TypeSimple.INCONNU;
+
+                // types primitifs mêmes -> == / !=
+                if (!useObjectsEquals && tg == td
+                        && (tg == TypeSimple.ENTIER || tg == TypeSimple.BOOLEEN || tg == TypeSimple.CARACTERE)) {
+                    return "(" + jg + " " + sym + " " + jd + ")";
+                }
+
+                // Objects.equals (+ fallback safe)
+                String eq = "java.util.Objects.equals(" + jg + ", " + jd + ")";
+                return (op == Operateur.EGAL) ? eq : "!" + eq;
+            }
+            case ARITHMETIQUE -> {
+                if (op != Operateur.PLUS) {
+                    if (tg == TypeSimple.INCONNU) jg = asInt.apply(jg);
+                    if (td == TypeSimple.INCONNU) jd = asInt.apply(jd);
+                    return "(" + jg + " " + sym + " " + jd + ")";
+                }
+                // PLUS : concat / addition / fallback dynamique
+                if (tr == TypeSimple.TEXTE || tg == TypeSimple.TEXTE) {
+                    return "(" + asStr.apply(jg) + " + " + asStr.apply(jd) + ")";
+                }
+                if (tr == TypeSimple.ENTIER) {
+                    if (tg == TypeSimple.INCONNU) jg = asInt.apply(jg);
+                    if (td == TypeSimple.INCONNU) jd = asInt.apply(jd);
+                    return "(" + jg + " + " + jd + ")";
+                }
+                // ⚠️ nécessite RuntimeSupport.add(Object,Object)
+                return "RuntimeSupport.add(" + jg + ", " + jd + ")";
+            }
+            default -> {
+                // affectation / incrément : pas attendus ici
             }
-            // ⚠️ nécessite RuntimeSupport.add(Object,Object)
-            return "RuntimeSupport.add(" + jg + ", " + jd + ")";
         }
 
         // fallback : ne pas casser la compilation Java
-        return "(" + jg + " " + op + " " + jd + ")";
+        return "(" + jg + " " + sym + " " + jd + ")";
     }
 }
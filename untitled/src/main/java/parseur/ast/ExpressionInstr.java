@@ -28,7 +28,7 @@ public class ExpressionInstr extends Instruction {
 
         // ✅ Prefix ++/-- (dans ton AST : ExpressionUnaire)
         if (expression instanceof ExpressionUnaire u) {
-            if ("++".equals(u.getOp()) || "--".equals(u.getOp())) {
+            if (u.getOperateur().categorie() == Operateur.Categorie.INCREMENT) {
                 return u.getOp() + u.getExpr().genJava(sem) + ";";
             }
         }
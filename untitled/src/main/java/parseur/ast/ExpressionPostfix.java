@@ -6,19 +6,24 @@ import utils.diag.Position;
 public class ExpressionPostfix extends Expression {
 
     private final Expression expr;
-    private final String op; // "++" ou "--"
+    private final Operateur op; // "++" ou "--"
 
-    public ExpressionPostfix(Position position, Expression expr, String op) {
+    public ExpressionPostfix(Position position, Expression expr, Operateur op) {
         super(position);          // ✅ obligatoire
         this.expr = expr;
         this.op = op;
     }
 
+    public ExpressionPostfix(Position position, Expression expr, String op) {
+        this(position, expr, Operateur.deSymbole(op));
+    }
+
     public Expression getExpr() { return expr; }
-    public String getOp() { return op; }
+    public Operateur getOperateur() { return op; }
+    public String getOp() { return op.symbole(); }
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return "(" + expr.genJava(sem) + op + ")";
+        return "(" + expr.genJava(sem) + op.symbole() + ")";
     }
 }
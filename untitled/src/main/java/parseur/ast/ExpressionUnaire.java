@@ -5,16 +5,21 @@ import utils.diag.Position;
 
 public class ExpressionUnaire extends Expression {
     //private final Position position;
-    private final String op;      // "!"  "-"  "+"  "++"  "--"
+    private final Operateur op;      // "!"  "-"  "+"  "++"  "--"
     private final Expression expr;
 
-    public ExpressionUnaire(Position position, String op, Expression expr) {
-       super(position);
+    public ExpressionUnaire(Position position, Operateur op, Expression expr) {
+        super(position);
         this.op = op;
         this.expr = expr;
     }
 
-    public String getOp() { return op; }
+    public ExpressionUnaire(Position position, String op, Expression expr) {
+        this(position, Operateur.deSymbole(op), expr);
+    }
+
+    public Operateur getOperateur() { return op; }
+    public String getOp() { return op.symbole(); }
     public Expression getExpr() { return expr; }
 
     @Override
@@ -23,6 +28,6 @@ public class ExpressionUnaire extends Expression {
     @Override
     public String genJava(AnalyseSemantique sem) {
         // Java direct (types/casts runtime gérés ailleurs si besoin)
-        return "(" + op + expr.genJava(sem) + ")";
+        return "(" + op.symbole() + expr.genJava(sem) + ")";
     }
 }
@@ -2,6 +2,7 @@ package main.java.parseur.ast;
 
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.lang.Interneur;
 
 import java.util.List;
 
@@ -10,6 +11,10 @@ public class Fonction extends NoeudAst {
     private final List<String> param;
     private final Bloc corps;
 
+    // Ids des paramètres, résolus une fois par interneur (voir Identifiant.symbole)
+    private record SymbolesParams(Interneur interneur, int[] ids) {}
+    private SymbolesParams symbolesParams;
+
     public Fonction(Position pos, String nom, List<String> param, Bloc corps) {
         super(pos);
         this.nom = nom;
@@ -25,6 +30,18 @@ public class Fonction extends NoeudAst {
     public Bloc getCorps() {
         return corps;
     }
+
+    /** Ids des paramètres dans interneur, dans l'ordre (hachés au premier appel seulement). */
+    public int[] symbolesParams(Interneur interneur) {
+        SymbolesParams s = symbolesParams;
+        if (s == null || s.interneur() != interneur) {
+            int[] ids = new int[param.size()];
+            for (int i = 0; i < ids.length; i++) ids[i] = interneur.id(param.get(i));
+            s = new SymbolesParams(interneur, ids);
+            symbolesParams = s;
+        }
+        return s.ids();
+    }
 //    @Override
 //    public String genJava() {
 //        StringBuilder ins = new StringBuilder();
@@ -59,7 +76,8 @@ public String genJava(AnalyseSemantique sem) {
         default        -> "Object";
     };
 
-    // 2) Signature
+    // 2) Signature (+ marque de carte source : vide hors JavaGeneratorOptions.sourceMap)
+    out.append(main.java.codegenerator.EmissionContext.marqueFonction(nom, getPosition()));
     out.append("public static ")
             .append(javaReturnType)
             .append(" ")
@@ -92,9 +110,9 @@ public String genJava(AnalyseSemantique sem) {
     out.append(") {\n");
 
     // 3) Déclarations des variables locales
-    // - ordre stable (TreeMap)
+    // - ordre stable (vue triée par nom, sans copie)
     // - exclure paramètres + variables de boucle
-    var vars = new java.util.TreeMap<>(sem.variablesDe(nom));
+    var vars = sem.variablesDe(nom);
     var loopVars = sem.loopVariablesDe(nom);
 
     for (var entry : vars.entrySet()) {
@@ -118,8 +136,12 @@ public String genJava(AnalyseSemantique sem) {
     }
 
     // 4) Corps
+    int appelsAvant = main.java.codegenerator.EmissionContext.appelsEmis();
+    int bouclesAvant = main.java.codegenerator.EmissionContext.bouclesGardees();
     String corpsJava = corps.genJava(sem);
     if (corpsJava == null) corpsJava = "";
+    boolean appelle = main.java.codegenerator.EmissionContext.appelsEmis() != appelsAvant;
+    boolean boucleGardee = main.java.codegenerator.EmissionContext.bouclesGardees() != bouclesAvant;
 
     corpsJava = corpsJava.trim();
 
@@ -128,6 +150,32 @@ public String genJava(AnalyseSemantique sem) {
         corpsJava = corpsJava.substring(1, corpsJava.length() - 1).trim();
     }
 
+    // 4.b) Gardes d'exécution :
+    // - boucles gardées par itération : compteur local, reporté au global par lots et, pour le reliquat,
+    //   dans le finally (un pour à tours connus est facturé d'avance, sans compteur local) ;
+    // - un pas + profondeur à l'entrée des fonctions qui appellent (récursion, appels en cascade).
+    // Une fonction sans appel ni boucle fait un travail borné (compté par la boucle qui l'appelle)
+    // et n'ajoute qu'un cadre de pile : pas de garde.
+    String indent = "  ";
+    boolean gardePas = appelle && main.java.codegenerator.EmissionContext.gardePasActive();
+    boolean gardeProfondeur = appelle && main.java.codegenerator.EmissionContext.gardeProfondeurActive();
+    if (boucleGardee) {
+        out.append(indent).append("int ").append(main.java.codegenerator.RuntimeSupport.COMPTEUR_LOCAL_GARDE).append(" = 0;\n");
+    }
+    if (gardePas) {
+        out.append(indent).append(main.java.codegenerator.EmissionContext.appelRuntime(
+                main.java.codegenerator.RuntimeHelper.GARDE_PAS, "1")).append(";\n");
+    }
+    if (gardeProfondeur) {
+        out.append(indent).append(main.java.codegenerator.EmissionContext.appelRuntime(
+                main.java.codegenerator.RuntimeHelper.GARDE_ENTREE, "")).append(";\n");
+    }
+    boolean finallyGarde = boucleGardee || gardeProfondeur;
+    if (finallyGarde) {
+        out.append(indent).append("try {\n");
+        indent = "    ";
+    }
+
     if (!corpsJava.isEmpty()) {
         // indentation robuste: on indente chaque ligne non vide
         String[] lines = corpsJava.split("\\R", -1);
@@ -135,12 +183,27 @@ public String genJava(AnalyseSemantique sem) {
             if (line.isBlank()) {
                 out.append("\n");
             } else {
-                out.append("  ").append(line.stripTrailing()).append("\n");
+                out.append(indent).append(line.stripTrailing()).append("\n");
             }
         }
     }
 
+    if (finallyGarde) {
+        out.append("  } finally {\n");
+        if (gardeProfondeur) {
+            out.append("    ").append(main.java.codegenerator.EmissionContext.appelRuntime(
+                    main.java.codegenerator.RuntimeHelper.GARDE_SORTIE, "")).append(";\n");
+        }
+        if (boucleGardee) {
+            out.append("    ").append(main.java.codegenerator.EmissionContext.appelRuntime(
+                    main.java.codegenerator.RuntimeHelper.GARDE_PAS,
+                    main.java.codegenerator.RuntimeSupport.COMPTEUR_LOCAL_GARDE)).append(";\n");
+        }
+        out.append("  }\n");
+    }
+
     out.append("}\n");
+    out.append(main.java.codegenerator.EmissionContext.marqueFin());
     return out.toString();
 }
 
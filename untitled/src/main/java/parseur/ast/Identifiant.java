@@ -2,17 +2,31 @@ package main.java.parseur.ast;
 
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.lang.Interneur;
 
 public class Identifiant extends Expression{
 
     private String nom;
 
+    // Id du nom, résolu une fois par interneur ; un seul objet immuable (AST partagé entre threads)
+    private Interneur.Resolu symbole;
+
     public Identifiant(Position pos, String nom) {
         super(pos);
         this.nom = nom;}
 
     public String getNom() {return nom;}
 
+    /** Id de nom dans interneur (haché au premier appel seulement). */
+    public int symbole(Interneur interneur) {
+        Interneur.Resolu r = symbole;
+        if (r == null || r.interneur() != interneur) {
+            r = new Interneur.Resolu(interneur, interneur.id(nom));
+            symbole = r;
+        }
+        return r.id();
+    }
+
     @Override
     public String genJava(AnalyseSemantique sem) {
         return nom;
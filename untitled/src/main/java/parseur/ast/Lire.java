@@ -1,5 +1,7 @@
 package main.java.parseur.ast;
 
+import main.java.codegenerator.EmissionContext;
+import main.java.codegenerator.RuntimeHelper;
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
 
@@ -11,6 +13,6 @@ public class Lire extends Expression {
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return "lire()";
+        return EmissionContext.appelRuntime(RuntimeHelper.LIRE, "");
     }
 }
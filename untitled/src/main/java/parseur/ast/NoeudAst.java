@@ -3,10 +3,14 @@ package main.java.parseur.ast;
 
 
 import utils.diag.Position;
+import utils.diag.Span;
 
 public abstract class NoeudAst implements Noeud, AvecPosition {
     private final Position position;
 
+    // Renseigné par le parseur une fois le nœud complet (dernier jeton connu).
+    private long span = Span.AUCUN;
+
     protected NoeudAst(Position position) {
         this.position = position;
     }
@@ -15,4 +19,13 @@ public abstract class NoeudAst implements Noeud, AvecPosition {
     public Position getPosition() {
         return position;
     }
+
+    @Override
+    public long getSpan() {
+        return span;
+    }
+
+    public void definirSpan(long span) {
+        this.span = span;
+    }
 }
@@ -0,0 +1,114 @@
+package main.java.parseur.ast;
+
+import main.java.semantic.TypeSimple;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opérateurs du langage, produits une fois par AnaSynt à partir des jetons.
+ *
+ * Métadonnées :
+ * - symbole     : forme source (et Java, identique ici)
+ * - priorite    : plus grand = lie plus fort (même ordre que la chaîne de priorités d'AnaSynt)
+ * - binaire / unaire : un même symbole peut être les deux ("+", "-")
+ * - categorie   : famille utilisée par la sémantique / le codegen pour le dispatch
+ * - typeResultat: type produit quand les opérandes sont valides, null si dépend des opérandes ("+" : ENTIER ou TEXTE)
+ * - base        : pour une affectation composée, l'opérateur binaire appliqué ("+=" -> "+")
+ */
+public enum Operateur {
+
+    // affectation (associative à droite)
+    AFFECTE("=", 1, Categorie.AFFECTATION, true, false, null, null),
+    PLUS_EGAL("+=", 1, Categorie.AFFECTATION, true, false, null, "+"),
+    MOINS_EGAL("-=", 1, Categorie.AFFECTATION, true, false, TypeSimple.ENTIER, "-"),
+    MULT_EGAL("*=", 1, Categorie.AFFECTATION, true, false, TypeSimple.ENTIER, "*"),
+    DIV_EGAL("/=", 1, Categorie.AFFECTATION, true, false, TypeSimple.ENTIER, "/"),
+    MOD_EGAL("%=", 1, Categorie.AFFECTATION, true, false, TypeSimple.ENTIER, "%"),
+
+    // logique
+    OU("||", 2, Categorie.LOGIQUE, true, false, TypeSimple.BOOLEEN, null),
+    ET("&&", 3, Categorie.LOGIQUE, true, false, TypeSimple.BOOLEEN, null),
+
+    // égalité
+    EGAL("==", 4, Categorie.EGALITE, true, false, TypeSimple.BOOLEEN, null),
+    DIFFERENT("!=", 4, Categorie.EGALITE, true, false, TypeSimple.BOOLEEN, null),
+
+    // comparaison
+    INF("<", 5, Categorie.COMPARAISON, true, false, TypeSimple.BOOLEEN, null),
+    INF_EGAL("<=", 5, Categorie.COMPARAISON, true, false, TypeSimple.BOOLEEN, null),
+    SUP(">", 5, Categorie.COMPARAISON, true, false, TypeSimple.BOOLEEN, null),
+    SUP_EGAL(">=", 5, Categorie.COMPARAISON, true, false, TypeSimple.BOOLEEN, null),
+
+    // arithmétique ("+" : addition ou concaténation)
+    PLUS("+", 6, Categorie.ARITHMETIQUE, true, true, null, null),
+    MOINS("-", 6, Categorie.ARITHMETIQUE, true, true, TypeSimple.ENTIER, null),
+    MULT("*", 7, Categorie.ARITHMETIQUE, true, false, TypeSimple.ENTIER, null),
+    DIV("/", 7, Categorie.ARITHMETIQUE, true, false, TypeSimple.ENTIER, null),
+    MOD("%", 7, Categorie.ARITHMETIQUE, true, false, TypeSimple.ENTIER, null),
+
+    // unaires
+    NON("!", 8, Categorie.LOGIQUE, false, true, TypeSimple.BOOLEEN, null),
+    INCR("++", 9, Categorie.INCREMENT, false, true, TypeSimple.ENTIER, null),
+    DECR("--", 9, Categorie.INCREMENT, false, true, TypeSimple.ENTIER, null);
+
+    public enum Categorie {
+        AFFECTATION, LOGIQUE, EGALITE, COMPARAISON, ARITHMETIQUE, INCREMENT
+    }
+
+    private static final Map<String, Operateur> PAR_SYMBOLE = new HashMap<>();
+
+    static {
+        for (Operateur o : values()) PAR_SYMBOLE.put(o.symbole, o);
+    }
+
+    private final String symbole;
+    private final int priorite;
+    private final Categorie categorie;
+    private final boolean binaire;
+    private final boolean unaire;
+    private final TypeSimple typeResultat;
+    private final String symboleBase;
+
+    Operateur(String symbole, int priorite, Categorie categorie, boolean binaire, boolean unaire,
+              TypeSimple typeResultat, String symboleBase) {
+        this.symbole = symbole;
+        this.priorite = priorite;
+        this.categorie = categorie;
+        this.binaire = binaire;
+        this.unaire = unaire;
+        this.typeResultat = typeResultat;
+        this.symboleBase = symboleBase;
+    }
+
+    public String symbole() { return symbole; }
+    public int priorite() { return priorite; }
+    public Categorie categorie() { return categorie; }
+    public boolean estBinaire() { return binaire; }
+    public boolean estUnaire() { return unaire; }
+
+    /** Type produit si les opérandes sont valides ; null si dépend des opérandes. */
+    public TypeSimple typeResultat() { return typeResultat; }
+
+    public boolean estAffectation() { return categorie == Categorie.AFFECTATION; }
+
+    /** "+=" -> PLUS ; null pour "=" et les opérateurs non composés. */
+    public Operateur base() {
+        return (symboleBase == null) ? null : PAR_SYMBOLE.get(symboleBase);
+    }
+
+    /** Opérateur de symbole donné, ou null s'il est inconnu. */
+    public static Operateur depuisSymbole(String symbole) {
+        return (symbole == null) ? null : PAR_SYMBOLE.get(symbole);
+    }
+
+    /** Comme depuisSymbole, mais un symbole inconnu est une erreur. */
+    public static Operateur deSymbole(String symbole) {
+        Operateur o = depuisSymbole(symbole);
+        if (o == null) throw new IllegalArgumentException("Opérateur inconnu : " + symbole);
+        return o;
+    }
+
+    @Override
+    public String toString() { return symbole; }
+}
@@ -2,6 +2,7 @@ package main.java.parseur.ast;
 
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.text.StringEscape;
 
 public class Texte extends Expression {
 
@@ -18,6 +19,7 @@ public class Texte extends Expression {
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return "\"" + valeur.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        // zone privée en \\uXXXX : ces caractères servent de marques de carte source (SourceMap)
+        return "\"" + StringEscape.echapperZonePrivee(valeur.replace("\\", "\\\\").replace("\"", "\\\"")) + "\"";
     }
 }
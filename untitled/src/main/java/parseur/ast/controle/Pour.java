@@ -1,8 +1,11 @@
 package main.java.parseur.ast.controle;
 
+import main.java.codegenerator.AstInspector;
+import main.java.codegenerator.EmissionContext;
 import main.java.parseur.ast.*;
 import main.java.semantic.AnalyseSemantique;
 import utils.diag.Position;
+import utils.lang.Interneur;
 
 /**
  * pour i = [0; 10], +=1   Incrémentation (i croît)
@@ -22,11 +25,18 @@ public class Pour extends Instruction {
     private final String nomVar;
     private final Expression debut;
     private final Expression fin;
-    private final String operateur; // "+=" "-=" "*=" "/=" "%="
+    private final Operateur operateur; // "+=" "-=" "*=" "/=" "%="
     private final Expression pas;
     private final Instruction corps;
 
+    // Id de nomVar, résolu une fois par interneur (voir Identifiant.symbole)
+    private Interneur.Resolu symbole;
+
     public Pour(Position pos, String nomVar, Expression debut, Expression fin, String operateur, Expression pas, Instruction corps) {
+        this(pos, nomVar, debut, fin, Operateur.deSymbole(operateur), pas, corps);
+    }
+
+    public Pour(Position pos, String nomVar, Expression debut, Expression fin, Operateur operateur, Expression pas, Instruction corps) {
         super(pos);
         this.nomVar = nomVar;
         this.debut = debut;
@@ -39,43 +49,61 @@ public class Pour extends Instruction {
     public String getNomVar() { return nomVar; }
     public Expression getDebut() { return debut; }
     public Expression getFin() { return fin; }
-    public String getOperateur() { return operateur; }
+    public Operateur getOperateur() { return operateur; }
+    public String getOp() { return operateur.symbole(); }
     public Expression getPas() { return pas; }
     public Instruction getCorps() { return corps; }
 
+    /** Id de nomVar dans interneur (haché au premier appel seulement). */
+    public int symbole(Interneur interneur) {
+        Interneur.Resolu r = symbole;
+        if (r == null || r.interneur() != interneur) {
+            r = new Interneur.Resolu(interneur, interneur.id(nomVar));
+            symbole = r;
+        }
+        return r.id();
+    }
+
     private String conditionJava(AnalyseSemantique sem) {
         String finStr = fin.genJava(sem);
 
         return switch (operateur) {
             // cas standard
-            case "+=" -> nomVar + " <= " + finStr;
-            case "-=" -> nomVar + " >= " + finStr;
+            case PLUS_EGAL -> nomVar + " <= " + finStr;
+            case MOINS_EGAL -> nomVar + " >= " + finStr;
 
             // choix "raisonnables" mais imparfaits :
             // *= : si le pas est > 1, i augmente donc <= fin.
             // (si pas entre 0 et 1 ça n'existe pas en int)
-            case "*=" -> nomVar + " <= " + finStr;
+            case MULT_EGAL -> nomVar + " <= " + finStr;
 
             // /= : en int, i diminue si pas > 1 donc >= fin
-            case "/=" -> nomVar + " >= " + finStr;
+            case DIV_EGAL -> nomVar + " >= " + finStr;
 
             // %= : pas monotone => on fait une boucle jusqu'à atteindre exactement fin
             // ⚠ risque de boucle infinie si jamais i n'atteint jamais fin
-            case "%=" -> nomVar + " != " + finStr;
+            case MOD_EGAL -> nomVar + " != " + finStr;
 
             default -> throw new RuntimeException("Opérateur de boucle inconnu : " + operateur);
         };
     }
 
     private String miseAJourJava(AnalyseSemantique sem) {
-        return nomVar + " " + operateur + " " + pas.genJava(sem);
+        return nomVar + " " + operateur.symbole() + " " + pas.genJava(sem);
     }
 
     @Override
     public String genJava(AnalyseSemantique sem) {
-        return "for (int " + nomVar + " = " + debut.genJava(sem) + "; " +
+        String entete = "for (int " + nomVar + " = " + debut.genJava(sem) + "; " +
                 conditionJava(sem) + "; " +
-                miseAJourJava(sem) + ") " +
-                corps.genJava(sem);
+                miseAJourJava(sem) + ") ";
+
+        // garde de pas : tours facturés d'avance si leur nombre est fixé à l'entrée, sinon par itération
+        if (EmissionContext.gardePasActive() && AstInspector.toursConnusAEntree(this, sem)) {
+            String pasSigne = (operateur == Operateur.PLUS_EGAL ? "" : "-") + pas.genJava(sem);
+            return "{\n  " + EmissionContext.chargerTours(debut.genJava(sem), fin.genJava(sem), pasSigne) + "\n  "
+                    + entete + corps.genJava(sem).replace("\n", "\n  ") + "\n}";
+        }
+        return entete + EmissionContext.garderCorpsBoucle(corps.genJava(sem));
     }
 }
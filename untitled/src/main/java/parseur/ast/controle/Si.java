@@ -1,5 +1,7 @@
 package main.java.parseur.ast.controle;
 
+import main.java.codegenerator.EmissionContext;
+import main.java.codegenerator.RuntimeHelper;
 import main.java.parseur.ast.Expression;
 import main.java.parseur.ast.Instruction;
 import main.java.semantic.AnalyseSemantique;
@@ -29,7 +31,7 @@ public class Si extends Instruction {
 
         String condJava = condition.genJava(sem);
         if (sem.typeDe(condition) == TypeSimple.INCONNU) {
-            condJava = "RuntimeSupport.asBool(" + condJava + ")";
+            condJava = EmissionContext.appelRuntime(RuntimeHelper.AS_BOOL, condJava);
         }
 
         sb.append("if (").append(condJava).append(") {\n");
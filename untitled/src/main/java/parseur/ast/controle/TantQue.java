@@ -1,5 +1,7 @@
 package main.java.parseur.ast.controle;
 
+import main.java.codegenerator.EmissionContext;
+import main.java.codegenerator.RuntimeHelper;
 import main.java.parseur.ast.Expression;
 import main.java.parseur.ast.Instruction;
 import main.java.semantic.AnalyseSemantique;
@@ -26,14 +28,14 @@ public class TantQue extends Instruction {
 
         String condJava = condition.genJava(sem);
         if (sem.typeDe(condition) == TypeSimple.INCONNU) {
-            condJava = "RuntimeSupport.asBool(" + condJava + ")";
+            condJava = EmissionContext.appelRuntime(RuntimeHelper.AS_BOOL, condJava);
         }
 
         sb.append("while (").append(condJava).append(") ");
 
         // On laisse la responsabilité au corps : s'il génère déjà "{...}" c'est parfait.
         // Sinon on l'encapsule en bloc.
-        String corpsJava = corps.genJava(sem);
+        String corpsJava = EmissionContext.garderCorpsBoucle(corps.genJava(sem));
         String trimmed = (corpsJava == null) ? "" : corpsJava.trim();
 
         if (trimmed.startsWith("{")) {
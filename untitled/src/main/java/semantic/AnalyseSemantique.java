@@ -15,6 +15,8 @@ import  utils.diag.DiagnosticCollector;
 import utils.diag.Position;
 import main.java.semantic.TypeSimple;
 import  main.java.semantic.TableSymboles;
+import utils.lang.IntHashMap;
+import utils.lang.Interneur;
 
 
 import java.util.*;
@@ -29,13 +31,21 @@ import java.util.*;
 public class AnalyseSemantique {
 
     private final DiagnosticCollector diags;
-    // Types d'expressions (clé = objet AST exact)
+    // Types d'expressions (clé = objet AST exact), propres à cette analyse : plusieurs analyses
+    // du même Programme, successives ou concurrentes, ne se marchent pas dessus.
     private final Map<Expression, TypeSimple> typesExpr = new IdentityHashMap<>();
 
 
 
     public AnalyseSemantique(DiagnosticCollector diags) {
+        this(diags, new Interneur());
+    }
+
+    /** interneur : celui de la compilation (partagé avec le lexeur), pour des ids de noms communs. */
+    public AnalyseSemantique(DiagnosticCollector diags, Interneur interneur) {
         this.diags = Objects.requireNonNull(diags, "diags");
+        this.interneur = Objects.requireNonNull(interneur, "interneur");
+        this.ts = new TableSymboles(interneur);
     }
 
     /** Signature complète : arité + types des paramètres + type de retour. */
@@ -57,10 +67,14 @@ public class AnalyseSemantique {
     /** Variables utilisées comme compteurs de boucle par fonction. */
     private final Map<String, Set<String>> loopVarsParFonction = new HashMap<>();
 
-    /** Variables (incluant paramètres) et leurs types par fonction. */
-    private final Map<String, Map<String, TypeSimple>> varsParFonction = new HashMap<>();
+    /** Variables (incluant paramètres) et leurs types par fonction (clé = id interné du nom). */
+    private final Map<String, IntHashMap<TypeSimple>> varsParFonction = new HashMap<>();
+
+    /** Vues de varsParFonction par nom (variablesDe), figées en fin d'analyse de chaque fonction. */
+    private final Map<String, SortedMap<String, TypeSimple>> vuesVariables = new HashMap<>();
 
-    private final TableSymboles ts = new TableSymboles();
+    private final Interneur interneur;
+    private final TableSymboles ts;
 
     private String fonctionCourante = "??";
     private TypeSimple retourCourant = null;
@@ -74,8 +88,27 @@ public class AnalyseSemantique {
         return (sig == null) ? TypeSimple.INCONNU : sig.typeRetour;
     }
 
+    /**
+     * Variables (paramètres compris) de la fonction et leurs types, triées par nom.
+     * Vue en lecture seule construite une fois par fonction analysée : l'émission (parallèle
+     * comprise) peut l'appeler autant qu'elle veut sans copie.
+     */
     public Map<String, TypeSimple> variablesDe(String nomFonction) {
-        return varsParFonction.getOrDefault(nomFonction, Map.of());
+        return vuesVariables.getOrDefault(nomFonction, Collections.emptySortedMap());
+    }
+
+    private SortedMap<String, TypeSimple> vueVariables(IntHashMap<TypeSimple> vars) {
+        TreeMap<String, TypeSimple> out = new TreeMap<>();
+        vars.forEach((sym, t) -> out.put(interneur.nom(sym), t));
+        return Collections.unmodifiableSortedMap(out);
+    }
+
+    public Interneur interneur() {
+        return interneur;
+    }
+
+    private void definirVar(int symbole, TypeSimple t) {
+        varsParFonction.get(fonctionCourante).put(symbole, t);
     }
 
     public Set<String> loopVariablesDe(String nomFonction) {
@@ -88,6 +121,34 @@ public class AnalyseSemantique {
         return Collections.unmodifiableList(sig.typesParams);
     }
 
+    /**
+     * Clé du Java généré pour f (cache par fonction du codegen) : empreinte de l'AST plus tout
+     * ce que l'émission lit de l'analyse (signature, variables locales, compteurs de boucle,
+     * type inféré de chaque expression). null si l'AST contient un noeud non couvert.
+     *
+     * @param positions inclure les positions des instructions (Java porteur d'une carte source)
+     */
+    public String empreinteEmission(Fonction f, boolean positions) {
+        EmpreinteFonction emp = EmpreinteFonction.de(f, positions);
+        if (emp.texte == null) return null;
+
+        String nom = f.getNom();
+        StringBuilder sb = new StringBuilder(emp.texte.length() + 16 + 2 * emp.expressions.size());
+        sb.append(emp.texte);
+        sb.append("|R").append(typeRetourDe(nom));
+        sb.append("|P").append(typesParamsDe(nom));
+        sb.append("|V").append(variablesDe(nom));
+        sb.append("|B").append(new TreeSet<>(loopVariablesDe(nom)));
+        sb.append("|E");
+        for (Expression e : emp.expressions) sb.append((char) ('A' + typeDe(e).ordinal()));
+        return sb.toString();
+    }
+
+    /** Fonctions appelées par f, dans l'ordre de première apparition (arêtes du graphe d'appels). */
+    public Set<String> appelsDe(Fonction f) {
+        return Collections.unmodifiableSet(EmpreinteFonction.de(f).appels);
+    }
+
     /** Type statique inféré d'une expression (rempli pendant verifier()). */
     public TypeSimple typeDe(Expression e) {
         return typesExpr.getOrDefault(e, TypeSimple.INCONNU);
@@ -107,11 +168,34 @@ public class AnalyseSemantique {
         // (optionnel) : si tu veux repartir clean à chaque run
         // diags.vider();
 
+        cache.clear(); // analyse complète : les résultats mis en cache ne sont plus de référence
+        analyser(programme, false);
+    }
+
+    /**
+     * Comme verifier(), mais réutilise les résultats de l'analyse précédente (même instance)
+     * pour chaque fonction dont le corps n'a pas changé ET dont les signatures lues
+     * (la sienne + celles des fonctions appelées) sont identiques à l'entrée.
+     * Le résultat (types, signatures, variables, diagnostics) est celui d'un verifier() complet.
+     *
+     * Les diagnostics ne sont pas vidés : l'appelant fournit un collecteur vide à chaque passe.
+     */
+    public void verifierIncremental(Programme programme) {
+        analyser(programme, true);
+    }
+
+    /** Fonctions réellement (ré)analysées par le dernier appel, dans l'ordre. */
+    public List<String> fonctionsReanalysees() {
+        return Collections.unmodifiableList(reanalysees);
+    }
+
+    private void analyser(Programme programme, boolean incremental) {
         signatures.clear();
         varsParFonction.clear();
+        vuesVariables.clear();
         loopVarsParFonction.clear();
         typesExpr.clear();
-
+        reanalysees.clear();
 
         // Builtins
         signatures.put("lire", new SignatureFonction(0, List.of(), TypeSimple.ENTIER));
@@ -124,6 +208,8 @@ public class AnalyseSemantique {
 
                 if (signatures.containsKey(nom)) {
                     err("Fonction '" + nom + "' redéfinie.", f.getPosition());
+                    incremental = false; // cache indexé par nom : ambigu
+                    cache.clear();
                     continue;
                 }
 
@@ -138,7 +224,13 @@ public class AnalyseSemantique {
         // PASS 2 : analyser les corps (inférence params/vars + retours + arité appels)
         for (Classe c : programme.getClasses()) {
             for (Fonction f : c.getFonctions()) {
-                verifierFonction(f);
+                if (diags.limiteAtteinte()) break;
+                if (incremental) {
+                    verifierFonctionIncrementale(f);
+                } else {
+                    verifierFonction(f);
+                    reanalysees.add(f.getNom());
+                }
             }
         }
 
@@ -147,6 +239,95 @@ public class AnalyseSemantique {
         }
     }
 
+    /* =========================
+         ANALYSE INCRÉMENTALE
+       ========================= */
+
+    /** Signature telle que lue/écrite par l'analyse d'une fonction (valeur, comparable). */
+    private record EtatSignature(List<TypeSimple> typesParams, TypeSimple typeRetour) {}
+
+    /** Résultat réutilisable de l'analyse d'une fonction. */
+    private record EtatFonction(String empreinte,
+                                Map<String, EtatSignature> entree,
+                                Map<String, EtatSignature> sortie,
+                                TypeSimple[] typesExpressions,
+                                IntHashMap<TypeSimple> variables,
+                                SortedMap<String, TypeSimple> vueVariables,
+                                Set<String> variablesBoucle) {}
+
+    /** nom fonction -> dernier résultat sans diagnostic */
+    private final Map<String, EtatFonction> cache = new HashMap<>();
+    private final List<String> reanalysees = new ArrayList<>();
+
+    /*
+     * L'analyse d'une fonction ne dépend que de son corps et des signatures qu'elle consulte
+     * (la sienne et celles de ses appelés, arêtes du graphe d'appels), et n'écrit que dans celles-ci.
+     * Si corps et signatures d'entrée sont inchangés, on rejoue les écritures au lieu de réanalyser ;
+     * un changement de type qui se propage atteint donc exactement les appelants/appelés concernés.
+     */
+    private void verifierFonctionIncrementale(Fonction f) {
+        String nom = f.getNom();
+        EmpreinteFonction emp = EmpreinteFonction.de(f);
+
+        Set<String> lues = new LinkedHashSet<>();
+        lues.add(nom);
+        lues.addAll(emp.appels);
+        Map<String, EtatSignature> entree = etatSignatures(lues);
+
+        EtatFonction precedent = cache.get(nom);
+        if (precedent != null && emp.texte != null
+                && emp.texte.equals(precedent.empreinte()) && entree.equals(precedent.entree())) {
+            rejouer(nom, precedent, emp);
+            return;
+        }
+
+        int diagsAvant = diags.taille() + diags.erreursIgnorees();
+        verifierFonction(f);
+        reanalysees.add(nom);
+
+        // une fonction signalant des diagnostics est toujours réanalysée (positions à jour)
+        if (emp.texte == null || diags.taille() + diags.erreursIgnorees() != diagsAvant) {
+            cache.remove(nom);
+            return;
+        }
+
+        TypeSimple[] types = new TypeSimple[emp.expressions.size()];
+        for (int i = 0; i < types.length; i++) types[i] = typeDe(emp.expressions.get(i));
+
+        cache.put(nom, new EtatFonction(emp.texte, entree, etatSignatures(lues), types,
+                varsParFonction.get(nom), vuesVariables.get(nom), loopVarsParFonction.get(nom)));
+    }
+
+    private void rejouer(String nom, EtatFonction e, EmpreinteFonction emp) {
+        for (Map.Entry<String, EtatSignature> s : e.sortie().entrySet()) {
+            SignatureFonction sig = signatures.get(s.getKey());
+            if (sig == null || s.getValue() == null) continue;
+            sig.typeRetour = s.getValue().typeRetour();
+            for (int i = 0; i < sig.typesParams.size(); i++) {
+                sig.typesParams.set(i, s.getValue().typesParams().get(i));
+            }
+        }
+
+        // mêmes empreintes => listes d'expressions alignées
+        TypeSimple[] types = e.typesExpressions();
+        for (int i = 0; i < types.length; i++) record(emp.expressions.get(i), types[i]);
+
+        // jamais modifiées après coup : une réanalyse de la fonction crée de nouvelles instances
+        varsParFonction.put(nom, e.variables());
+        vuesVariables.put(nom, e.vueVariables());
+        loopVarsParFonction.put(nom, e.variablesBoucle());
+    }
+
+    // null pour un nom inconnu : "fonction inconnue" fait aussi partie de l'entrée
+    private Map<String, EtatSignature> etatSignatures(Set<String> noms) {
+        Map<String, EtatSignature> out = new HashMap<>();
+        for (String n : noms) {
+            SignatureFonction sig = signatures.get(n);
+            out.put(n, (sig == null) ? null : new EtatSignature(List.copyOf(sig.typesParams), sig.typeRetour));
+        }
+        return out;
+    }
+
     /* =========================
            VERIFIER FONCTION
        ========================= */
@@ -155,27 +336,29 @@ public class AnalyseSemantique {
         fonctionCourante = f.getNom();
         retourCourant = null;
 
-        varsParFonction.put(fonctionCourante, new HashMap<>());
+        varsParFonction.put(fonctionCourante, new IntHashMap<>());
         loopVarsParFonction.put(fonctionCourante, new HashSet<>());
 
         ts.entrerPortee();
 
         // 1) Paramètres : commencent en INCONNU (inférence ensuite)
         List<String> params = f.getParam();
-        for (String p : params) {
+        int[] symParams = f.symbolesParams(interneur);
+        for (int i = 0; i < symParams.length; i++) {
             // doublon param
-            if (ts.resoudre(p) != null) {
-                err("Paramètre dupliqué '" + p + "'.", f.getPosition());
+            if (ts.resoudre(symParams[i]) != null) {
+                err("Paramètre dupliqué '" + params.get(i) + "'.", f.getPosition());
                 continue;
             }
-            ts.declarer(p, TypeSimple.INCONNU, true);
-            varsParFonction.get(fonctionCourante).put(p, TypeSimple.INCONNU);
+            ts.declarer(symParams[i], TypeSimple.INCONNU, true);
+            definirVar(symParams[i], TypeSimple.INCONNU);
         }
 
         // 2) Corps
         verifierBloc(f.getCorps());
 
         ts.sortirPortee();
+        vuesVariables.put(fonctionCourante, vueVariables(varsParFonction.get(fonctionCourante)));
 
         // 3) Retour : inféré
         TypeSimple typeRetour = (retourCourant == null) ? TypeSimple.VIDE : retourCourant;
@@ -186,7 +369,8 @@ public class AnalyseSemantique {
             sig.typeRetour = typeRetour;
 
             for (int i = 0; i < params.size() && i < sig.typesParams.size(); i++) {
-                TypeSimple t = varsParFonction.get(fonctionCourante).getOrDefault(params.get(i), TypeSimple.INCONNU);
+                TypeSimple t = varsParFonction.get(fonctionCourante)
+                        .getOrDefault(symParams[i], TypeSimple.INCONNU);
                 // si on a appris un type, on l’enregistre
                 if (sig.typesParams.get(i) == TypeSimple.INCONNU && t != TypeSimple.INCONNU) {
                     sig.typesParams.set(i, t);
@@ -242,18 +426,19 @@ public class AnalyseSemantique {
                 return;
             }
 
-            Symbole s = ts.resoudre(a.getNomVar());
+            int sym = a.symbole(interneur);
+            Symbole s = ts.resoudre(sym);
             if (s == null) {
                 // première affectation => déclaration implicite
-                ts.declarer(a.getNomVar(), tExpr, false);
-                varsParFonction.get(fonctionCourante).put(a.getNomVar(), tExpr);
+                ts.declarer(sym, tExpr, false);
+                definirVar(sym, tExpr);
             } else {
                 TypeSimple tVar = s.getType();
 
                 // INCONNU := connu  -> on apprend
                 if (tVar == TypeSimple.INCONNU && tExpr != TypeSimple.INCONNU) {
                     s.setType(tExpr);
-                    varsParFonction.get(fonctionCourante).put(a.getNomVar(), tExpr);
+                    definirVar(sym, tExpr);
                 }
                 // connu := INCONNU -> ok (on ne sait pas)
                 else if (tVar != TypeSimple.INCONNU && tExpr == TypeSimple.INCONNU) {
@@ -294,7 +479,7 @@ public class AnalyseSemantique {
 
             // si condition = ident INCONNU, on peut l’inférer booléen
             if (tCond == TypeSimple.INCONNU && (s.getCondition() instanceof Identifiant id) && !estConstBool(id)) {
-                infererIdentifiant(id.getNom(), TypeSimple.BOOLEEN, id.getPosition());
+                infererIdentifiant(id, TypeSimple.BOOLEEN);
                 tCond = TypeSimple.BOOLEEN;
             }
 
@@ -311,7 +496,7 @@ public class AnalyseSemantique {
             TypeSimple tCond = typerExpression(tq.getCondition());
 
             if (tCond == TypeSimple.INCONNU && (tq.getCondition() instanceof Identifiant id) && !estConstBool(id)) {
-                infererIdentifiant(id.getNom(), TypeSimple.BOOLEEN, id.getPosition());
+                infererIdentifiant(id, TypeSimple.BOOLEEN);
                 tCond = TypeSimple.BOOLEEN;
             }
 
@@ -326,13 +511,14 @@ public class AnalyseSemantique {
         if (i instanceof Pour p) {
             loopVarsParFonction.get(fonctionCourante).add(p.getNomVar());
 
-            Symbole s = ts.resoudre(p.getNomVar());
+            int sym = p.symbole(interneur);
+            Symbole s = ts.resoudre(sym);
             if (s == null) {
-                ts.declarer(p.getNomVar(), TypeSimple.ENTIER, false);
-                varsParFonction.get(fonctionCourante).put(p.getNomVar(), TypeSimple.ENTIER);
+                ts.declarer(sym, TypeSimple.ENTIER, false);
+                definirVar(sym, TypeSimple.ENTIER);
             } else if (s.getType() == TypeSimple.INCONNU) {
                 s.setType(TypeSimple.ENTIER);
-                varsParFonction.get(fonctionCourante).put(p.getNomVar(), TypeSimple.ENTIER);
+                definirVar(sym, TypeSimple.ENTIER);
             } else if (s.getType() != TypeSimple.ENTIER) {
                 err("Variable de boucle '" + p.getNomVar() + "' doit être ENTIER.", p.getPosition());
             }
@@ -360,8 +546,8 @@ public class AnalyseSemantique {
 
 
 
-    private TypeSimple typeVarCourante(String nom) {
-        Symbole s = ts.resoudre(nom);
+    private TypeSimple typeVarCourante(int symbole) {
+        Symbole s = ts.resoudre(symbole);
         return (s == null) ? TypeSimple.INCONNU : s.getType();
     }
 
@@ -371,18 +557,18 @@ public class AnalyseSemantique {
      *
      * @return type final retenu pour la variable (ou INCONNU si pas déterminable)
      */
-    private TypeSimple appliquerTypeVar(String nomVar, TypeSimple tVoulu, Position pos) {
+    private TypeSimple appliquerTypeVar(int symbole, TypeSimple tVoulu, Position pos) {
         if (tVoulu == TypeSimple.VIDE) {
             err("Impossible d'affecter une expression de type VIDE.", pos);
             return TypeSimple.INCONNU;
         }
 
-        Symbole s = ts.resoudre(nomVar);
+        Symbole s = ts.resoudre(symbole);
 
         if (s == null) {
             // déclaration implicite
-            ts.declarer(nomVar, tVoulu, false);
-            varsParFonction.get(fonctionCourante).put(nomVar, tVoulu);
+            ts.declarer(symbole, tVoulu, false);
+            definirVar(symbole, tVoulu);
             return tVoulu;
         }
 
@@ -390,7 +576,7 @@ public class AnalyseSemantique {
 
         if (tVar == TypeSimple.INCONNU && tVoulu != TypeSimple.INCONNU) {
             s.setType(tVoulu);
-            varsParFonction.get(fonctionCourante).put(nomVar, tVoulu);
+            definirVar(symbole, tVoulu);
             return tVoulu;
         }
 
@@ -410,23 +596,20 @@ public class AnalyseSemantique {
     private void forcerEntierSiPossible(Expression e, TypeSimple t) {
         if (t != TypeSimple.INCONNU) return;
         if (e instanceof Identifiant id && !estConstBool(id)) {
-            infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+            infererIdentifiant(id, TypeSimple.ENTIER);
         }
     }
 
 
 
 
-    private static boolean estOpAffectation(String op) {
-        return "=".equals(op) || "+=".equals(op) || "-=".equals(op)
-                || "*=".equals(op) || "/=".equals(op) || "%=".equals(op);
-    }
-
     /**
      * Applique une affectation (instruction ou expression) sur une variable.
      * Retourne le type de l'expression d'affectation.
      */
-    private TypeSimple appliquerAffectation(String nomVar, String op, Expression rhs, Position pos) {
+    private TypeSimple appliquerAffectation(Identifiant cible, Operateur op, Expression rhs, Position pos) {
+        String nomVar = cible.getNom();
+        int symbole = cible.symbole(interneur);
         TypeSimple tRhs = typerExpression(rhs);
 
         if (tRhs == TypeSimple.VIDE) {
@@ -434,27 +617,27 @@ public class AnalyseSemantique {
             return TypeSimple.INCONNU;
         }
 
-        Symbole s = ts.resoudre(nomVar);
+        Symbole s = ts.resoudre(symbole);
 
         // variable inexistante : autorisé seulement pour "=" (déclaration implicite)
         if (s == null) {
-            if (!"=".equals(op)) {
+            if (op != Operateur.AFFECTE) {
                 err("Affectation composée '" + op + "' interdite sur variable non déclarée : " + nomVar, pos);
                 return TypeSimple.INCONNU;
             }
-            ts.declarer(nomVar, tRhs, false);
-            varsParFonction.get(fonctionCourante).put(nomVar, tRhs);
+            ts.declarer(symbole, tRhs, false);
+            definirVar(symbole, tRhs);
             return tRhs;
         }
 
         TypeSimple tVar = s.getType();
 
         // Affectations composées : pour l’instant on force ENTIER (sauf += si tu veux concat plus tard)
-        if (!"=".equals(op)) {
+        if (op != Operateur.AFFECTE) {
             // Force la variable ENTIER si inconnue
             if (tVar == TypeSimple.INCONNU) {
                 s.setType(TypeSimple.ENTIER);
-                varsParFonction.get(fonctionCourante).put(nomVar, TypeSimple.ENTIER);
+                definirVar(symbole, TypeSimple.ENTIER);
                 tVar = TypeSimple.ENTIER;
             } else if (tVar != TypeSimple.ENTIER) {
                 err("Affectation composée '" + op + "' attend variable ENTIER, trouvé : " + tVar, pos);
@@ -462,7 +645,7 @@ public class AnalyseSemantique {
 
             // Force RHS ENTIER si ident inconnu
             if (tRhs == TypeSimple.INCONNU && rhs instanceof Identifiant id && !estConstBool(id)) {
-                infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+                infererIdentifiant(id, TypeSimple.ENTIER);
                 tRhs = TypeSimple.ENTIER;
             } else if (tRhs != TypeSimple.INCONNU && tRhs != TypeSimple.ENTIER) {
                 err("Affectation composée '" + op + "' attend RHS ENTIER, trouvé : " + tRhs, pos);
@@ -474,7 +657,7 @@ public class AnalyseSemantique {
         // "=" : apprentissage classique
         if (tVar == TypeSimple.INCONNU && tRhs != TypeSimple.INCONNU) {
             s.setType(tRhs);
-            varsParFonction.get(fonctionCourante).put(nomVar, tRhs);
+            definirVar(symbole, tRhs);
             return tRhs;
         }
 
@@ -500,7 +683,7 @@ public class AnalyseSemantique {
         if (e instanceof Identifiant id) {
             if (estConstBool(id)) return record(e, TypeSimple.BOOLEEN);
 
-            Symbole s = ts.resoudre(id.getNom());
+            Symbole s = ts.resoudre(id.symbole(interneur));
             if (s == null) {
                 err("Identifiant '" + id.getNom() + "' utilisé avant affectation.", id.getPosition());
                 return record(e, TypeSimple.INCONNU);
@@ -540,10 +723,10 @@ public class AnalyseSemantique {
         }
 
         if (e instanceof ExpressionBinaire b) {
-            String op = b.getop();
+            Operateur op = b.getOperateur();
 
             // ✅ 1) AFFECTATIONS (=, +=, -=, *=, /=, %=)
-            if (estOpAffectation(op)) {
+            if (op.estAffectation()) {
 
                 // LHS doit être un identifiant (l-value)
                 if (!(b.getGauche() instanceof Identifiant id) || estConstBool(id)) {
@@ -559,12 +742,12 @@ public class AnalyseSemantique {
                     return record(e, TypeSimple.INCONNU);
                 }
 
-                String nom = id.getNom();
-                TypeSimple tVarAvant = typeVarCourante(nom);
+                int symbole = id.symbole(interneur);
+                TypeSimple tVarAvant = typeVarCourante(symbole);
 
                 // ===== "=" =====
-                if ("=".equals(op)) {
-                    TypeSimple tFinal = appliquerTypeVar(nom, tDroite, b.getPosition());
+                if (op == Operateur.AFFECTE) {
+                    TypeSimple tFinal = appliquerTypeVar(symbole, tDroite, b.getPosition());
                     // on enregistre aussi le type de l'identifiant en tant qu'expression
                     record(id, tFinal);
                     return record(e, tFinal);
@@ -572,10 +755,11 @@ public class AnalyseSemantique {
 
                 // ===== op composé =====
                 // pour "-=, *=, /=, %=" => ENTIER obligatoire
-                if ("-=".equals(op) || "*=".equals(op) || "/=".equals(op) || "%=".equals(op)) {
+                if (op == Operateur.MOINS_EGAL || op == Operateur.MULT_EGAL
+                        || op == Operateur.DIV_EGAL || op == Operateur.MOD_EGAL) {
                     // si la var est inconnue, on la force ENTIER
                     if (tVarAvant == TypeSimple.INCONNU) {
-                        tVarAvant = appliquerTypeVar(nom, TypeSimple.ENTIER, b.getPosition());
+                        tVarAvant = appliquerTypeVar(symbole, TypeSimple.ENTIER, b.getPosition());
                     }
                     if (tVarAvant != TypeSimple.ENTIER && tVarAvant != TypeSimple.INCONNU) {
                         err("Opérateur '" + op + "' nécessite une variable ENTIER.", b.getPosition());
@@ -589,19 +773,19 @@ public class AnalyseSemantique {
                         err("Opérateur '" + op + "' attend ENTIER à droite, trouvé : " + tDroite, b.getPosition());
                     }
 
-                    TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.ENTIER, b.getPosition());
+                    TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.ENTIER, b.getPosition());
                     record(id, tFinal);
                     return record(e, tFinal);
                 }
 
                 // ===== "+=" =====
                 // Ici : soit ENTIER+ENTIER, soit concat si variable TEXTE.
-                if ("+=".equals(op)) {
+                if (op == Operateur.PLUS_EGAL) {
 
                     // Si variable déjà TEXTE => concat ok (droite peut être TEXTE/ENTIER/... sauf VIDE)
                     if (tVarAvant == TypeSimple.TEXTE) {
                         // RHS VIDE déjà exclu
-                        TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.TEXTE, b.getPosition());
+                        TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.TEXTE, b.getPosition());
                         record(id, tFinal);
                         return record(e, tFinal);
                     }
@@ -609,19 +793,19 @@ public class AnalyseSemantique {
                     // Si variable inconnue : on décide selon RHS
                     if (tVarAvant == TypeSimple.INCONNU) {
                         if (tDroite == TypeSimple.TEXTE) {
-                            TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.TEXTE, b.getPosition());
+                            TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.TEXTE, b.getPosition());
                             record(id, tFinal);
                             return record(e, tFinal);
                         }
                         // par défaut : on choisit ENTIER si on peut
                         if (tDroite == TypeSimple.ENTIER || tDroite == TypeSimple.INCONNU) {
                             if (tDroite == TypeSimple.INCONNU) forcerEntierSiPossible(b.getDroite(), tDroite);
-                            TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.ENTIER, b.getPosition());
+                            TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.ENTIER, b.getPosition());
                             record(id, tFinal);
                             return record(e, tFinal);
                         }
                         err("'+=' invalide : type à droite incompatible : " + tDroite, b.getPosition());
-                        TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.INCONNU, b.getPosition());
+                        TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.INCONNU, b.getPosition());
                         record(id, tFinal);
                         return record(e, TypeSimple.INCONNU);
                     }
@@ -636,7 +820,7 @@ public class AnalyseSemantique {
                             return record(e, TypeSimple.INCONNU);
                         }
 
-                        TypeSimple tFinal = appliquerTypeVar(nom, TypeSimple.ENTIER, b.getPosition());
+                        TypeSimple tFinal = appliquerTypeVar(symbole, TypeSimple.ENTIER, b.getPosition());
                         record(id, tFinal);
                         return record(e, tFinal);
                     }
@@ -658,53 +842,52 @@ public class AnalyseSemantique {
             g = infereSelonContexte(op, b.getGauche(), g, d);
             d = infereSelonContexte(op, b.getDroite(), d, g);
 
-            // +
-            if ("+".equals(op)) {
-                if (g == TypeSimple.TEXTE) {
-                    if (d == TypeSimple.VIDE) {
-                        err("Concaténation invalide : TEXTE + VIDE.", b.getPosition());
+            switch (op.categorie()) {
+                case ARITHMETIQUE -> {
+                    // +
+                    if (op == Operateur.PLUS) {
+                        if (g == TypeSimple.TEXTE) {
+                            if (d == TypeSimple.VIDE) {
+                                err("Concaténation invalide : TEXTE + VIDE.", b.getPosition());
+                                return record(e, TypeSimple.INCONNU);
+                            }
+                            return record(e, TypeSimple.TEXTE);
+                        }
+                        if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.ENTIER);
+                        if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
+                        err("Addition invalide : '" + g + " + " + d + "'.", b.getPosition());
                         return record(e, TypeSimple.INCONNU);
                     }
-                    return record(e, TypeSimple.TEXTE);
-                }
-                if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.ENTIER);
-                if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
-                err("Addition invalide : '" + g + " + " + d + "'.", b.getPosition());
-                return record(e, TypeSimple.INCONNU);
-            }
 
-            // arith
-            if ("-".equals(op) || "*".equals(op) || "/".equals(op) || "%".equals(op)) {
-                if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.ENTIER);
-                if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
-                err("Opérateur '" + op + "' attend ENTIER,ENTIER.", b.getPosition());
-                return record(e, TypeSimple.INCONNU);
-            }
-
-            // compare
-            if ("<".equals(op) || "<=".equals(op) || ">".equals(op) || ">=".equals(op)) {
-                if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.BOOLEEN);
-                if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
-                err("Comparaison '" + op + "' attend ENTIER,ENTIER.", b.getPosition());
-                return record(e, TypeSimple.INCONNU);
-            }
-
-            // == !=
-            if ("==".equals(op) || "!=".equals(op)) {
-                if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.BOOLEEN);
-                if (g != d) {
-                    err("Test '" + op + "' attend deux opérandes du même type.", b.getPosition());
+                    // - * / %
+                    if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.ENTIER);
+                    if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
+                    err("Opérateur '" + op + "' attend ENTIER,ENTIER.", b.getPosition());
                     return record(e, TypeSimple.INCONNU);
                 }
-                return record(e, TypeSimple.BOOLEEN);
-            }
-
-            // logique
-            if ("&&".equals(op) || "||".equals(op)) {
-                if (g == TypeSimple.BOOLEEN && d == TypeSimple.BOOLEEN) return record(e, TypeSimple.BOOLEEN);
-                if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.BOOLEEN);
-                err("Opérateur logique '" + op + "' attend BOOLEEN,BOOLEEN.", b.getPosition());
-                return record(e, TypeSimple.INCONNU);
+                case COMPARAISON -> {
+                    if (g == TypeSimple.ENTIER && d == TypeSimple.ENTIER) return record(e, TypeSimple.BOOLEEN);
+                    if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.INCONNU);
+                    err("Comparaison '" + op + "' attend ENTIER,ENTIER.", b.getPosition());
+                    return record(e, TypeSimple.INCONNU);
+                }
+                case EGALITE -> {
+                    if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.BOOLEEN);
+                    if (g != d) {
+                        err("Test '" + op + "' attend deux opérandes du même type.", b.getPosition());
+                        return record(e, TypeSimple.INCONNU);
+                    }
+                    return record(e, TypeSimple.BOOLEEN);
+                }
+                case LOGIQUE -> {
+                    if (g == TypeSimple.BOOLEEN && d == TypeSimple.BOOLEEN) return record(e, TypeSimple.BOOLEEN);
+                    if (g == TypeSimple.INCONNU || d == TypeSimple.INCONNU) return record(e, TypeSimple.BOOLEEN);
+                    err("Opérateur logique '" + op + "' attend BOOLEEN,BOOLEEN.", b.getPosition());
+                    return record(e, TypeSimple.INCONNU);
+                }
+                default -> {
+                    // incrément : pas un opérateur binaire
+                }
             }
 
             err("Opérateur binaire inconnu : " + op, b.getPosition());
@@ -716,18 +899,18 @@ public class AnalyseSemantique {
                 TypeSimple t = typerExpression(a.getValeur());
                 return record(e, (t == TypeSimple.VIDE) ? TypeSimple.INCONNU : t);
             }
-            TypeSimple t = appliquerAffectation(id.getNom(), a.getOp(), a.getValeur(), a.getPosition());
+            TypeSimple t = appliquerAffectation(id, a.getOperateur(), a.getValeur(), a.getPosition());
             record(id, t); // utile : l'identifiant a maintenant un type
             return record(e, t);
         }
         if (e instanceof ExpressionUnaire u) {
-            String op = u.getOp();
+            Operateur op = u.getOperateur();
             Expression inner = u.getExpr();
             TypeSimple t = typerExpression(inner);
 
-            if ("!".equals(op)) {
+            if (op == Operateur.NON) {
                 if (t == TypeSimple.INCONNU && inner instanceof Identifiant id && !estConstBool(id)) {
-                    infererIdentifiant(id.getNom(), TypeSimple.BOOLEEN, id.getPosition());
+                    infererIdentifiant(id, TypeSimple.BOOLEEN);
                     t = TypeSimple.BOOLEEN;
                 }
                 if (t != TypeSimple.BOOLEEN && t != TypeSimple.INCONNU) {
@@ -736,9 +919,9 @@ public class AnalyseSemantique {
                 return record(e, TypeSimple.BOOLEEN);
             }
 
-            if ("-".equals(op) || "+".equals(op)) {
+            if (op == Operateur.MOINS || op == Operateur.PLUS) {
                 if (t == TypeSimple.INCONNU && inner instanceof Identifiant id && !estConstBool(id)) {
-                    infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+                    infererIdentifiant(id, TypeSimple.ENTIER);
                     t = TypeSimple.ENTIER;
                 }
                 if (t != TypeSimple.ENTIER && t != TypeSimple.INCONNU) {
@@ -747,13 +930,13 @@ public class AnalyseSemantique {
                 return record(e, TypeSimple.ENTIER);
             }
 
-            if ("++".equals(op) || "--".equals(op)) {
+            if (op.categorie() == Operateur.Categorie.INCREMENT) {
                 if (!(inner instanceof Identifiant id) || estConstBool(id)) {
                     err("'" + op + "' attend un identifiant modifiable.", u.getPosition());
                     return record(e, TypeSimple.INCONNU);
                 }
-                infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
-                TypeSimple tv = typeVarCourante(id.getNom());
+                infererIdentifiant(id, TypeSimple.ENTIER);
+                TypeSimple tv = typeVarCourante(id.symbole(interneur));
                 if (tv != TypeSimple.ENTIER && tv != TypeSimple.INCONNU) {
                     err("'" + op + "' attend ENTIER, trouvé : " + tv, u.getPosition());
                 }
@@ -768,8 +951,8 @@ public class AnalyseSemantique {
                 err("'" + p.getOp() + "' postfix attend un identifiant modifiable.", p.getPosition());
                 return record(e, TypeSimple.INCONNU);
             }
-            infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
-            TypeSimple tv = typeVarCourante(id.getNom());
+            infererIdentifiant(id, TypeSimple.ENTIER);
+            TypeSimple tv = typeVarCourante(id.symbole(interneur));
             if (tv != TypeSimple.ENTIER && tv != TypeSimple.INCONNU) {
                 err("'" + p.getOp() + "' attend ENTIER, trouvé : " + tv, p.getPosition());
             }
@@ -795,7 +978,10 @@ public class AnalyseSemantique {
         if (t == TypeSimple.ENTIER) return;
 
         if (t == TypeSimple.INCONNU && e instanceof Identifiant id && !estConstBool(id)) {
-            infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+            infererIdentifiant(id, TypeSimple.ENTIER);
+            // le noeud suit son symbole (typeDe cohérent avec la déclaration Java émise)
+            Symbole s = ts.resoudre(id.symbole(interneur));
+            if (s != null && s.getType() == TypeSimple.ENTIER) record(e, TypeSimple.ENTIER);
             return;
         }
 
@@ -808,16 +994,16 @@ public class AnalyseSemantique {
      * Infère un identifiant INCONNU vers un type attendu.
      * Si déjà typé différemment, diag.
      */
-    private void infererIdentifiant(String nom, TypeSimple attendu, Position pos) {
-        Symbole s = ts.resoudre(nom);
+    private void infererIdentifiant(Identifiant id, TypeSimple attendu) {
+        Symbole s = ts.resoudre(id.symbole(interneur));
         if (s == null) return;
 
         TypeSimple actuel = s.getType();
         if (actuel == TypeSimple.INCONNU && attendu != TypeSimple.INCONNU) {
             s.setType(attendu);
-            varsParFonction.get(fonctionCourante).put(nom, attendu);
+            definirVar(id.symbole(interneur), attendu);
         } else if (actuel != TypeSimple.INCONNU && attendu != TypeSimple.INCONNU && actuel != attendu) {
-            err("Type incompatible pour '" + nom + "' : attendu " + attendu + ", trouvé " + actuel, pos);
+            err("Type incompatible pour '" + id.getNom() + "' : attendu " + attendu + ", trouvé " + actuel, id.getPosition());
         }
     }
 
@@ -828,42 +1014,44 @@ public class AnalyseSemantique {
      *  - == != => si autre côté connu, on pousse le même type
      *  - + => si l’autre côté TEXTE/BOOLEEN/CARACTERE => TEXTE ; si l’autre ENTIER => ENTIER (choix add par défaut)
      */
-    private TypeSimple infereSelonContexte(String op, Expression expr, TypeSimple tExpr, TypeSimple tAutre) {
+    private TypeSimple infereSelonContexte(Operateur op, Expression expr, TypeSimple tExpr, TypeSimple tAutre) {
         if (tExpr != TypeSimple.INCONNU) return tExpr;
         if (!(expr instanceof Identifiant id) || estConstBool(id)) return tExpr;
 
-        if ("&&".equals(op) || "||".equals(op)) {
-            infererIdentifiant(id.getNom(), TypeSimple.BOOLEEN, id.getPosition());
+        Operateur.Categorie cat = op.categorie();
+
+        if (cat == Operateur.Categorie.LOGIQUE) {
+            infererIdentifiant(id, TypeSimple.BOOLEEN);
             return TypeSimple.BOOLEEN;
         }
 
-        if ("-".equals(op) || "*".equals(op) || "/".equals(op) || "%".equals(op)
-                || "<".equals(op) || "<=".equals(op) || ">".equals(op) || ">=".equals(op)) {
-            infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+        if ((cat == Operateur.Categorie.ARITHMETIQUE && op != Operateur.PLUS)
+                || cat == Operateur.Categorie.COMPARAISON) {
+            infererIdentifiant(id, TypeSimple.ENTIER);
             return TypeSimple.ENTIER;
         }
 
-        if ("==".equals(op) || "!=".equals(op)) {
+        if (cat == Operateur.Categorie.EGALITE) {
             if (tAutre != TypeSimple.INCONNU && tAutre != TypeSimple.VIDE) {
-                infererIdentifiant(id.getNom(), tAutre, id.getPosition());
+                infererIdentifiant(id, tAutre);
                 return tAutre;
             }
             return TypeSimple.INCONNU;
         }
 
-        if ("+".equals(op)) {
+        if (op == Operateur.PLUS) {
             if (tAutre == TypeSimple.TEXTE) {
-                infererIdentifiant(id.getNom(), TypeSimple.TEXTE, id.getPosition());
+                infererIdentifiant(id, TypeSimple.TEXTE);
                 return TypeSimple.TEXTE;
             }
             if (tAutre == TypeSimple.BOOLEEN || tAutre == TypeSimple.CARACTERE) {
                 // ENTIER + BOOLEEN interdit => on force concat
-                infererIdentifiant(id.getNom(), TypeSimple.TEXTE, id.getPosition());
+                infererIdentifiant(id, TypeSimple.TEXTE);
                 return TypeSimple.TEXTE;
             }
             if (tAutre == TypeSimple.ENTIER) {
                 // choix : + par défaut en addition si l'autre est ENTIER
-                infererIdentifiant(id.getNom(), TypeSimple.ENTIER, id.getPosition());
+                infererIdentifiant(id, TypeSimple.ENTIER);
                 return TypeSimple.ENTIER;
             }
         }
@@ -0,0 +1,174 @@
+package main.java.semantic;
+
+import main.java.parseur.ast.*;
+import main.java.parseur.ast.controle.Pour;
+import main.java.parseur.ast.controle.Si;
+import main.java.parseur.ast.controle.TantQue;
+import utils.diag.Position;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Empreinte structurelle d'une fonction, pour l'analyse incrémentale :
+ * - texte canonique de l'AST SANS les positions (déplacer une fonction ne la rend pas "modifiée") ;
+ * - expressions en pré-ordre : deux fonctions de même empreinte ont des listes alignées 1 pour 1 ;
+ * - noms des fonctions appelées (arêtes du graphe d'appels).
+ *
+ * Variante avec positions (de(f, true)) : clé du Java généré quand il porte une carte source.
+ *
+ * Un nœud inconnu du parcours rend l'empreinte nulle : la fonction est alors toujours réanalysée.
+ */
+final class EmpreinteFonction {
+
+    final String texte;
+    final List<Expression> expressions;
+    final Set<String> appels;
+
+    private final StringBuilder sb = new StringBuilder(256);
+    private final List<Expression> exprs = new ArrayList<>();
+    private final Set<String> appeles = new LinkedHashSet<>();
+    private final boolean positions;
+    private boolean complet = true;
+
+    private EmpreinteFonction(Fonction f, boolean positions) {
+        this.positions = positions;
+        position(f.getPosition());
+        chaine(f.getNom());
+        sb.append('(');
+        for (String p : f.getParam()) chaine(p);
+        sb.append(')');
+        instruction(f.getCorps());
+
+        this.texte = complet ? sb.toString() : null;
+        this.expressions = exprs;
+        this.appels = appeles;
+    }
+
+    static EmpreinteFonction de(Fonction f) {
+        return new EmpreinteFonction(f, false);
+    }
+
+    static EmpreinteFonction de(Fonction f, boolean positions) {
+        return new EmpreinteFonction(f, positions);
+    }
+
+    /* =========================
+             INSTRUCTIONS
+       ========================= */
+
+    private void instruction(Instruction i) {
+        if (i != null) position(i.getPosition());
+        if (i == null) {
+            sb.append('_');
+        } else if (i instanceof Bloc b) {
+            sb.append("B{");
+            for (Instruction x : b.getInstructions()) instruction(x);
+            sb.append('}');
+        } else if (i instanceof Affiche a) {
+            sb.append(a.isNewline() ? "AL(" : "A(");
+            for (Expression e : a.getExpressions()) expression(e);
+            sb.append(')');
+        } else if (i instanceof AppelFonctionInstr afi) {
+            sb.append("AI");
+            expression(afi.getAppel());
+        } else if (i instanceof Affectation a) {
+            sb.append("=").append(a.getOp());
+            chaine(a.getNomVar());
+            expression(a.getExpression());
+        } else if (i instanceof Retourne r) {
+            sb.append('R');
+            expression(r.getExpression());
+        } else if (i instanceof Si s) {
+            sb.append("SI");
+            expression(s.getCondition());
+            instruction(s.getAlorsInstr());
+            instruction(s.getSinonInstr());
+        } else if (i instanceof TantQue tq) {
+            sb.append("TQ");
+            expression(tq.getCondition());
+            instruction(tq.getCorps());
+        } else if (i instanceof Pour p) {
+            sb.append("P").append(p.getOp());
+            chaine(p.getNomVar());
+            expression(p.getDebut());
+            expression(p.getFin());
+            expression(p.getPas());
+            instruction(p.getCorps());
+        } else if (i instanceof ExpressionInstr ei) {
+            sb.append("EI");
+            expression(ei.getExpression());
+        } else {
+            complet = false;
+        }
+    }
+
+    /* =========================
+             EXPRESSIONS
+       ========================= */
+
+    private void expression(Expression e) {
+        if (e == null) {
+            sb.append('_');
+            return;
+        }
+        exprs.add(e);
+
+        if (e instanceof Nombre n) {
+            sb.append('N').append(n.getValeur()).append(';');
+        } else if (e instanceof Texte t) {
+            sb.append('T');
+            chaine(t.getValeur());
+        } else if (e instanceof Caractere c) {
+            sb.append('C').append((int) c.getValeur()).append(';');
+        } else if (e instanceof Lire) {
+            sb.append('L');
+        } else if (e instanceof Identifiant id) {
+            sb.append('I');
+            chaine(id.getNom());
+        } else if (e instanceof AppelFonction a) {
+            appeles.add(a.getNom());
+            sb.append("F");
+            chaine(a.getNom());
+            sb.append('(');
+            for (Expression arg : a.getArgs()) expression(arg);
+            sb.append(')');
+        } else if (e instanceof ExpressionBinaire b) {
+            sb.append("2").append(b.getop()).append('(');
+            expression(b.getGauche());
+            expression(b.getDroite());
+            sb.append(')');
+        } else if (e instanceof ExpressionAffectation a) {
+            sb.append("A").append(a.getOp()).append('(');
+            expression(a.getCible());
+            expression(a.getValeur());
+            sb.append(')');
+        } else if (e instanceof ExpressionUnaire u) {
+            sb.append("1").append(u.getOp()).append('(');
+            expression(u.getExpr());
+            sb.append(')');
+        } else if (e instanceof ExpressionPostfix p) {
+            sb.append("9").append(p.getOp()).append('(');
+            expression(p.getExpr());
+            sb.append(')');
+        } else {
+            complet = false;
+        }
+    }
+
+    private void position(Position p) {
+        if (!positions || p == null) return;
+        sb.append('@').append(p.ligne()).append(':').append(p.colonne()).append(';');
+    }
+
+    // Préfixe de longueur : aucune ambiguïté quel que soit le contenu.
+    private void chaine(String s) {
+        if (s == null) {
+            sb.append("-;");
+            return;
+        }
+        sb.append(s.length()).append(':').append(s);
+    }
+}
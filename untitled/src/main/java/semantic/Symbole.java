@@ -8,6 +8,10 @@ public class Symbole {
     private TypeSimple type;            // <-- plus final (pour l'inférence)
     private final boolean estParametre;
 
+    // Chaînage de masquage, géré par TableSymboles (même nom, portée englobante)
+    Symbole masque;
+    int profondeur;
+
     public Symbole(String nom, TypeSimple type, boolean estParametre) {
         this.nom = Objects.requireNonNull(nom, "nom");
         this.type = Objects.requireNonNull(type, "type");
@@ -1,36 +1,92 @@
 package main.java.semantic;
 
 
+import utils.lang.Interneur;
+
 import java.util.*;
 
+/**
+ * Table des portées "à plat" :
+ * - tetes[id] = déclaration visible du nom (id interné), chaînée aux déclarations masquées ;
+ * - journal  = ids déclarés, dans l'ordre (pile d'annulation) ;
+ * - marques  = taille du journal à l'entrée de chaque portée.
+ *
+ * entrerPortee/sortirPortee n'allouent rien (sauf agrandissement des tableaux) ;
+ * resoudre est un accès tableau, quelle que soit la profondeur d'imbrication.
+ */
 public class TableSymboles {
 
-    private final Deque<Map<String, Symbole>> pile = new ArrayDeque<>();
+    private final Interneur interneur;
+
+    private Symbole[] tetes = new Symbole[64];
+    private int[] journal = new int[64];
+    private int tailleJournal;
+    private int[] marques = new int[16];
+    private int profondeur = -1;
 
     public TableSymboles() {
+        this(new Interneur());
+    }
+
+    public TableSymboles(Interneur interneur) {
+        this.interneur = Objects.requireNonNull(interneur, "interneur");
         entrerPortee(); // portée globale
     }
 
+    public Interneur interneur() {
+        return interneur;
+    }
+
     public void entrerPortee() {
-        pile.push(new HashMap<>());
+        profondeur++;
+        if (profondeur == marques.length) marques = Arrays.copyOf(marques, profondeur * 2);
+        marques[profondeur] = tailleJournal;
     }
 
     public void sortirPortee() {
-        pile.pop();
+        if (profondeur < 0) throw new IllegalStateException("sortirPortee sans portée ouverte");
+        int marque = marques[profondeur];
+        // annule les déclarations de la portée : la déclaration masquée redevient visible
+        while (tailleJournal > marque) {
+            int id = journal[--tailleJournal];
+            tetes[id] = tetes[id].masque;
+        }
+        profondeur--;
     }
 
     public void declarer(String nom, TypeSimple type, boolean estParametre) {
-        Map<String, Symbole> scope = pile.peek();
-        if (scope.containsKey(nom)) {
+        declarer(interneur.id(nom), type, estParametre);
+    }
+
+    public void declarer(int symbole, TypeSimple type, boolean estParametre) {
+        if (symbole >= tetes.length) tetes = Arrays.copyOf(tetes, Math.max(symbole + 1, tetes.length * 2));
+        String nom = interneur.nom(symbole);
+
+        Symbole tete = tetes[symbole];
+        if (tete != null && tete.profondeur == profondeur) {
             throw new RuntimeException("Erreur sémantique : '" + nom + "' déjà déclaré dans cette portée.");
         }
-        scope.put(nom, new Symbole(nom, type, estParametre));
+
+        Symbole s = new Symbole(nom, type, estParametre);
+        s.masque = tete;
+        s.profondeur = profondeur;
+        tetes[symbole] = s;
+
+        if (tailleJournal == journal.length) journal = Arrays.copyOf(journal, tailleJournal * 2);
+        journal[tailleJournal++] = symbole;
     }
 
     public Symbole resoudre(String nom) {
-        for (Map<String, Symbole> scope : pile) {
-            if (scope.containsKey(nom)) return scope.get(nom);
-        }
-        return null;
+        int symbole = interneur.chercher(nom);
+        return (symbole == Interneur.AUCUN) ? null : resoudre(symbole);
+    }
+
+    public Symbole resoudre(int symbole) {
+        return (symbole >= 0 && symbole < tetes.length) ? tetes[symbole] : null;
+    }
+
+    /** Profondeur courante (0 = portée globale). */
+    public int profondeur() {
+        return profondeur;
     }
 }
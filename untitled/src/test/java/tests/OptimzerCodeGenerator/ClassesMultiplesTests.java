@@ -0,0 +1,163 @@
+package tests.OptimzerCodeGenerator;
+
+import main.java.codegenerator.FunctionCache;
+import main.java.codegenerator.GenerationResult;
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tests.TestTools;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClassesMultiplesTests {
+
+    private static final String SOURCE = """
+        fonction pair(n) {
+          si (n == 0) { retourne 1; }
+          retourne impair(n - 1);
+        }
+        fonction carre(x) {
+          retourne x * x;
+        }
+        fonction impair(n) {
+          si (n == 0) { retourne 0; }
+          retourne pair(n - 1);
+        }
+        fonction cube(x) {
+          retourne x * carre(x);
+        }
+        fonction lit() {
+          retourne lire();
+        }
+        fonction main() {
+          a = lit();
+          affiche(cube(a));
+          affiche(pair(a));
+          retourne 0;
+        }
+        """;
+
+    private static GenerationResult generer(String source, JavaGeneratorOptions options) {
+        return new JavaGenerator().generate((Programme) TestTools.parseProgramme(source), options);
+    }
+
+    /** javac sur toutes les unités puis ProgrammePrincipal.main avec entree sur System.in ; renvoie stdout. */
+    private static String executer(GenerationResult r, Path dossier, String entree) throws Exception {
+        List<String> args = new ArrayList<>(List.of("-encoding", "UTF-8", "-d", dossier.toString()));
+        for (GenerationResult.Unite u : r.getUnites()) {
+            Path f = dossier.resolve(u.nomClasse() + ".java");
+            Files.writeString(f, u.source(), StandardCharsets.UTF_8);
+            args.add(f.toString());
+        }
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, javac.run(null, null, null, args.toArray(String[]::new)), r.getUnites().toString());
+
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        try (URLClassLoader cl = new URLClassLoader(new URL[]{dossier.toUri().toURL()}, null)) {
+            System.setIn(new ByteArrayInputStream(entree.getBytes(StandardCharsets.UTF_8)));
+            System.setOut(new PrintStream(sortie, true, StandardCharsets.UTF_8));
+            cl.loadClass(r.getUnites().get(0).nomClasse()).getMethod("main", String[].class)
+                    .invoke(null, (Object) new String[0]);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+        return sortie.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void sans_decoupage_une_seule_unite() {
+        GenerationResult r = generer(SOURCE, JavaGeneratorOptions.defaults());
+        assertEquals(1, r.getUnites().size());
+        assertEquals("ProgrammePrincipal", r.getUnites().get(0).nomClasse());
+        assertEquals(r.getJavaSource(), r.getUnites().get(0).source());
+
+        // limite non atteinte : sortie identique
+        assertEquals(r.getJavaSource(), generer(SOURCE, JavaGeneratorOptions.defaults().fonctionsMaxParClasse(6)).getJavaSource());
+    }
+
+    @Test
+    void fonctions_regroupees_par_graphe_d_appels() {
+        GenerationResult r = generer(SOURCE, JavaGeneratorOptions.defaults().fonctionsMaxParClasse(2));
+        List<GenerationResult.Unite> unites = r.getUnites();
+        assertEquals(3, unites.size());
+        assertEquals("ProgrammePrincipal", unites.get(0).nomClasse());
+        assertTrue(unites.get(0).source().contains("public static void main(String[] args)"));
+
+        Set<String> noms = new HashSet<>();
+        for (GenerationResult.Unite u : unites) {
+            assertTrue(noms.add(u.nomClasse()));
+            assertTrue(u.source().contains("public class " + u.nomClasse() + " {"));
+        }
+
+        // récursion mutuelle dans une même classe : appels non qualifiés
+        GenerationResult.Unite pairs = unites.stream().filter(u -> u.source().contains(" pair(int n)")).findFirst().orElseThrow();
+        assertTrue(pairs.source().contains(" impair(int n)"), pairs.source());
+        assertTrue(pairs.source().contains("return impair("), pairs.source());
+        // appel inter-classes qualifié, runtime partagé pris dans la classe principale
+        assertTrue(unites.get(0).source().contains(pairs.nomClasse() + ".pair(a)"), unites.get(0).source());
+        assertTrue(unites.get(0).source().contains("public static int lire()"));
+        for (int i = 1; i < unites.size(); i++) {
+            assertFalse(unites.get(i).source().contains("Scanner"), unites.get(i).source());
+            assertFalse(unites.get(i).source().contains("class RuntimeSupport"), unites.get(i).source());
+        }
+    }
+
+    @Test
+    void programme_decoupe_se_comporte_comme_l_original(@TempDir Path dossier) throws Exception {
+        String attendu = executer(generer(SOURCE, JavaGeneratorOptions.defaults()), Files.createDirectory(dossier.resolve("un")), "5\n");
+        String obtenu = executer(generer(SOURCE, JavaGeneratorOptions.defaults().fonctionsMaxParClasse(1)),
+                Files.createDirectory(dossier.resolve("six")), "5\n");
+
+        assertEquals("125\n0\n0\n", attendu.replace("\r", ""));
+        assertEquals(attendu, obtenu);
+    }
+
+    @Test
+    void gardes_partagees_entre_classes(@TempDir Path dossier) {
+        String infini = """
+            fonction ping(n) { pong(n + 1); retourne 0; }
+            fonction pong(n) { ping(n + 1); retourne 0; }
+            fonction main() { ping(0); retourne 0; }
+            """;
+        GenerationResult r = generer(infini, JavaGeneratorOptions.defaults().fonctionsMaxParClasse(1).gardeProfondeurMax(50));
+        assertEquals(3, r.getUnites().size());
+
+        InvocationTargetException e = assertThrows(InvocationTargetException.class, () -> executer(r, dossier, ""));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("profondeur"), e.getCause().getMessage());
+    }
+
+    @Test
+    void cache_de_fonctions_tient_compte_du_decoupage() {
+        FunctionCache cache = new FunctionCache();
+        generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(cache));
+
+        JavaGeneratorOptions decoupe = JavaGeneratorOptions.defaults().fonctionsMaxParClasse(2);
+        GenerationResult reference = generer(SOURCE, decoupe);
+        GenerationResult avecCache = generer(SOURCE, JavaGeneratorOptions.defaults().fonctionsMaxParClasse(2).functionCache(cache));
+
+        assertEquals(reference.getUnites(), avecCache.getUnites());
+    }
+}
@@ -0,0 +1,62 @@
+package tests.OptimzerCodeGenerator;
+
+import main.java.codegenerator.EmissionContext;
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.RuntimeHelper;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import tests.TestTools;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmissionContextTests {
+
+    @Test
+    void appel_runtime_enregistre_le_helper_dans_le_contexte_courant() {
+        EmissionContext ctx = new EmissionContext();
+
+        String code = EmissionContext.avec(ctx, () -> EmissionContext.appelRuntime(RuntimeHelper.AS_BOOL, "v"));
+
+        assertEquals("RuntimeSupport.asBool(v)", code);
+        assertTrue(ctx.uses(RuntimeHelper.AS_BOOL));
+        assertTrue(ctx.usesTypeRuntime());
+        assertFalse(ctx.uses(RuntimeHelper.LIRE));
+    }
+
+    @Test
+    void sans_contexte_lie_l_appel_est_genere_sans_enregistrement() {
+        assertEquals("lire()", EmissionContext.appelRuntime(RuntimeHelper.LIRE, ""));
+    }
+
+    @Test
+    void fusion_reunit_helpers_et_imports() {
+        EmissionContext a = new EmissionContext();
+        EmissionContext b = new EmissionContext();
+        a.requireHelper(RuntimeHelper.LIRE);
+        b.requireHelper(RuntimeHelper.AS_INT);
+        b.requireImport("java.util.Scanner");
+
+        a.fusionner(b);
+
+        assertTrue(a.uses(RuntimeHelper.LIRE));
+        assertTrue(a.uses(RuntimeHelper.AS_INT));
+        assertTrue(a.getImports().contains("java.util.Scanner"));
+    }
+
+    @Test
+    void programme_type_sans_lire_n_injecte_ni_runtime_ni_import() {
+        Programme p = (Programme) TestTools.parseProgramme("""
+            fonction main() {
+              x = 3;
+              si (x > 1) { affiche(x); }
+              retourne x;
+            }
+            """);
+
+        String java = new JavaGenerator().generate(p).getJavaSource();
+
+        assertFalse(java.contains("class RuntimeSupport"), java);
+        assertFalse(java.contains("import "), java);
+        TestTools.assertCompiles("ProgrammePrincipal", java);
+    }
+}
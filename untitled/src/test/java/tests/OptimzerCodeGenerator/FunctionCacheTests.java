@@ -0,0 +1,132 @@
+package tests.OptimzerCodeGenerator;
+
+import main.java.codegenerator.FunctionCache;
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import tests.TestTools;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FunctionCacheTests {
+
+    private static final String SOURCE = """
+        fonction carre(x) {
+          y = x * x;
+          retourne y;
+        }
+        fonction compte(n) {
+          i = 0;
+          tantque (i < n) {
+            i = i + 1;
+          }
+          retourne i;
+        }
+        fonction main() {
+          a = carre(3);
+          affiche(compte(a));
+          retourne 0;
+        }
+        """;
+
+    private static String generer(String source, JavaGeneratorOptions options) {
+        return new JavaGenerator().generate((Programme) TestTools.parseProgramme(source), options).getJavaSource();
+    }
+
+    @Test
+    void sortie_identique_avec_cache_froid_et_chaud() {
+        String sans = generer(SOURCE, JavaGeneratorOptions.defaults());
+        FunctionCache cache = new FunctionCache();
+
+        assertEquals(sans, generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(cache)));
+        assertEquals(0, cache.getSucces());
+        assertEquals(3, cache.getEchecs());
+
+        assertEquals(sans, generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(cache)));
+        assertEquals(3, cache.getSucces());
+        assertEquals(3, cache.getEchecs());
+    }
+
+    @Test
+    void seule_la_fonction_modifiee_est_regeneree() {
+        FunctionCache cache = new FunctionCache();
+        generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(cache));
+        cache.reinitialiserCompteurs();
+
+        String modifie = SOURCE.replace("y = x * x;", "y = x * x * x;");
+        String java = generer(modifie, JavaGeneratorOptions.defaults().functionCache(cache));
+
+        assertEquals(generer(modifie, JavaGeneratorOptions.defaults()), java);
+        assertEquals(2, cache.getSucces());
+        assertEquals(1, cache.getEchecs());
+    }
+
+    @Test
+    void options_d_emission_separent_les_entrees() {
+        FunctionCache cache = new FunctionCache();
+        generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(cache));
+        cache.reinitialiserCompteurs();
+
+        // gardes : le Java des boucles change, aucune entrée ne doit être reprise
+        JavaGeneratorOptions gardes = JavaGeneratorOptions.defaults().gardePasMax(1000).functionCache(cache);
+        assertEquals(generer(SOURCE, JavaGeneratorOptions.defaults().gardePasMax(1000)), generer(SOURCE, gardes));
+        assertEquals(0, cache.getSucces());
+
+        // carte source : même Java, carte identique à une génération sans cache
+        FunctionCache c2 = new FunctionCache();
+        JavaGeneratorOptions carte = JavaGeneratorOptions.defaults().sourceMap(true).functionCache(c2);
+        new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE), carte);
+        var chaud = new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE), carte);
+        var reference = new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE),
+                JavaGeneratorOptions.defaults().sourceMap(true));
+        assertEquals(3, c2.getSucces());
+        assertEquals(reference.getJavaSource(), chaud.getJavaSource());
+        assertEquals(reference.getSourceMap().toString(), chaud.getSourceMap().toString());
+    }
+
+    @Test
+    void emission_parallele_avec_cache() {
+        FunctionCache cache = new FunctionCache();
+        JavaGeneratorOptions opts = JavaGeneratorOptions.defaults().parallelThreshold(0).functionCache(cache);
+        String sans = generer(SOURCE, JavaGeneratorOptions.defaults());
+
+        assertEquals(sans, generer(SOURCE, opts));
+        assertEquals(sans, generer(SOURCE, opts));
+        assertEquals(3, cache.getSucces());
+    }
+
+    @Test
+    void cache_disque_reutilise_par_une_nouvelle_instance(@TempDir Path dossier) throws IOException {
+        String sans = generer(SOURCE, JavaGeneratorOptions.defaults());
+        generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(new FunctionCache(dossier)));
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            assertEquals(3, fichiers.count());
+        }
+
+        FunctionCache relu = new FunctionCache(dossier);
+        assertEquals(sans, generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(relu)));
+        assertEquals(3, relu.getSucces());
+        assertEquals(0, relu.getEchecs());
+    }
+
+    @Test
+    void fichier_corrompu_traite_comme_absent(@TempDir Path dossier) throws IOException {
+        String sans = generer(SOURCE, JavaGeneratorOptions.defaults());
+        generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(new FunctionCache(dossier)));
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            for (Path f : fichiers.toList()) Files.writeString(f, "fc-cache 0\n");
+        }
+
+        FunctionCache relu = new FunctionCache(dossier);
+        assertEquals(sans, generer(SOURCE, JavaGeneratorOptions.defaults().functionCache(relu)));
+        assertEquals(0, relu.getSucces());
+        assertEquals(3, relu.getEchecs());
+    }
+}
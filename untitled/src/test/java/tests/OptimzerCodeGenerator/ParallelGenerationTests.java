@@ -0,0 +1,45 @@
+package tests.OptimzerCodeGenerator;
+
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+import org.junit.jupiter.api.Test;
+import tests.TestTools;
+import utils.diag.DiagnosticCollector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelGenerationTests {
+
+    private static String programmeAvecFonctions(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append("fonction f").append(i).append("(x) {\n")
+              .append("  y = x + ").append(i).append(";\n")
+              .append("  tantque (y > 100) { y = y - 1; }\n")
+              .append("  retourne y * 2;\n")
+              .append("}\n");
+        }
+        sb.append("fonction main() {\n  affiche(f0(1), f").append(n - 1).append("(2));\n  retourne 0;\n}\n");
+        return sb.toString();
+    }
+
+    @Test
+    void generation_parallele_identique_au_sequentiel() {
+        Programme p = (Programme) TestTools.parseProgramme(programmeAvecFonctions(300));
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifier(p);
+
+        String seq = new JavaGenerator().generate(p, JavaGeneratorOptions.defaults()
+                .runSemanticAnalysis(false).semantic(sem)
+                .parallelFunctions(false)).getJavaSource();
+
+        String par = new JavaGenerator().generate(p, JavaGeneratorOptions.defaults()
+                .runSemanticAnalysis(false).semantic(sem)
+                .parallelFunctions(true).parallelThreshold(0)).getJavaSource();
+
+        assertEquals(seq, par);
+        TestTools.assertCompiles("ProgrammePrincipal", par);
+    }
+}
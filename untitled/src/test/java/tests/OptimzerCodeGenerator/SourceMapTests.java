@@ -0,0 +1,148 @@
+package tests.OptimzerCodeGenerator;
+
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.codegenerator.LineTableRewriter;
+import main.java.codegenerator.SourceMap;
+import main.java.execution.Executeur;
+import main.java.execution.ProgrammeCompile;
+import main.java.ir.*;
+import main.java.ir.convertisseur.IrVersJava;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import tests.TestTools;
+import utils.diag.Position;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SourceMapTests {
+
+    private static final String SOURCE = """
+        fonction carre(x) {
+          y = x * x;
+          retourne y;
+        }
+        fonction main() {
+          a = carre(3);
+          affiche(a);
+          retourne a;
+        }
+        """;
+
+    private static int ligneJava(String java, String contenu) {
+        String[] lignes = java.split("\n", -1);
+        for (int i = 0; i < lignes.length; i++) {
+            if (lignes[i].contains(contenu)) return i + 1;
+        }
+        throw new AssertionError("ligne introuvable: " + contenu + "\n" + java);
+    }
+
+    @Test
+    void source_identique_avec_ou_sans_carte() {
+        String sans = new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE)).getJavaSource();
+        var avec = new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE),
+                JavaGeneratorOptions.defaults().sourceMap(true));
+
+        assertEquals(sans, avec.getJavaSource());
+        assertFalse(avec.getSourceMap().estVide());
+        assertTrue(new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE))
+                .getSourceMap().estVide());
+    }
+
+    @Test
+    void litteraux_en_zone_privee_non_pris_pour_des_marques() {
+        // U+E000 / U+E001 : mêmes caractères que les marques de la carte source
+        String source = """
+            fonction main() {
+              affiche("x\uE000X\uE001y");
+              retourne 0;
+            }
+            """;
+        String sans = new JavaGenerator().generate((Programme) TestTools.parseProgramme(source)).getJavaSource();
+        var avec = new JavaGenerator().generate((Programme) TestTools.parseProgramme(source),
+                JavaGeneratorOptions.defaults().sourceMap(true));
+
+        assertEquals(sans, avec.getJavaSource());
+        assertTrue(sans.contains("\"x\\uE000X\\uE001y\""), sans);
+
+        // Executeur active toujours la carte ; les deux caractères (éventuellement '?' selon
+        // le charset de la console) doivent survivre
+        String sortie = new Executeur().executer(source, "").sortie().replace("\r\n", "\n");
+        assertTrue(sortie.matches("x.X.y\n0\n"), sortie);
+    }
+
+    @Test
+    void lignes_java_ramenees_aux_lignes_fc() {
+        var r = new JavaGenerator().generate((Programme) TestTools.parseProgramme(SOURCE),
+                JavaGeneratorOptions.defaults().sourceMap(true));
+        String java = r.getJavaSource();
+        SourceMap carte = r.getSourceMap();
+
+        int affectation = ligneJava(java, "y = (");
+        assertEquals(2, carte.positionDe(affectation).ligne());
+        assertEquals("carre", carte.fonctionDe(affectation));
+
+        int retour = ligneJava(java, "return a;");
+        assertEquals(8, carte.positionDe(retour).ligne());
+        assertEquals("main", carte.fonctionDe(retour));
+
+        // wrapper main(String[]) et runtime injecté : hors source
+        assertNull(carte.positionDe(ligneJava(java, "public static void main(String[] args)")));
+        assertNull(carte.fonctionDe(java.split("\n", -1).length));
+    }
+
+    @Test
+    void irversjava_carte_au_grain_de_la_fonction() {
+        IrProgramme p = new IrProgramme("ProgrammePrincipal", List.of(
+                new IrFonction("main", List.of(), IrType.ENTIER,
+                        new IrBloc(List.of(new IrRetourne(new IrConstInt(4)))),
+                        new Position(3, 1))
+        ));
+
+        var r = IrVersJava.generer(p, null);
+        assertEquals(IrVersJava.generate(p), r.getJavaSource());
+
+        int retour = ligneJava(r.getJavaSource(), "return 4;");
+        assertEquals("main", r.getSourceMap().fonctionDe(retour));
+        assertEquals(3, r.getSourceMap().positionDe(retour).ligne());
+    }
+    /* ==== TABLE DES LIGNES DES .class ==== */
+
+    @Test
+    void traces_de_pile_sur_les_lignes_fc_apres_reecriture() throws Exception {
+        ProgrammeCompile p = new Executeur().compiler("""
+            fonction div(a, b) {
+              x = a;
+              retourne x / b;
+            }
+            fonction main() {
+              r = div(10, 0);
+              retourne r;
+            }
+            """);
+        byte[] octets = LineTableRewriter.rewrite(p.getClasses().get(p.getNomClasse()), p.getSourceMap(), "div.fc");
+
+        Class<?> cls = new ClassLoader(getClass().getClassLoader()) {
+            Class<?> definir() {
+                return defineClass(p.getNomClasse(), octets, 0, octets.length);
+            }
+        }.definir();
+        Method div = cls.getMethod("div", int.class, int.class);
+
+        InvocationTargetException e = assertThrows(InvocationTargetException.class, () -> div.invoke(null, 1, 0));
+        StackTraceElement sommet = e.getCause().getStackTrace()[0];
+        assertEquals("div.fc", sommet.getFileName());
+        assertEquals(3, sommet.getLineNumber());
+        assertEquals("div", sommet.getMethodName());
+    }
+
+    @Test
+    void carte_vide_classe_inchangee() {
+        byte[] octets = {1, 2, 3};
+        assertSame(octets, LineTableRewriter.rewrite(octets, SourceMap.VIDE, "x.fc"));
+    }
+}
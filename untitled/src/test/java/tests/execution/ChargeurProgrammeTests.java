@@ -0,0 +1,70 @@
+package tests.execution;
+
+import main.java.execution.ChargeurProgramme;
+import main.java.execution.ProgrammeCharge;
+import main.java.ir.*;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import tests.TestTools;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChargeurProgrammeTests {
+
+    private static final String SRC = """
+        fonction carre(x) {
+          retourne x * x;
+        }
+        fonction main() {
+          affiche(carre(7));
+          retourne 0;
+        }
+        """;
+
+    @Test
+    void charge_ast_en_classe_cachee_et_expose_un_methodhandle_par_fonction() throws Throwable {
+        Programme p = (Programme) TestTools.parseProgramme(SRC);
+
+        ProgrammeCharge pc = ChargeurProgramme.charger(p);
+
+        assertTrue(pc.getClasse().isHidden(), "La classe doit être une hidden class");
+        assertEquals(List.of("carre", "main"), List.copyOf(pc.nomsFonctions()));
+
+        MethodHandle carre = pc.fonction("carre");
+        assertEquals(49, (int) carre.invokeWithArguments(7));
+        assertEquals(144, pc.invoquer("carre", 12));
+    }
+
+    @Test
+    void deux_chargements_donnent_deux_classes_distinctes() {
+        Programme p = (Programme) TestTools.parseProgramme(SRC);
+
+        ProgrammeCharge a = ChargeurProgramme.charger(p);
+        ProgrammeCharge b = ChargeurProgramme.charger(p);
+
+        assertNotSame(a.getClasse(), b.getClasse());
+    }
+
+    @Test
+    void charge_ir_en_classe_cachee() throws Throwable {
+        IrProgramme p = new IrProgramme("ProgrammePrincipal", List.of(
+                new IrFonction("sept", List.of(), IrType.ENTIER,
+                        new IrBloc(List.of(new IrRetourne(new IrConstInt(7)))))
+        ));
+
+        ProgrammeCharge pc = ChargeurProgramme.charger(p, null);
+
+        assertEquals(7, pc.invoquer("sept"));
+    }
+
+    @Test
+    void fonction_inconnue_leve_illegal_argument() {
+        Programme p = (Programme) TestTools.parseProgramme(SRC);
+        ProgrammeCharge pc = ChargeurProgramme.charger(p);
+
+        assertThrows(IllegalArgumentException.class, () -> pc.fonction("absente"));
+    }
+}
@@ -0,0 +1,291 @@
+package tests.execution;
+
+import main.java.execution.Executeur;
+import main.java.execution.Profil;
+import main.java.execution.ProgrammeCompile;
+import main.java.execution.ResultatExecution;
+import main.java.execution.ResultatExecution.Statut;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecuteurTests {
+
+    private static final String DOUBLE = """
+        fonction main() {
+          a = lire();
+          affiche("double=", a * 2);
+          retourne 0;
+        }
+        """;
+
+    @Test
+    void sortie_et_entree_capturees() {
+        Executeur ex = new Executeur();
+        ResultatExecution r = ex.executer(DOUBLE, "21\n");
+        assertEquals(Statut.OK, r.statut(), r.erreur());
+        assertEquals("double=42\n0\n", r.sortie().replace("\r\n", "\n"));
+    }
+
+    @Test
+    void programme_compile_une_fois_puis_reutilise() {
+        Executeur ex = new Executeur();
+        ProgrammeCompile p = ex.compiler(DOUBLE);
+        assertSame(p, ex.compiler(DOUBLE));
+        assertEquals(1, ex.tailleCache());
+
+        // état statique (Scanner) neuf à chaque exécution : ClassLoader par exécution
+        assertTrue(ex.executer(p, "1\n").sortie().startsWith("double=2"));
+        assertTrue(ex.executer(p, "5\n").sortie().startsWith("double=10"));
+    }
+
+    @Test
+    void boucle_infinie_arretee() {
+        Executeur ex = new Executeur().tempsMax(Duration.ofMillis(200));
+        ResultatExecution r = ex.executer("""
+            fonction main() {
+              a = 1;
+              tantque (a > 0) { a = 1; }
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.TEMPS_DEPASSE, r.statut());
+        assertTrue(r.dureeNanos() < Duration.ofSeconds(2).toNanos());
+    }
+
+    @Test
+    void erreur_et_sortie_bornee() {
+        Executeur ex = new Executeur().sortieMax(64);
+        ResultatExecution sansEntree = ex.executer(DOUBLE, "");
+        assertEquals(Statut.ERREUR, sansEntree.statut());
+        assertTrue(sansEntree.erreur().contains("NoSuchElementException"), sansEntree.erreur());
+
+        ResultatExecution bavard = ex.executer("""
+            fonction main() {
+              pour i = [1; 1000], += 1 { affiche("ligne ", i); }
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.SORTIE_DEPASSEE, bavard.statut());
+        assertEquals(64, bavard.sortie().length());
+    }
+
+    @Test
+    void programme_invalide_refuse() {
+        assertThrows(IllegalArgumentException.class, () -> new Executeur().compiler("fonction main() { x = ; }"));
+    }
+
+    @Test
+    void executions_concurrentes_isolees() throws Exception {
+        Executeur ex = new Executeur();
+        ProgrammeCompile p = ex.compiler(DOUBLE);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResultatExecution>> res = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String entree = i + "\n";
+                res.add(pool.submit(() -> ex.executer(p, entree)));
+            }
+            for (int i = 0; i < 64; i++) {
+                assertEquals("double=" + (2 * i) + "\n0\n", res.get(i).get().sortie().replace("\r\n", "\n"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    /* ==== GARDES D'EXÉCUTION ==== */
+
+    @Test
+    void garde_de_pas_arrete_une_boucle_infinie_avant_le_delai() {
+        Executeur ex = new Executeur().tempsMax(Duration.ofSeconds(10)).gardes(100_000, 0);
+        ResultatExecution r = ex.executer("""
+            fonction main() {
+              a = 1;
+              tantque (a > 0) { a = 1; }
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, r.statut(), r.erreur());
+        assertTrue(r.erreur().contains("100000 pas"), r.erreur());
+    }
+
+    @Test
+    void garde_de_profondeur_arrete_une_recursion_infinie() {
+        Executeur ex = new Executeur().gardes(0, 500);
+        ResultatExecution r = ex.executer("""
+            fonction f(n) {
+              si (n < 0) { retourne 0; }
+              retourne f(n + 1);
+            }
+            fonction main() {
+              retourne f(0);
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, r.statut(), r.erreur());
+        assertTrue(r.erreur().contains("profondeur"), r.erreur());
+    }
+
+    @Test
+    void garde_de_pas_compte_les_appels_recursifs() {
+        Executeur ex = new Executeur().gardes(1_000, 0);
+        ResultatExecution r = ex.executer("""
+            fonction f(n) {
+              si (n < 1) { retourne 0; }
+              f(n - 1);
+              f(n - 1);
+              retourne 0;
+            }
+            fonction main() {
+              retourne f(30);
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, r.statut(), r.erreur());
+    }
+
+    @Test
+    void garde_de_pas_compte_le_reliquat_des_appels_courts() {
+        // chaque appel reste sous RuntimeSupport.LOT_GARDE itérations : seul le report en sortie
+        // de fonction fait atteindre le budget (200 000 x 1 000 tours pour 1 000 000 de pas)
+        Executeur ex = new Executeur().gardes(1_000_000, 0);
+        ResultatExecution tantque = ex.executer("""
+            fonction g() {
+              i = 0;
+              tantque (i < 1000) { i = i + 1; }
+              retourne i;
+            }
+            fonction main() {
+              pour k = [1; 200000], += 1 { g(); }
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, tantque.statut(), tantque.erreur());
+
+        ResultatExecution pour = ex.executer("""
+            fonction g(n) {
+              s = 0;
+              pour i = [1; n], += 1 { s = s + i; }
+              retourne s;
+            }
+            fonction main() {
+              t = 0;
+              pour k = [1; 200000], += 1 { t = t - g(1000); }
+              affiche(t);
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, pour.statut(), pour.erreur());
+    }
+
+    @Test
+    void garde_de_pas_ne_facture_pas_d_avance_une_boucle_quittee_par_retourne() {
+        Executeur ex = new Executeur().gardes(10_000, 0);
+        ResultatExecution r = ex.executer("""
+            fonction cherche(n) {
+              pour i = [1; n], += 1 {
+                si (i == 5) { retourne i; }
+              }
+              retourne 0;
+            }
+            fonction main() {
+              affiche(cherche(1000000000));
+              retourne 0;
+            }
+            """, "");
+        assertEquals(Statut.OK, r.statut(), r.erreur());
+        assertEquals("5\n0\n", r.sortie().replace("\r\n", "\n"));
+    }
+
+    @Test
+    void garde_de_pas_arrete_un_pour_dont_le_compteur_deborde() {
+        // i <= fin reste vrai après le débordement du compteur int : boucle sans fin, à arrêter par
+        // la garde de pas (et non par le délai), que les bornes soient littérales ou lues
+        Executeur ex = new Executeur().tempsMax(Duration.ofSeconds(20)).gardes(100_000_000, 0);
+        ResultatExecution litteral = ex.executer("""
+            fonction main() {
+              s = 0;
+              pour i = [2147483000; 2147483647], += 1 { s = s + 1; }
+              retourne s;
+            }
+            """, "");
+        assertEquals(Statut.LIMITE_DEPASSEE, litteral.statut(), litteral.erreur());
+
+        String lues = """
+            fonction main() {
+              a = lire();
+              b = lire();
+              s = 0;
+              pour i = [a; b], += 1 { s = s + 1; }
+              pour i = [b; a], -= 1 { s = s + 1; }
+              affiche(s);
+              retourne 0;
+            }
+            """;
+        assertTrue(ex.compiler(lues).getSourceJava().contains("__gardeTours("));
+        assertEquals(Statut.LIMITE_DEPASSEE, ex.executer(lues, "2147483000\n2147483647\n").statut());
+        assertEquals(Statut.LIMITE_DEPASSEE, ex.executer(lues, "-2147483648\n-2147483000\n").statut());
+
+        // près de la borne sans déborder : tours facturés d'avance, résultat exact
+        ResultatExecution r = ex.executer(lues, "2147483000\n2147483637\n");
+        assertEquals(Statut.OK, r.statut(), r.erreur());
+        assertEquals("1276\n0\n", r.sortie().replace("\r\n", "\n"));
+    }
+
+    @Test
+    void programme_dans_le_budget_inchange_par_les_gardes() {
+        String somme = """
+            fonction somme(n) {
+              s = 0;
+              pour i = [1; n], += 1 { s = s + i; }
+              retourne s;
+            }
+            fonction main() {
+              affiche(somme(100));
+              retourne 0;
+            }
+            """;
+        Executeur sansGardes = new Executeur();
+        Executeur avecGardes = new Executeur().gardes(10_000, 64);
+
+        ResultatExecution attendu = sansGardes.executer(somme, "");
+        ResultatExecution r = avecGardes.executer(somme, "");
+        assertEquals(Statut.OK, r.statut(), r.erreur());
+        assertEquals(attendu.sortie(), r.sortie());
+        assertTrue(avecGardes.compiler(somme).getSourceJava().contains("__gardePas("));
+        assertFalse(sansGardes.compiler(somme).getSourceJava().contains("__garde"));
+    }
+    /* ==== PROFILAGE ==== */
+
+    @Test
+    void profil_designe_la_fonction_et_la_ligne_chaudes() {
+        // peu d'appels longs : les échantillons (pris aux points sûrs de la JVM) ne retombent
+        // pas sur l'arc arrière de la boucle de main où chaud a été inlinée
+        Executeur ex = new Executeur().tempsMax(Duration.ofSeconds(20));
+        Profil profil = ex.profiler("""
+            fonction chaud(n) {
+              s = 0;
+              pour i = [1; n], += 1 { s = (s + i * 7) % 1000; }
+              retourne s;
+            }
+            fonction main() {
+              t = 0;
+              pour k = [1; 30], += 1 { t = (t + chaud(4000000)) % 1000; }
+              affiche(t);
+              retourne 0;
+            }
+            """, "", Duration.ofMillis(1));
+
+        assertEquals(Statut.OK, profil.getResultat().statut(), profil.getResultat().erreur());
+        assertTrue(profil.getEchantillons() > 10, profil.rapport(5));
+        assertEquals("chaud", profil.fonctionsChaudes(1).get(0).fonction(), profil.rapport(5));
+        Profil.LigneChaude ligne = profil.lignesChaudes(1).get(0);
+        assertEquals(3, ligne.ligne(), profil.rapport(5));
+        assertEquals("chaud", ligne.fonction());
+    }
+}
@@ -0,0 +1,281 @@
+package tests.lsp;
+
+import main.java.lsp.Json;
+import main.java.lsp.ServeurLangage;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServeurLangageTest {
+
+    private static final String URI = "file:///tmp/essai.fc";
+
+    private static final String VALIDE = """
+            fonction main() {
+              x = 1;
+              affiche(x);
+            }
+            """;
+
+    /** Sortie du serveur découpée en messages (un flush = un message complet). */
+    private static final class Messages extends OutputStream {
+        final BlockingQueue<Map<String, Object>> file = new LinkedBlockingQueue<>();
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream();
+
+        @Override
+        public synchronized void write(int b) {
+            buf.write(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            buf.write(b, off, len);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public synchronized void flush() {
+            String brut = buf.toString(StandardCharsets.UTF_8);
+            buf.reset();
+            String corps = brut.substring(brut.indexOf("\r\n\r\n") + 4);
+            file.add((Map<String, Object>) Json.lire(corps));
+        }
+
+        Map<String, Object> suivant() throws InterruptedException {
+            Map<String, Object> m = file.poll(10, TimeUnit.SECONDS);
+            assertNotNull(m, "pas de message du serveur");
+            return m;
+        }
+    }
+
+    private static void envoyer(OutputStream out, Object id, String methode, Map<String, Object> params) throws IOException {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jsonrpc", "2.0");
+        if (id != null) m.put("id", id);
+        m.put("method", methode);
+        if (params != null) m.put("params", params);
+        byte[] corps = Json.ecrire(m).getBytes(StandardCharsets.UTF_8);
+        out.write(("Content-Length: " + corps.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(corps);
+        out.flush();
+    }
+
+    private static Map<String, Object> document(String texte, int version) {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("uri", URI);
+        doc.put("version", version);
+        if (texte != null) doc.put("text", texte);
+        return doc;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T champ(Object o, String... chemin) {
+        Object v = o;
+        for (String c : chemin) v = ((Map<String, Object>) v).get(c);
+        return (T) v;
+    }
+
+    @Test
+    void json_aller_retour() {
+        String texte = "{\"a\":[1,2.5,true,null,\"x\\n\\\"y\\u00e9\"],\"b\":{}}";
+        Object v = Json.lire(texte);
+        assertEquals(Arrays.asList(1L, 2.5, true, null, "x\n\"yé"), champ(v, "a"));
+        assertEquals(v, Json.lire(Json.ecrire(v)));
+        assertThrows(IllegalArgumentException.class, () -> Json.lire("{\"a\":}"));
+    }
+
+    @Test
+    void diagnostics_publies_et_versions_perimees_abandonnees() throws Exception {
+        PipedOutputStream client = new PipedOutputStream();
+        PipedInputStream entreeServeur = new PipedInputStream(client, 1 << 16);
+        Messages sortie = new Messages();
+        ServeurLangage serveur = new ServeurLangage(entreeServeur, sortie);
+        CompletableFuture<Integer> code = CompletableFuture.supplyAsync(serveur::executer);
+
+        // initialize
+        envoyer(client, 1, "initialize", Map.of());
+        Map<String, Object> init = sortie.suivant();
+        assertEquals(1L, init.get("id"));
+        assertEquals(1L, (Long) champ(init, "result", "capabilities", "textDocumentSync", "change"));
+        envoyer(client, null, "initialized", Map.of());
+
+        // ouverture d'un document invalide
+        envoyer(client, null, "textDocument/didOpen",
+                Map.of("textDocument", document("fonction main() { x = ; }", 1)));
+        Map<String, Object> pub = sortie.suivant();
+        assertEquals("textDocument/publishDiagnostics", pub.get("method"));
+        assertEquals(URI, champ(pub, "params", "uri"));
+        List<Object> diags = champ(pub, "params", "diagnostics");
+        assertFalse(diags.isEmpty());
+        assertEquals(1L, (Long) champ(diags.get(0), "severity"));
+        assertEquals(0L, (Long) champ(diags.get(0), "range", "start", "line"));
+        assertEquals(22L, (Long) champ(diags.get(0), "range", "start", "character"));
+
+        // rafale de frappes : seule la dernière version doit forcément être publiée
+        int derniere = 41;
+        for (int v = 2; v <= derniere; v++) {
+            String texte = (v == derniere) ? VALIDE : VALIDE.replace("x = 1;", "x = " + v + " +;");
+            envoyer(client, null, "textDocument/didChange", Map.of(
+                    "textDocument", document(null, v),
+                    "contentChanges", List.of(Map.of("text", texte))));
+        }
+
+        List<Long> versions = new ArrayList<>();
+        Map<String, Object> m;
+        do {
+            m = sortie.suivant();
+            versions.add(champ(m, "params", "version"));
+        } while (!versions.get(versions.size() - 1).equals((long) derniere));
+        assertTrue(((List<?>) champ(m, "params", "diagnostics")).isEmpty());
+        for (int k = 1; k < versions.size(); k++) assertTrue(versions.get(k) > versions.get(k - 1), versions.toString());
+
+        // méthode inconnue, puis arrêt propre
+        envoyer(client, 2, "textDocument/hover", Map.of());
+        assertEquals(-32601L, (Long) champ(sortie.suivant(), "error", "code"));
+        envoyer(client, 3, "shutdown", null);
+        assertEquals(3L, sortie.suivant().get("id"));
+        envoyer(client, null, "exit", null);
+        assertEquals(0, code.get(10, TimeUnit.SECONDS));
+        client.close();
+    }
+
+    /** Serveur démarré et initialisé, branché sur des tubes. */
+    private static final class Session implements AutoCloseable {
+        final PipedOutputStream client = new PipedOutputStream();
+        final Messages sortie = new Messages();
+        final CompletableFuture<Integer> code;
+
+        Session() throws Exception {
+            ServeurLangage serveur = new ServeurLangage(new PipedInputStream(client, 1 << 20), sortie);
+            code = CompletableFuture.supplyAsync(serveur::executer);
+            envoyer(client, 1, "initialize", Map.of());
+            assertEquals(1L, sortie.suivant().get("id"));
+            envoyer(client, null, "initialized", Map.of());
+        }
+
+        void ouvrir(String texte, int version) throws IOException {
+            envoyer(client, null, "textDocument/didOpen", Map.of("textDocument", document(texte, version)));
+        }
+
+        void changer(String texte, int version) throws IOException {
+            envoyer(client, null, "textDocument/didChange", Map.of(
+                    "textDocument", document(null, version),
+                    "contentChanges", List.of(Map.of("text", texte))));
+        }
+
+        /** Publications jusqu'à celle de la version donnée (incluse), qui est renvoyée. */
+        Map<String, Object> publicationDe(int version) throws InterruptedException {
+            Map<String, Object> m;
+            do {
+                m = sortie.suivant();
+            } while (!Long.valueOf(version).equals(champ(m, "params", "version")));
+            return m;
+        }
+
+        @Override
+        public void close() throws Exception {
+            envoyer(client, 99, "shutdown", null);
+            assertEquals(99L, sortie.suivant().get("id"));
+            envoyer(client, null, "exit", null);
+            assertEquals(0, code.get(10, TimeUnit.SECONDS));
+            client.close();
+        }
+    }
+
+    @Test
+    void reouverture_sans_fermeture_remplace_le_document() throws Exception {
+        try (Session s = new Session()) {
+            s.ouvrir("fonction main() { x = ; }", 1);
+            s.ouvrir(VALIDE, 1);
+
+            // l'ancien document peut avoir publié avant la réouverture, jamais après le nouveau
+            Map<String, Object> m;
+            do {
+                m = s.sortie.suivant();
+            } while (!((List<?>) champ(m, "params", "diagnostics")).isEmpty());
+            assertTrue(s.sortie.file.isEmpty(), s.sortie.file.toString());
+        }
+    }
+
+    /* ==== LATENCE (mvn test -Dgroups=perf -Dtests.exclus=) ==== */
+
+    // Document de n fonctions ; la fonction k de la version v diffère des autres versions.
+    private static String gros(int n, int k, int v) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append("fonction f").append(i).append("(a, b) {\n")
+                    .append("  s = a * ").append(i == k ? v : i).append(" + b;\n")
+                    .append("  pour j = [1; b], += 1 { s = s + j; }\n")
+                    .append("  retourne s;\n")
+                    .append("}\n");
+        }
+        return sb.append("fonction main() {\n  affiche(f0(1, 2));\n  retourne 0;\n}\n").toString();
+    }
+
+    private static long percentile(List<Long> valeurs, int p) {
+        List<Long> tries = new ArrayList<>(valeurs);
+        tries.sort(null);
+        return tries.get(Math.min(tries.size() - 1, tries.size() * p / 100));
+    }
+
+    @Test
+    @Tag("perf")
+    void latence_des_frappes() throws Exception {
+        int fonctions = 200;
+        try (Session s = new Session()) {
+            s.ouvrir(gros(fonctions, -1, 0), 1);
+            s.publicationDe(1);
+
+            // échauffement (JIT), non mesuré
+            int version = 1;
+            for (int i = 0; i < 100; i++) {
+                s.changer(gros(fonctions, i % fonctions, ++version), version);
+                s.publicationDe(version);
+            }
+
+            // frappes isolées : chaque frappe attend ses diagnostics
+            List<Long> frappes = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                long t0 = System.nanoTime();
+                s.changer(gros(fonctions, i % fonctions, ++version), version);
+                assertTrue(((List<?>) champ(s.publicationDe(version), "params", "diagnostics")).isEmpty());
+                frappes.add((System.nanoTime() - t0) / 1_000_000);
+            }
+
+            // rafales : 30 frappes sans attendre, mesure de la dernière frappe à sa publication
+            List<Long> rafales = new ArrayList<>();
+            for (int r = 0; r < 10; r++) {
+                for (int i = 0; i < 29; i++) s.changer(gros(fonctions, i, ++version), version);
+                long t0 = System.nanoTime();
+                s.changer(gros(fonctions, r, ++version), version);
+                s.publicationDe(version);
+                rafales.add((System.nanoTime() - t0) / 1_000_000);
+            }
+
+            long p95 = percentile(frappes, 95);
+            long finRafale = percentile(rafales, 95);
+            System.out.println("fc-lsp latence (" + fonctions + " fonctions) : frappe p50=" + percentile(frappes, 50)
+                    + " ms p95=" + p95 + " ms max=" + percentile(frappes, 100)
+                    + " ms ; fin de rafale p95=" + finRafale + " ms");
+            assertTrue(p95 < ServeurLangage.LATENCE_FRAPPE_MS, "frappe p95 = " + p95 + " ms");
+            assertTrue(finRafale < ServeurLangage.LATENCE_RAFALE_MS, "fin de rafale p95 = " + finRafale + " ms");
+        }
+    }
+}
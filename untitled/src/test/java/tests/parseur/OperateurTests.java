@@ -0,0 +1,57 @@
+package tests.parseur;
+
+import main.java.parseur.ast.*;
+import main.java.semantic.TypeSimple;
+import org.junit.jupiter.api.Test;
+import tests.TestTools;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperateurTests {
+
+    @Test
+    void le_parseur_produit_des_operateurs_types() {
+        Programme p = (Programme) TestTools.parseProgramme("""
+            fonction main() {
+              x = 1 + 2 * 3;
+              retourne x;
+            }
+            """);
+
+        Fonction main = p.getClasses().get(0).getFonctions().get(0);
+        ExpressionInstr instr = (ExpressionInstr) main.getCorps().getInstructions().get(0);
+        ExpressionAffectation aff = (ExpressionAffectation) instr.getExpression();
+        ExpressionBinaire plus = (ExpressionBinaire) aff.getValeur();
+
+        assertSame(Operateur.AFFECTE, aff.getOperateur());
+        assertSame(Operateur.PLUS, plus.getOperateur());
+        assertSame(Operateur.MULT, ((ExpressionBinaire) plus.getDroite()).getOperateur());
+        assertEquals("+", plus.getop());
+    }
+
+    @Test
+    void metadonnees_priorite_categorie_type() {
+        assertTrue(Operateur.MULT.priorite() > Operateur.PLUS.priorite());
+        assertTrue(Operateur.PLUS.priorite() > Operateur.INF.priorite());
+        assertTrue(Operateur.ET.priorite() > Operateur.OU.priorite());
+
+        assertTrue(Operateur.MOINS.estBinaire() && Operateur.MOINS.estUnaire());
+        assertFalse(Operateur.MULT.estUnaire());
+
+        assertSame(Operateur.Categorie.COMPARAISON, Operateur.SUP_EGAL.categorie());
+        assertSame(TypeSimple.BOOLEEN, Operateur.EGAL.typeResultat());
+        assertNull(Operateur.PLUS.typeResultat(), "+ : ENTIER ou TEXTE selon les opérandes");
+
+        assertSame(Operateur.PLUS, Operateur.PLUS_EGAL.base());
+        assertNull(Operateur.AFFECTE.base());
+    }
+
+    @Test
+    void symboles() {
+        for (Operateur o : Operateur.values()) {
+            assertSame(o, Operateur.deSymbole(o.symbole()));
+        }
+        assertNull(Operateur.depuisSymbole("?"));
+        assertThrows(IllegalArgumentException.class, () -> Operateur.deSymbole("<>"));
+    }
+}
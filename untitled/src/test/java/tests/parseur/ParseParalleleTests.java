@@ -0,0 +1,105 @@
+package tests.parseur;
+
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Fonction;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import utils.diag.Diagnostic;
+import utils.diag.DiagnosticCollector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParseParalleleTests {
+
+    private static String genererSource(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append("fonction f").append(i).append("(x) {\n")
+              .append("  si (x > ").append(i).append(") { retourne x - 1; }\n")
+              .append("  retourne x + ").append(i).append(";\n")
+              .append("}\n");
+        }
+        sb.append("fonction main() {\n  affiche(f0(4));\n  retourne 0;\n}\n");
+        return sb.toString();
+    }
+
+    private static String java(Programme p) {
+        return new JavaGenerator().generate(p, JavaGeneratorOptions.defaults()).getJavaSource();
+    }
+
+    @Test
+    void parse_parallele_identique_au_sequentiel() {
+        String src = genererSource(AnaSynt.SEUIL_PARALLELE * 3);
+
+        DiagnosticCollector dSeq = new DiagnosticCollector();
+        Programme seq = AnaSynt.analyser(src, dSeq);
+        DiagnosticCollector dPar = new DiagnosticCollector();
+        Programme par = AnaSynt.analyserParallele(src, dPar);
+
+        assertFalse(dPar.aDesErreurs(), dPar.formatTous());
+        List<Fonction> fs = par.getClasses().get(0).getFonctions();
+        assertEquals(seq.getClasses().get(0).getFonctions().size(), fs.size());
+        assertEquals("f0", fs.get(0).getNom());
+        assertEquals("main", fs.get(fs.size() - 1).getNom());
+        assertEquals(java(seq), java(par));
+    }
+
+    @Test
+    void diagnostics_fusionnes_dans_l_ordre_du_source() {
+        String src = genererSource(AnaSynt.SEUIL_PARALLELE * 2)
+                .replace("fonction f5(x) {", "fonction f5(x {")
+                .replace("fonction f40(x) {", "fonction f40 x) {");
+
+        DiagnosticCollector dSeq = new DiagnosticCollector();
+        AnaSynt.analyser(src, dSeq);
+        DiagnosticCollector dPar = new DiagnosticCollector();
+        AnaSynt.analyserParallele(src, dPar);
+
+        // la reprise sur erreur peut différer (confinée au segment), mais l'ordre du source est conservé
+        List<Diagnostic> erreurs = dPar.erreurs();
+        assertTrue(erreurs.size() >= 2, dPar.formatTous());
+        for (int i = 1; i < erreurs.size(); i++) {
+            assertTrue(erreurs.get(i - 1).intervalle().debut().compareTo(erreurs.get(i).intervalle().debut()) <= 0);
+        }
+        assertEquals(dSeq.erreurs().get(0).message(), erreurs.get(0).message());
+        assertTrue(erreurs.stream().anyMatch(d -> d.intervalle().debut().ligne() > 40 * 4),
+                "l'erreur de f40 doit être signalée malgré celle de f5");
+    }
+
+    @Test
+    void budget_d_erreurs_du_sequentiel_applique_a_la_fusion() {
+        // une erreur par fonction, plus de fonctions fautives que le budget : chaque segment reste
+        // sous le budget, la fusion doit s'arrêter au même nombre d'erreurs que le séquentiel
+        String src = genererSource(AnaSynt.BUDGET_ERREURS_DEFAUT + 50).replace("retourne x + ", "retourne x + ;");
+
+        DiagnosticCollector dSeq = new DiagnosticCollector();
+        AnaSynt.analyser(src, dSeq);
+        DiagnosticCollector dPar = new DiagnosticCollector();
+        AnaSynt.analyserParallele(src, dPar);
+
+        assertEquals(AnaSynt.BUDGET_ERREURS_DEFAUT, dSeq.nombreErreurs());
+        assertEquals(dSeq.nombreErreurs(), dPar.nombreErreurs());
+        assertEquals(dSeq.formatTous(), dPar.formatTous());
+
+        // limite du collecteur plus basse que le budget : même arrêt
+        DiagnosticCollector lSeq = new DiagnosticCollector().limiteErreurs(10);
+        AnaSynt.analyser(src, lSeq);
+        DiagnosticCollector lPar = new DiagnosticCollector().limiteErreurs(10);
+        AnaSynt.analyserParallele(src, lPar);
+        assertEquals(lSeq.formatTous(), lPar.formatTous());
+    }
+
+    @Test
+    void sous_le_seuil_retombe_sur_le_sequentiel() {
+        String src = genererSource(3);
+        DiagnosticCollector diags = new DiagnosticCollector();
+        Programme p = AnaSynt.analyserParallele(src, diags);
+
+        assertEquals(4, p.getClasses().get(0).getFonctions().size());
+        assertEquals(java(AnaSynt.analyser(src, new DiagnosticCollector())), java(p));
+    }
+}
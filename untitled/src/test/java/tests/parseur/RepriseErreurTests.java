@@ -0,0 +1,80 @@
+package tests.parseur;
+
+import main.java.lexeur.Lexeur;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Fonction;
+import main.java.parseur.ast.Programme;
+import org.junit.jupiter.api.Test;
+import utils.diag.DiagnosticCollector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepriseErreurTests {
+
+    @Test
+    void jetons_parasites_au_niveau_programme_un_seul_diagnostic() {
+        DiagnosticCollector diags = new DiagnosticCollector();
+        Programme p = AnaSynt.analyser("""
+            x y z 1 2 3 ; ; ;
+            fonction main() {
+              retourne 0;
+            }
+            """, diags);
+
+        assertEquals(1, diags.nombreErreurs(), diags.formatTous());
+        assertEquals("main", p.getClasses().get(0).getFonctions().get(0).getNom());
+    }
+
+    @Test
+    void instruction_fautive_resynchronisee_sur_point_virgule() {
+        DiagnosticCollector diags = new DiagnosticCollector();
+        Programme p = AnaSynt.analyser("""
+            fonction main() {
+              x = ;
+              y = 2 3 4;
+              retourne 0;
+            }
+            fonction f(a {
+              retourne a;
+            }
+            """, diags);
+
+        assertEquals(3, diags.nombreErreurs(), diags.formatTous());
+        List<Fonction> fs = p.getClasses().get(0).getFonctions();
+        assertEquals(2, fs.size());
+        assertEquals(3, fs.get(0).getCorps().getInstructions().size());
+        assertEquals(1, fs.get(1).getCorps().getInstructions().size());
+    }
+
+    @Test
+    void budget_erreurs_arrete_le_parseur() {
+        StringBuilder src = new StringBuilder("fonction main() {\n");
+        for (int i = 0; i < 1000; i++) src.append("  x = ;\n");
+        src.append("}\n");
+
+        DiagnosticCollector diags = new DiagnosticCollector();
+        AnaSynt parseur = new AnaSynt(new Lexeur(src.toString(), diags).analyser(), diags).budgetErreurs(5);
+        parseur.analyserProgramme();
+
+        assertEquals(5, parseur.nombreErreursSyntaxe());
+        assertEquals(5, diags.nombreErreurs());
+    }
+
+    @Test
+    void entree_binaire_rejetee_par_le_lexeur() {
+        byte[] octets = new byte[64 * 1024];
+        new Random(1).nextBytes(octets);
+        String binaire = new String(octets, java.nio.charset.StandardCharsets.ISO_8859_1);
+
+        assertFalse(Lexeur.ressembleATexte(binaire));
+        assertTrue(Lexeur.ressembleATexte("fonction main() {\n\tretourne 0;\r\n}"));
+
+        DiagnosticCollector diags = new DiagnosticCollector();
+        Programme p = AnaSynt.analyser(binaire, diags);
+        assertEquals(1, diags.nombreErreurs());
+        assertTrue(p.getClasses().get(0).getFonctions().isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package tests.parseur;
+
+import main.java.lexeur.Jeton;
+import main.java.lexeur.Lexeur;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.*;
+import org.junit.jupiter.api.Test;
+import utils.diag.Diagnostic;
+import utils.diag.DiagnosticCollector;
+import utils.diag.Intervalle;
+import utils.diag.Position;
+import utils.diag.SourceTexte;
+import utils.diag.Span;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpanTests {
+
+    private static final String SRC = """
+        fonction main() {
+          x = 12 + y * 3;
+          retourne x;
+        }
+        """;
+
+    private static String extrait(long span) {
+        return SRC.substring(Span.debut(span), Span.fin(span));
+    }
+
+    @Test
+    void span_emballe_deux_offsets_dans_un_long() {
+        long s = Span.de(7, 42);
+        assertEquals(7, Span.debut(s));
+        assertEquals(42, Span.fin(s));
+        assertEquals(35, Span.longueur(s));
+        assertEquals(Span.de(3, 42), Span.englobant(Span.de(3, 5), s));
+        assertEquals(s, Span.englobant(Span.AUCUN, s));
+        assertThrows(IllegalArgumentException.class, () -> Span.de(5, 3));
+    }
+
+    @Test
+    void le_lexeur_renseigne_les_offsets_et_partage_la_position() {
+        List<Jeton> jetons = new Lexeur(SRC, new DiagnosticCollector()).analyser();
+        Jeton douze = jetons.stream().filter(j -> j.getValeur().equals("12")).findFirst().orElseThrow();
+
+        assertEquals("12", extrait(douze.getSpan()));
+        assertSame(douze.getPosition(), douze.getPosition());
+        assertEquals(new Position(2, 7), douze.getPosition());
+    }
+
+    @Test
+    void les_noeuds_couvrent_leur_texte_source() {
+        Programme p = AnaSynt.analyser(SRC, new DiagnosticCollector());
+        Fonction main = p.getClasses().get(0).getFonctions().get(0);
+        ExpressionInstr instr = (ExpressionInstr) main.getCorps().getInstructions().get(0);
+        ExpressionAffectation aff = (ExpressionAffectation) instr.getExpression();
+        ExpressionBinaire plus = (ExpressionBinaire) aff.getValeur();
+
+        assertEquals("x = 12 + y * 3;", extrait(instr.getSpan()));
+        assertEquals("x = 12 + y * 3", extrait(aff.getSpan()));
+        assertEquals("12 + y * 3", extrait(plus.getSpan()));
+        assertEquals("y * 3", extrait(plus.getDroite().getSpan()));
+        assertTrue(extrait(main.getSpan()).startsWith("fonction main()"));
+        assertTrue(extrait(main.getSpan()).endsWith("}"));
+    }
+
+    @Test
+    void diagnostic_a_span_resolu_au_rendu() {
+        SourceTexte src = new SourceTexte("prog.fc", SRC);
+        int debut = SRC.indexOf("y * 3");
+        Diagnostic d = Diagnostic.builder(utils.diag.Gravite.ERREUR, "variable inconnue")
+                .span(Span.de(debut, debut + 5))
+                .build();
+
+        assertNull(d.intervalle());
+        Intervalle itv = d.intervalle(src);
+        assertEquals(new Position("prog.fc", 2, 12), itv.debut());
+        assertEquals(new Position("prog.fc", 2, 16), itv.fin());
+        assertTrue(d.formatAvecSource(src).contains("prog.fc:2:12"));
+    }
+}
@@ -0,0 +1,95 @@
+package tests.semantique;
+
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Programme;
+import main.java.semantic.AnalyseSemantique;
+import main.java.semantic.ErreurSemantique;
+import org.junit.jupiter.api.Test;
+import utils.diag.DiagnosticCollector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalyseIncrementaleTest {
+
+    private static final String V1 = """
+            fonction carre(x) {
+              retourne x * x;
+            }
+            fonction nom() {
+              retourne "a";
+            }
+            fonction main() {
+              a = carre(3);
+              b = nom();
+              affiche(a, b);
+              retourne 0;
+            }
+            """;
+
+    private static Programme parser(String source) {
+        return AnaSynt.analyser(source, new DiagnosticCollector());
+    }
+
+    private static String java(Programme p, AnalyseSemantique sem) {
+        JavaGeneratorOptions opts = JavaGeneratorOptions.defaults().runSemanticAnalysis(false).semantic(sem);
+        return new JavaGenerator().generate(p, opts).getJavaSource();
+    }
+
+    // Référence : analyse complète sur une instance neuve
+    private static String javaComplet(String source) {
+        Programme p = parser(source);
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifier(p);
+        return java(p, sem);
+    }
+
+    @Test
+    void source_inchangee_rien_a_reanalyser() {
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifierIncremental(parser(V1));
+        assertEquals(List.of("carre", "nom", "main"), sem.fonctionsReanalysees());
+
+        // nouveau parse (nouveaux nœuds, positions décalées) : tout est rejoué
+        Programme p = parser("\n\n" + V1);
+        sem.verifierIncremental(p);
+        assertEquals(List.of(), sem.fonctionsReanalysees());
+        assertEquals(javaComplet(V1), java(p, sem));
+    }
+
+    @Test
+    void corps_modifie_sans_changement_de_type() {
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifierIncremental(parser(V1));
+
+        String v2 = V1.replace("retourne x * x;", "retourne x * x + 1;");
+        Programme p = parser(v2);
+        sem.verifierIncremental(p);
+        assertEquals(List.of("carre"), sem.fonctionsReanalysees());
+        assertEquals(javaComplet(v2), java(p, sem));
+    }
+
+    @Test
+    void type_de_retour_modifie_propage_aux_appelants() {
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifierIncremental(parser(V1));
+
+        String v2 = V1.replace("retourne \"a\";", "retourne 7;");
+        Programme p = parser(v2);
+        sem.verifierIncremental(p);
+        assertEquals(List.of("nom", "main"), sem.fonctionsReanalysees());
+        assertEquals(javaComplet(v2), java(p, sem));
+    }
+
+    @Test
+    void erreurs_toujours_signalees() {
+        AnalyseSemantique avecErreur = new AnalyseSemantique(new DiagnosticCollector());
+        avecErreur.verifierIncremental(parser(V1));
+        String faux = V1.replace("a = carre(3);", "a = carre(3, 4);");
+        assertThrows(ErreurSemantique.class, () -> avecErreur.verifierIncremental(parser(faux)));
+        assertTrue(avecErreur.fonctionsReanalysees().contains("main"));
+    }
+}
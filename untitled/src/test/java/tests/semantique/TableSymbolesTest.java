@@ -0,0 +1,65 @@
+package tests.semantique;
+
+import main.java.semantic.Symbole;
+import main.java.semantic.TableSymboles;
+import main.java.semantic.TypeSimple;
+import org.junit.jupiter.api.Test;
+import utils.lang.Interneur;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableSymbolesTest {
+
+    @Test
+    void masquage_puis_restauration_a_la_sortie() {
+        TableSymboles ts = new TableSymboles();
+        ts.declarer("x", TypeSimple.ENTIER, false);
+
+        ts.entrerPortee();
+        ts.declarer("x", TypeSimple.TEXTE, false);
+        ts.declarer("y", TypeSimple.ENTIER, false);
+        assertEquals(TypeSimple.TEXTE, ts.resoudre("x").getType());
+        assertNotNull(ts.resoudre("y"));
+
+        ts.sortirPortee();
+        assertEquals(TypeSimple.ENTIER, ts.resoudre("x").getType());
+        assertNull(ts.resoudre("y"));
+        assertEquals(0, ts.profondeur());
+    }
+
+    @Test
+    void doublon_dans_la_meme_portee_refuse() {
+        TableSymboles ts = new TableSymboles();
+        ts.entrerPortee();
+        ts.declarer("a", TypeSimple.ENTIER, true);
+        assertThrows(RuntimeException.class, () -> ts.declarer("a", TypeSimple.ENTIER, false));
+    }
+
+    @Test
+    void nom_jamais_interne_introuvable() {
+        TableSymboles ts = new TableSymboles();
+        assertNull(ts.resoudre("inconnu"));
+        assertNull(ts.resoudre(12345));
+    }
+
+    @Test
+    void imbrication_profonde() {
+        Interneur in = new Interneur();
+        TableSymboles ts = new TableSymboles(in);
+        int v = in.id("v");
+        for (int i = 0; i < 1000; i++) {
+            ts.entrerPortee();
+            ts.declarer(v, (i % 2 == 0) ? TypeSimple.ENTIER : TypeSimple.TEXTE, false);
+            ts.declarer("local" + i, TypeSimple.ENTIER, false);
+        }
+        Symbole s = ts.resoudre(v);
+        assertEquals(TypeSimple.TEXTE, s.getType());
+        for (int i = 999; i >= 0; i--) {
+            assertEquals((i % 2 == 0) ? TypeSimple.ENTIER : TypeSimple.TEXTE, ts.resoudre(v).getType());
+            assertNotNull(ts.resoudre("local" + i));
+            ts.sortirPortee();
+            assertNull(ts.resoudre("local" + i));
+        }
+        assertNull(ts.resoudre(v));
+    }
+}
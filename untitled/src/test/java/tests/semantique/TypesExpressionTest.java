@@ -0,0 +1,122 @@
+package tests.semantique;
+
+import main.java.codegenerator.JavaGenerator;
+import main.java.codegenerator.JavaGeneratorOptions;
+import main.java.parseur.AnaSynt;
+import main.java.parseur.ast.Expression;
+import main.java.parseur.ast.ExpressionBinaire;
+import main.java.parseur.ast.Identifiant;
+import main.java.parseur.ast.Nombre;
+import main.java.parseur.ast.Programme;
+import main.java.parseur.ast.Retourne;
+import main.java.semantic.AnalyseSemantique;
+import main.java.semantic.TypeSimple;
+import org.junit.jupiter.api.Test;
+import utils.diag.DiagnosticCollector;
+import utils.diag.Position;
+import utils.lang.Interneur;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypesExpressionTest {
+
+    private static final String SOURCE = """
+            fonction main() {
+              retourne "a" + 1;
+            }
+            """;
+
+    private static Expression expressionRetournee(Programme p) {
+        Retourne r = (Retourne) p.getClasses().get(0).getFonctions().get(0).getCorps().getInstructions().get(0);
+        return r.getExpression();
+    }
+
+    @Test
+    void types_poses_par_l_analyse() {
+        Programme p = AnaSynt.analyser(SOURCE, new DiagnosticCollector());
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifier(p);
+
+        ExpressionBinaire e = (ExpressionBinaire) expressionRetournee(p);
+        assertEquals(TypeSimple.TEXTE, sem.typeDe(e));
+        assertEquals(TypeSimple.TEXTE, sem.typeDe(e.getGauche()));
+        assertEquals(TypeSimple.ENTIER, sem.typeDe(e.getDroite()));
+    }
+
+    @Test
+    void noeud_hors_analyse_inconnu() {
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        assertEquals(TypeSimple.INCONNU, sem.typeDe(new Nombre(new Position(null, 1, 1), 3)));
+    }
+
+    @Test
+    void types_propres_a_chaque_analyse() {
+        Programme p = AnaSynt.analyser(SOURCE, new DiagnosticCollector());
+        AnalyseSemantique premiere = new AnalyseSemantique(new DiagnosticCollector());
+        premiere.verifier(p);
+
+        // une autre analyse n'hérite pas des types posés par la première
+        AnalyseSemantique autre = new AnalyseSemantique(new DiagnosticCollector());
+        assertEquals(TypeSimple.INCONNU, autre.typeDe(expressionRetournee(p)));
+
+        autre.verifier(p);
+        assertEquals(TypeSimple.TEXTE, autre.typeDe(expressionRetournee(p)));
+
+        // ... et ne lui retire pas les siens
+        assertEquals(TypeSimple.TEXTE, premiere.typeDe(expressionRetournee(p)));
+    }
+
+    @Test
+    void generation_avec_une_analyse_anterieure_intacte() {
+        Programme p = AnaSynt.analyser("""
+                fonction f(x) {
+                  y = x + 3;
+                  retourne y;
+                }
+                fonction main() {
+                  retourne f(1);
+                }
+                """, new DiagnosticCollector());
+        AnalyseSemantique s1 = new AnalyseSemantique(new DiagnosticCollector());
+        s1.verifier(p);
+        String attendu = new JavaGenerator().generate(p, JavaGeneratorOptions.defaults().semantic(s1)).getJavaSource();
+
+        new AnalyseSemantique(new DiagnosticCollector()).verifier(p);
+        String apres = new JavaGenerator().generate(p, JavaGeneratorOptions.defaults().semantic(s1)).getJavaSource();
+        assertEquals(attendu, apres);
+        assertFalse(apres.contains("RuntimeSupport.add"), apres);
+    }
+
+    @Test
+    void variables_vue_triee_en_lecture_seule_sans_copie() {
+        Programme p = AnaSynt.analyser("""
+                fonction f(z, a) {
+                  m = z + a;
+                  retourne m;
+                }
+                """, new DiagnosticCollector());
+        AnalyseSemantique sem = new AnalyseSemantique(new DiagnosticCollector());
+        sem.verifier(p);
+
+        Map<String, TypeSimple> vars = sem.variablesDe("f");
+        assertEquals(List.of("a", "m", "z"), List.copyOf(vars.keySet()));
+        assertSame(vars, sem.variablesDe("f"));
+        assertThrows(UnsupportedOperationException.class, () -> vars.put("x", TypeSimple.ENTIER));
+        assertTrue(sem.variablesDe("inconnue").isEmpty());
+    }
+
+    @Test
+    void id_du_nom_propre_a_chaque_interneur() {
+        Identifiant x = new Identifiant(new Position(null, 1, 1), "x");
+        Interneur premier = new Interneur();
+        premier.id("autre");
+        Interneur second = new Interneur();
+
+        assertEquals(premier.id("x"), x.symbole(premier));
+        assertEquals(second.id("x"), x.symbole(second));
+        assertEquals(premier.id("x"), x.symbole(premier));
+    }
+}
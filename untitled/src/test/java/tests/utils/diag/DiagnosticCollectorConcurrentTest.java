@@ -0,0 +1,107 @@
+package tests.utils.diag;
+
+import org.junit.jupiter.api.Test;
+import utils.diag.Diagnostic;
+import utils.diag.DiagnosticCollector;
+import utils.diag.Diagnostics;
+import utils.diag.Gravite;
+import utils.diag.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiagnosticCollectorConcurrentTest {
+
+    private static final int THREADS = 8;
+    private static final int PAR_THREAD = 500;
+
+    // Chaque thread signale les lignes t, t+THREADS, ... ; l'ordre des tâches est mélangé.
+    private static DiagnosticCollector remplir(DiagnosticCollector c, long graine) throws Exception {
+        List<Integer> ordre = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) ordre.add(t);
+        Collections.shuffle(ordre, new java.util.Random(graine));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> fs = new ArrayList<>();
+            for (int t : ordre) {
+                fs.add(pool.submit(() -> {
+                    for (int i = 0; i < PAR_THREAD; i++) {
+                        int ligne = 1 + t + i * THREADS;
+                        if (i % 5 == 0) c.avertissement("w" + ligne, new Position(ligne, 1));
+                        else c.erreur("e" + ligne, new Position(ligne, 2));
+                    }
+                }));
+            }
+            for (Future<?> f : fs) f.get();
+        } finally {
+            pool.shutdown();
+        }
+        return c;
+    }
+
+    @Test
+    void ajouts_concurrents_compteurs_exacts() throws Exception {
+        DiagnosticCollector c = remplir(DiagnosticCollector.concurrent(), 1);
+
+        assertTrue(c.estConcurrent());
+        assertEquals(THREADS * PAR_THREAD, c.taille());
+        assertEquals(THREADS * PAR_THREAD / 5, c.nombreAvertissements());
+        assertEquals(THREADS * PAR_THREAD * 4 / 5, c.nombreErreurs());
+    }
+
+    @Test
+    void formatage_deterministe_trie_par_position() throws Exception {
+        String a = remplir(DiagnosticCollector.concurrent(), 1).formatTous();
+        String b = remplir(DiagnosticCollector.concurrent(), 42).formatTous();
+        assertEquals(a, b);
+
+        List<Diagnostic> erreurs = remplir(DiagnosticCollector.concurrent(), 7).erreurs();
+        for (int i = 1; i < erreurs.size(); i++) {
+            assertTrue(erreurs.get(i - 1).intervalle().debut().compareTo(erreurs.get(i).intervalle().debut()) < 0);
+        }
+    }
+
+    @Test
+    void limite_erreurs_respectee_sous_concurrence() throws Exception {
+        DiagnosticCollector c = remplir(DiagnosticCollector.concurrent().limiteErreurs(100), 3);
+
+        assertTrue(c.limiteAtteinte());
+        assertEquals(100, c.nombreErreurs());
+        assertEquals(THREADS * PAR_THREAD * 4 / 5 - 100, c.erreursIgnorees());
+        assertEquals(100, c.erreurs().size());
+    }
+
+    @Test
+    void instantane_en_lecture_seule_et_reutilise_jusqu_au_prochain_ajout() throws Exception {
+        DiagnosticCollector c = remplir(DiagnosticCollector.concurrent(), 5);
+
+        Diagnostics ds = c.diagnostics();
+        assertTrue(ds.estLectureSeule());
+        assertThrows(UnsupportedOperationException.class, () -> ds.ajouter(Diagnostic.erreur("perdu")));
+        assertThrows(UnsupportedOperationException.class, ds::vider);
+        assertSame(ds, c.diagnostics());
+        assertEquals(ds.parGravite(Gravite.ERREUR), c.erreurs());
+
+        c.erreur("nouvelle", new Position(1, 1));
+        Diagnostics apres = c.diagnostics();
+        assertNotSame(ds, apres);
+        assertEquals(ds.taille() + 1, apres.taille());
+        assertSame(apres, c.diagnostics());
+
+        c.vider();
+        assertEquals(0, c.diagnostics().taille());
+
+        // mono-thread : toujours le conteneur interne, modifiable
+        DiagnosticCollector seq = new DiagnosticCollector();
+        assertFalse(seq.diagnostics().estLectureSeule());
+        seq.diagnostics().ajouter(Diagnostic.erreur("e"));
+        assertEquals(1, seq.taille());
+    }
+}
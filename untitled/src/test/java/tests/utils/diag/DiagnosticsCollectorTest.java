@@ -63,4 +63,54 @@ class DiagnosticsCollectorTest {
         assertTrue(out.contains("2 | b"));
         assertTrue(out.contains("^"));
     }
+
+    @Test
+    void index_par_gravite_et_par_source() {
+        Diagnostics ds = new Diagnostics();
+        ds.ajouter(Diagnostic.erreur("e1", new Position("a.fc", 1, 1)));
+        ds.ajouter(Diagnostic.avertissement("w1", new Position("b.fc", 2, 1)));
+        ds.ajouter(Diagnostic.erreur("e2", new Position("b.fc", 3, 1)));
+        ds.ajouter(Diagnostic.info("i"));
+
+        assertEquals(2, ds.nbErreurs());
+        assertEquals(1, ds.nombre(Gravite.AVERTISSEMENT));
+        assertEquals(List.of("e1", "e2"), ds.parGravite(ERREUR).stream().map(Diagnostic::message).toList());
+        assertEquals(List.of("w1", "e2"), ds.parSource("b.fc").stream().map(Diagnostic::message).toList());
+        assertEquals(1, ds.parSource(null).size());
+        assertEquals(List.of("a.fc", "b.fc"), ds.sources());
+        assertThrows(UnsupportedOperationException.class, () -> ds.parGravite(ERREUR).clear());
+
+        ds.vider();
+        assertFalse(ds.aDesErreurs());
+        assertTrue(ds.parSource("b.fc").isEmpty());
+    }
+
+    @Test
+    void limite_erreurs_arrete_la_collecte() {
+        DiagnosticCollector c = new DiagnosticCollector().limiteErreurs(2);
+        c.erreur("e1");
+        assertFalse(c.limiteAtteinte());
+        c.erreur("e2");
+        c.avertissement("w"); // les avertissements restent collectés
+        c.erreur("e3");
+        c.erreur("e4");
+
+        assertTrue(c.limiteAtteinte());
+        assertEquals(2, c.nombreErreurs());
+        assertEquals(2, c.erreursIgnorees());
+        assertEquals(1, c.nombreAvertissements());
+        assertTrue(c.formatTous().contains("2 erreur(s) supplémentaire(s)"));
+    }
+
+    @Test
+    void limite_erreurs_interrompt_lexeur_et_parseur() {
+        StringBuilder src = new StringBuilder();
+        for (int i = 0; i < 5000; i++) src.append("fonction f").append(i).append("( { # }\n");
+
+        DiagnosticCollector c = new DiagnosticCollector().limiteErreurs(10);
+        main.java.parseur.AnaSynt.analyser(src.toString(), c);
+
+        assertEquals(10, c.nombreErreurs());
+        assertTrue(c.limiteAtteinte());
+    }
 }
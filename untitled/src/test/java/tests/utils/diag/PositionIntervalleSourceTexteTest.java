@@ -58,4 +58,32 @@ class PositionIntervalleSourceTexteTest {
         assertNull(src.ligne(0));
         assertNull(src.ligne(99));
     }
+
+    @Test
+    void sourceTexte_separateurs_R_et_lignes_vides() {
+        SourceTexte src = new SourceTexte("s", "a\r\rb\u2028c\n");
+
+        assertEquals(5, src.nbLignes());
+        assertEquals("a", src.ligne(1));
+        assertEquals("", src.ligne(2));
+        assertEquals("b", src.ligne(3));
+        assertEquals("c", src.ligne(4));
+        assertEquals("", src.ligne(5));
+        assertEquals(1, new SourceTexte(null, "").nbLignes());
+    }
+
+    @Test
+    void sourceTexte_offset_vers_ligne_colonne() {
+        String texte = "ab\r\ncde\nf";
+        SourceTexte src = new SourceTexte("m", texte);
+
+        assertEquals(new Position("m", 1, 1), src.position(0));
+        assertEquals(new Position("m", 1, 3), src.position(2));   // '\r'
+        assertEquals(new Position("m", 2, 1), src.position(texte.indexOf('c')));
+        assertEquals(new Position("m", 2, 3), src.position(texte.indexOf('e')));
+        assertEquals(new Position("m", 3, 1), src.position(texte.indexOf('f')));
+        assertEquals(3, src.ligneDe(texte.length()));
+        assertEquals(4, src.debutLigne(2));
+        assertEquals(-1, src.debutLigne(4));
+    }
 }
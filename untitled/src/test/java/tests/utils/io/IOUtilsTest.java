@@ -59,4 +59,31 @@ class IOUtilsTest {
         assertFalse(Files.exists(d));
     }
 
+
+    @Test
+    void ecrireTexteSiChange_evite_reecriture_identique() throws IOException {
+        Path f = tempDir.resolve("gen/P.java");
+        assertFalse(IOUtils.contenuIdentique(f, "x"));
+        assertTrue(IOUtils.ecrireTexteSiChange(f, "class P {} // é"));
+
+        Files.setLastModifiedTime(f, java.nio.file.attribute.FileTime.fromMillis(0));
+        assertFalse(IOUtils.ecrireTexteSiChange(f, "class P {} // é"));
+        assertEquals(0, Files.getLastModifiedTime(f).toMillis());
+
+        // même taille, contenu différent ; puis taille différente
+        assertFalse(IOUtils.contenuIdentique(f, "class Q {} // é"));
+        assertTrue(IOUtils.ecrireTexteSiChange(f, "class P {} // e"));
+        assertEquals("class P {} // e", IOUtils.lireTexte(f));
+        assertTrue(IOUtils.ecrireTexteSiChange(f, ""));
+        assertTrue(IOUtils.contenuIdentique(f, ""));
+    }
+
+    @Test
+    void contenuIdentique_gros_fichier_par_blocs() throws IOException {
+        Path f = tempDir.resolve("gros.txt");
+        String contenu = "abcdefghij".repeat(5000);
+        IOUtils.ecrireTexte(f, contenu);
+        assertTrue(IOUtils.contenuIdentique(f, contenu));
+        assertFalse(IOUtils.contenuIdentique(f, contenu.substring(0, 49_999) + "X"));
+    }
 }
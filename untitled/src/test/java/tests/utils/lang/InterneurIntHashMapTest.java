@@ -0,0 +1,93 @@
+package tests.utils.lang;
+
+import main.java.lexeur.Jeton;
+import main.java.lexeur.Lexeur;
+import main.java.lexeur.TypeJeton;
+import org.junit.jupiter.api.Test;
+import utils.diag.DiagnosticCollector;
+import utils.lang.IntHashMap;
+import utils.lang.Interneur;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterneurIntHashMapTest {
+
+    @Test
+    void interneur_ids_stables_et_instances_partagees() {
+        Interneur in = new Interneur();
+        int a = in.id("compteur");
+        int b = in.id("total");
+
+        assertEquals(a, in.id(new String("compteur")));
+        assertNotEquals(a, b);
+        assertEquals("total", in.nom(b));
+        assertEquals(Interneur.AUCUN, in.chercher("absent"));
+        assertSame(in.canonique("total"), in.canonique(new String("total")));
+        assertThrows(IllegalArgumentException.class, () -> in.nom(999));
+    }
+
+    @Test
+    void le_lexeur_canonise_les_identifiants() {
+        Interneur in = new Interneur();
+        List<Jeton> jetons = new Lexeur("x = x + x;", new DiagnosticCollector(), in).analyser();
+
+        List<Jeton> ids = jetons.stream().filter(j -> j.getType() == TypeJeton.Identifiant).toList();
+        assertEquals(3, ids.size());
+        assertSame(ids.get(0).getValeur(), ids.get(1).getValeur());
+        assertSame(ids.get(0).getValeur(), ids.get(2).getValeur());
+        assertEquals(1, in.taille());
+    }
+
+    @Test
+    void textes_non_internes_et_noms_vivants_comptes() {
+        Interneur in = new Interneur();
+        for (int frappe = 0; frappe < 2_000; frappe++) {
+            Lexeur lex = new Lexeur("a = \"texte " + frappe + "\"; b = a;", new DiagnosticCollector(), in);
+            lex.analyser();
+            assertEquals(2, lex.identifiantsDistincts());
+        }
+        // seuls a et b : les littéraux de chaque frappe n'ont pas laissé d'entrée
+        assertEquals(2, in.taille());
+        assertFalse(in.aCompacter(2));
+
+        // identifiants renommés à chaque frappe : la table grossit, les vivants non
+        for (int frappe = 0; frappe < Interneur.SEUIL_COMPACTAGE; frappe++) in.id("x" + frappe);
+        assertTrue(in.aCompacter(2));
+        assertFalse(in.aCompacter(in.taille()));
+    }
+
+    @Test
+    void inthashmap_se_comporte_comme_une_map() {
+        IntHashMap<String> m = new IntHashMap<>();
+        Map<Integer, String> ref = new HashMap<>();
+        Random r = new Random(3);
+
+        for (int i = 0; i < 20_000; i++) {
+            int k = r.nextInt(500) - 100;
+            if (r.nextInt(3) == 0) {
+                assertEquals(ref.remove(k), m.remove(k));
+            } else {
+                String v = "v" + i;
+                assertEquals(ref.put(k, v), m.put(k, v));
+            }
+            assertEquals(ref.size(), m.size());
+        }
+        for (int k = -100; k < 400; k++) {
+            assertEquals(ref.get(k), m.get(k));
+            assertEquals(ref.containsKey(k), m.containsKey(k));
+        }
+
+        Map<Integer, String> vus = new HashMap<>();
+        m.forEach(vus::put);
+        assertEquals(ref, vus);
+
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertNull(m.get(1));
+    }
+}
@@ -15,6 +15,7 @@ import java.util.Objects;
  * - code (ex: LEX001, PAR002, SEM010…)
  * - message principal
  * - intervalle (position)
+ * - span (offsets compacts, cf. Span) : résolu en intervalle seulement au rendu
  * - aide (suggestion de correction)
  * - notes (infos additionnelles)
  * - cause (exception optionnelle)
@@ -27,6 +28,7 @@ public final class Diagnostic {
     private final String code;         // nullable
     private final String message;      // non-null
     private final Intervalle intervalle; // nullable
+    private final long span;           // Span.AUCUN si absent
     private final String aide;         // nullable
     private final List<String> notes;  // non-null (immutable)
     private final Throwable cause;     // nullable
@@ -36,6 +38,7 @@ public final class Diagnostic {
         this.code = (b.code == null || b.code.isBlank()) ? null : b.code;
         this.message = Objects.requireNonNull(b.message, "message");
         this.intervalle = b.intervalle;
+        this.span = b.span;
         this.aide = (b.aide == null || b.aide.isBlank()) ? null : b.aide;
         this.notes = Collections.unmodifiableList(new ArrayList<>(b.notes));
         this.cause = b.cause;
@@ -105,6 +108,16 @@ public final class Diagnostic {
         return intervalle;
     }
 
+    public long span() {
+        return span;
+    }
+
+    /** Intervalle explicite, sinon span résolu via source (null si ni l'un ni l'autre). */
+    public Intervalle intervalle(SourceTexte source) {
+        if (intervalle != null) return intervalle;
+        return Span.resoudre(span, source);
+    }
+
     public String aide() {
         return aide;
     }
@@ -154,6 +167,7 @@ public final class Diagnostic {
      * ou si l'extrait ne peut pas être produit, fallback sur formatSimple().
      */
     public String formatAvecSource(SourceTexte source) {
+        Intervalle intervalle = intervalle(source);
         if (intervalle == null || source == null) return formatSimple();
 
         Position debut = intervalle.debut();
@@ -230,6 +244,7 @@ public final class Diagnostic {
                 && Objects.equals(code, other.code)
                 && message.equals(other.message)
                 && Objects.equals(intervalle, other.intervalle)
+                && span == other.span
                 && Objects.equals(aide, other.aide)
                 && notes.equals(other.notes)
                 && Objects.equals(cause, other.cause);
@@ -237,7 +252,7 @@ public final class Diagnostic {
 
     @Override
     public int hashCode() {
-        return Objects.hash(gravite, code, message, intervalle, aide, notes, cause);
+        return Objects.hash(gravite, code, message, intervalle, span, aide, notes, cause);
     }
 
     /**
@@ -266,6 +281,7 @@ public final class Diagnostic {
 
         if (this.code != null) b.code(this.code);
         if (this.intervalle != null) b.intervalle(this.intervalle);
+        b.span(this.span);
         if (this.aide != null) b.aide(this.aide);
         for (String n : this.notes) b.note(n);
         if (this.cause != null) b.cause(this.cause);
@@ -284,6 +300,7 @@ public final class Diagnostic {
 
         private String code;
         private Intervalle intervalle;
+        private long span = Span.AUCUN;
         private String aide;
         private final List<String> notes = new ArrayList<>();
         private Throwable cause;
@@ -308,6 +325,12 @@ public final class Diagnostic {
             return this;
         }
 
+        /** Étendue en offsets ; la position n'est calculée qu'à l'affichage (formatAvecSource). */
+        public Builder span(long span) {
+            this.span = span;
+            return this;
+        }
+
         public Builder aide(String aide) {
             this.aide = aide;
             return this;
@@ -1,6 +1,5 @@
 package utils.diag;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -10,23 +9,51 @@ import java.util.Objects;
  * Idée :
  * - tes modules (lexeur, parseur, sémantique, codegen...) ajoutent des diagnostics ici,
  * - puis le "pipeline" décide quoi faire (afficher, arrêter si erreurs, etc.).
+ *
+ * Deux variantes :
+ * - new DiagnosticCollector(...) : mono-thread, index maintenus à l'ajout (Diagnostics) ;
+ * - DiagnosticCollector.concurrent(...) : partageable entre threads, ajout sans verrou
+ *   (JournalDiagnostics) ; les lectures renvoient un instantané trié par Position,
+ *   donc un formatage identique quel que soit l'ordre d'exécution des tâches.
+ *   L'instantané est en lecture seule et mis en cache jusqu'au prochain ajout.
  */
 public final class DiagnosticCollector {
 
     private final Diagnostics diagnostics = new Diagnostics();
 
+    /** Non null => variante concurrente : diagnostics n'est alors pas utilisé. */
+    private final JournalDiagnostics journal;
+
     /**
      * Source par défaut utilisée si un diagnostic ajouté n'a pas de source explicite.
      * (Optionnel : peut rester null.)
      */
-    private SourceTexte sourceParDefaut;
+    private volatile SourceTexte sourceParDefaut;
 
     public DiagnosticCollector() {
         this(null);
     }
 
     public DiagnosticCollector(SourceTexte sourceParDefaut) {
+        this(sourceParDefaut, null);
+    }
+
+    private DiagnosticCollector(SourceTexte sourceParDefaut, JournalDiagnostics journal) {
         this.sourceParDefaut = sourceParDefaut;
+        this.journal = journal;
+    }
+
+    /** Collecteur thread-safe (ajouts concurrents sans verrou). */
+    public static DiagnosticCollector concurrent() {
+        return concurrent(null);
+    }
+
+    public static DiagnosticCollector concurrent(SourceTexte sourceParDefaut) {
+        return new DiagnosticCollector(sourceParDefaut, new JournalDiagnostics());
+    }
+
+    public boolean estConcurrent() {
+        return journal != null;
     }
 
 
@@ -40,22 +67,51 @@ public final class DiagnosticCollector {
         this.sourceParDefaut = sourceParDefaut;
     }
 
+    /**
+     * Limite d'erreurs (n <= 0 => illimité). Une fois atteinte, les erreurs suivantes
+     * sont seulement comptées, et les phases (lexeur, parseur, sémantique) s'arrêtent tôt.
+     */
+    public DiagnosticCollector limiteErreurs(int n) {
+        if (journal != null) journal.definirLimiteErreurs(n);
+        else diagnostics.definirLimiteErreurs(n);
+        return this;
+    }
+
+    public int limiteErreurs() {
+        return (journal != null) ? journal.limiteErreurs() : diagnostics.limiteErreurs();
+    }
+
+    /** Vrai quand la limite d'erreurs est atteinte : la phase courante peut abandonner. */
+    public boolean limiteAtteinte() {
+        return (journal != null) ? journal.limiteAtteinte() : diagnostics.limiteAtteinte();
+    }
+
+    public int erreursIgnorees() {
+        return (journal != null) ? journal.erreursIgnorees() : diagnostics.erreursIgnorees();
+    }
+
 
     // Accès diagnostics
 
-    /** Retourne le conteneur mutable interne (Diagnostics). */
+    /**
+     * Mono-thread : le conteneur mutable interne (Diagnostics).
+     * Variante concurrente : un instantané trié par Position, en lecture seule (ajouter/vider lèvent
+     * UnsupportedOperationException ; passer par ce collecteur). Les ajouts ultérieurs n'y figurent
+     * pas ; le même instantané est renvoyé tant que rien n'a été ajouté.
+     */
     public Diagnostics diagnostics() {
-        return diagnostics;
+        return (journal != null) ? journal.instantane() : diagnostics;
     }
 
     /** Vide tous les diagnostics collectés. */
     public void vider() {
-        diagnostics.vider();
+        if (journal != null) journal.vider();
+        else diagnostics.vider();
     }
 
     /** Nombre total de diagnostics. */
     public int taille() {
-        return diagnostics.tous().size();
+        return (journal != null) ? journal.taille() : diagnostics.taille();
     }
 
 
@@ -67,7 +123,8 @@ public final class DiagnosticCollector {
      */
     public void ajouter(Diagnostic d) {
         if (d == null) return;
-        diagnostics.ajouter(d);
+        if (journal != null) journal.ajouter(d);
+        else diagnostics.ajouter(d);
     }
 
 
@@ -85,6 +142,11 @@ public final class DiagnosticCollector {
         ajouter(Diagnostic.erreur(message, intervalle));
     }
 
+    /** Erreur localisée par un span (offsets) : ligne/colonne résolues au formatage. */
+    public void erreur(String message, long span) {
+        ajouter(Diagnostic.builder(Gravite.ERREUR, message).span(span).build());
+    }
+
     public void avertissement(String message) {
         ajouter(Diagnostic.avertissement(message));
     }
@@ -144,43 +206,36 @@ public final class DiagnosticCollector {
     // Requêtes / stats
     // -------------------------------------------------------------------------
 
+    // Compteurs et index maintenus par Diagnostics à l'ajout : pas de parcours ici.
+
     public boolean aDesErreurs() {
-        for (Diagnostic d : diagnostics.tous()) {
-            if (d.gravite() == Gravite.ERREUR) return true;
-        }
-        return false;
+        return (journal != null) ? journal.aDesErreurs() : diagnostics.aDesErreurs();
     }
 
     public int nombreErreurs() {
-        int n = 0;
-        for (Diagnostic d : diagnostics.tous()) {
-            if (d.gravite() == Gravite.ERREUR) n++;
-        }
-        return n;
+        return (journal != null) ? journal.nombre(Gravite.ERREUR) : diagnostics.nbErreurs();
     }
 
     public int nombreAvertissements() {
-        int n = 0;
-        for (Diagnostic d : diagnostics.tous()) {
-            if (d.gravite() == Gravite.AVERTISSEMENT) n++;
-        }
-        return n;
+        return (journal != null) ? journal.nombre(Gravite.AVERTISSEMENT) : diagnostics.nombre(Gravite.AVERTISSEMENT);
     }
 
+    /**
+     * Vue non modifiable (ordre d'ajout ; ordre des positions en variante concurrente).
+     * Comme avertissements(), parSource() et formatTous() : sans tri ni copie si rien n'a changé.
+     */
     public List<Diagnostic> erreurs() {
-        List<Diagnostic> out = new ArrayList<>();
-        for (Diagnostic d : diagnostics.tous()) {
-            if (d.gravite() == Gravite.ERREUR) out.add(d);
-        }
-        return out;
+        return diagnostics().parGravite(Gravite.ERREUR);
     }
 
+    /** Vue non modifiable (ordre d'ajout ; ordre des positions en variante concurrente). */
     public List<Diagnostic> avertissements() {
-        List<Diagnostic> out = new ArrayList<>();
-        for (Diagnostic d : diagnostics.tous()) {
-            if (d.gravite() == Gravite.AVERTISSEMENT) out.add(d);
-        }
-        return out;
+        return diagnostics().parGravite(Gravite.AVERTISSEMENT);
+    }
+
+    /** Diagnostics d'une source donnée (nom de fichier porté par Position.source()). */
+    public List<Diagnostic> parSource(String source) {
+        return diagnostics().parSource(source);
     }
 
     // Formatage
@@ -189,14 +244,16 @@ public final class DiagnosticCollector {
      * Si source == null, on tente la sourceParDefaut (sinon formatage "sans extrait").
      */
     public String formatTous(SourceTexte source) {
+        Diagnostics ds = diagnostics();
         SourceTexte src = (source != null) ? source : sourceParDefaut;
-        if (src != null) return diagnostics.formatTous(src);
+        if (src != null) return ds.formatTous(src);
 
         // Fallback : sans source, on affiche juste toString() (ou formatSansSource si tu en as un)
         StringBuilder sb = new StringBuilder();
-        for (Diagnostic d : diagnostics.tous()) {
+        for (Diagnostic d : ds.tous()) {
             sb.append(d.toString()).append("\n");
         }
+        sb.append(ds.noteLimite());
         return sb.toString().trim();
     }
 
@@ -2,30 +2,154 @@ package utils.diag;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Conteneur de diagnostics, indexé à l'insertion.
+ *
+ * - liste globale (ordre d'ajout)
+ * - une liste + un compteur par gravité  => aDesErreurs()/nbErreurs() en O(1)
+ * - une liste par source (Position.source(), null = sans source)
+ * - limite d'erreurs optionnelle : au-delà, les erreurs sont comptées mais plus stockées,
+ *   et limiteAtteinte() indique aux phases qu'elles peuvent s'arrêter.
+ * - lecture seule une fois figé (instantanés de JournalDiagnostics) : les mutations lèvent
+ *   UnsupportedOperationException au lieu d'être perdues en silence.
+ */
 public final class Diagnostics {
 
+    /** 0 = pas de limite. */
+    public static final int SANS_LIMITE = 0;
+
     private final List<Diagnostic> liste = new ArrayList<>();
+    private final EnumMap<Gravite, List<Diagnostic>> parGravite = new EnumMap<>(Gravite.class);
+    private final Map<String, List<Diagnostic>> parSource = new LinkedHashMap<>();
+
+    private int limiteErreurs = SANS_LIMITE;
+    private int erreursIgnorees;
+    private boolean lectureSeule;
 
-    public void ajouter(Diagnostic d) {
-        if (d != null) liste.add(d);
+    public Diagnostics() {
+        for (Gravite g : Gravite.values()) parGravite.put(g, new ArrayList<>());
+    }
+
+    /**
+     * Ajoute d (null => ignoré).
+     * @return false si d a été écarté parce que la limite d'erreurs est atteinte
+     */
+    public boolean ajouter(Diagnostic d) {
+        verifierModifiable();
+        if (d == null) return true;
+        if (d.estErreur() && limiteAtteinte()) {
+            erreursIgnorees++;
+            return false;
+        }
+        liste.add(d);
+        parGravite.get(d.gravite()).add(d);
+        parSource.computeIfAbsent(d.source(), k -> new ArrayList<>()).add(d);
+        return true;
     }
 
     public List<Diagnostic> tous() {
         return Collections.unmodifiableList(liste);
     }
 
+    public int taille() {
+        return liste.size();
+    }
+
+    /* =========================
+     *  REQUÊTES INDEXÉES
+     * ========================= */
+
     public boolean aDesErreurs() {
-        return liste.stream().anyMatch(Diagnostic::estErreur);
+        return !parGravite.get(Gravite.ERREUR).isEmpty();
     }
 
     public int nbErreurs() {
-        return (int) liste.stream().filter(Diagnostic::estErreur).count();
+        return nombre(Gravite.ERREUR);
+    }
+
+    public int nombre(Gravite gravite) {
+        return parGravite.get(gravite).size();
+    }
+
+    /** Vue non modifiable, dans l'ordre d'ajout. */
+    public List<Diagnostic> parGravite(Gravite gravite) {
+        return Collections.unmodifiableList(parGravite.get(gravite));
+    }
+
+    /** Vue non modifiable des diagnostics d'une source (null = diagnostics sans source). */
+    public List<Diagnostic> parSource(String source) {
+        List<Diagnostic> l = parSource.get(source);
+        return (l == null) ? List.of() : Collections.unmodifiableList(l);
+    }
+
+    /** Sources rencontrées, dans l'ordre de première apparition. */
+    public List<String> sources() {
+        List<String> out = new ArrayList<>();
+        for (String s : parSource.keySet()) {
+            if (s != null) out.add(s);
+        }
+        return out;
+    }
+
+    /* =========================
+     *  LIMITE D'ERREURS
+     * ========================= */
+
+    public int limiteErreurs() {
+        return limiteErreurs;
+    }
+
+    /** n <= 0 => pas de limite. */
+    public void definirLimiteErreurs(int n) {
+        verifierModifiable();
+        this.limiteErreurs = Math.max(n, SANS_LIMITE);
+    }
+
+    public boolean limiteAtteinte() {
+        return limiteErreurs > 0 && nbErreurs() >= limiteErreurs;
+    }
+
+    /** Erreurs reçues après que la limite a été atteinte (non stockées). */
+    public int erreursIgnorees() {
+        return erreursIgnorees;
+    }
+
+    // Utilisé par JournalDiagnostics.instantane() pour reporter le compte des erreurs écartées.
+    void reporterIgnorees(int n) {
+        erreursIgnorees += n;
     }
 
     public void vider() {
+        verifierModifiable();
         liste.clear();
+        for (List<Diagnostic> l : parGravite.values()) l.clear();
+        parSource.clear();
+        erreursIgnorees = 0;
+    }
+
+    /* =========================
+     *  LECTURE SEULE
+     * ========================= */
+
+    public boolean estLectureSeule() {
+        return lectureSeule;
+    }
+
+    // Appelé par JournalDiagnostics une fois l'instantané rempli.
+    Diagnostics figer() {
+        lectureSeule = true;
+        return this;
+    }
+
+    private void verifierModifiable() {
+        if (lectureSeule) {
+            throw new UnsupportedOperationException("Diagnostics en lecture seule (instantané d'un collecteur concurrent)");
+        }
     }
 
     public String formatTous(SourceTexte source) {
@@ -33,6 +157,14 @@ public final class Diagnostics {
         for (Diagnostic d : liste) {
             sb.append(d.formatAvecSource(source)).append("\n\n");
         }
+        sb.append(noteLimite());
         return sb.toString().trim();
     }
+
+    /** Ligne de fin signalant les erreurs écartées ("" si aucune). */
+    String noteLimite() {
+        if (erreursIgnorees == 0) return "";
+        return "... " + erreursIgnorees + " erreur(s) supplémentaire(s) non affichée(s) (limite : "
+                + limiteErreurs + ")";
+    }
 }
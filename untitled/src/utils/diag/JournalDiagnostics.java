@@ -0,0 +1,153 @@
+package utils.diag;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journal de diagnostics sans verrou, partageable entre threads.
+ *
+ * - ajout : file chaînée lock-free (ConcurrentLinkedQueue) + compteurs atomiques par gravité ;
+ * - limite d'erreurs : réservation d'une place par CAS sur le compteur d'erreurs ;
+ * - lecture : instantané trié par Position, donc indépendant de l'entrelacement des threads ;
+ *   figé (lecture seule) et réutilisé tant qu'aucun ajout ni vider() n'a eu lieu.
+ *
+ * Utilisé par DiagnosticCollector.concurrent() ; rarement utile directement.
+ */
+public final class JournalDiagnostics {
+
+    /**
+     * Ordre déterministe : sans position d'abord, puis (source, ligne, colonne),
+     * puis gravité décroissante, code, message. Le numéro d'ajout ne sert qu'en dernier recours.
+     */
+    private static final Comparator<Entree> ORDRE = Comparator
+            .comparing((Entree e) -> debut(e.diagnostic()), Comparator.nullsFirst(
+                    Comparator.comparing(Position::source, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                            .thenComparing(Comparator.naturalOrder())))
+            .thenComparing(e -> -e.diagnostic().gravite().niveau())
+            .thenComparing(e -> e.diagnostic().code(), Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(e -> e.diagnostic().message())
+            .thenComparingLong(Entree::numero);
+
+    private record Entree(long numero, Diagnostic diagnostic) {}
+
+    private record Instantane(long version, Diagnostics diagnostics) {}
+
+    private final ConcurrentLinkedQueue<Entree> file = new ConcurrentLinkedQueue<>();
+    private final AtomicLong numeros = new AtomicLong();
+    private final AtomicIntegerArray parGravite = new AtomicIntegerArray(Gravite.values().length);
+    private final AtomicInteger erreursIgnorees = new AtomicInteger();
+
+    private volatile int limiteErreurs = Diagnostics.SANS_LIMITE;
+
+    // Incrémentée APRÈS chaque modification : un instantané étiqueté v contient au moins
+    // toutes les modifications comptées dans v.
+    private final AtomicLong version = new AtomicLong();
+    private volatile Instantane cache;
+
+    /** @return false si d a été écarté (limite d'erreurs atteinte). */
+    public boolean ajouter(Diagnostic d) {
+        if (d == null) return true;
+        if (d.estErreur() && !reserverErreur()) {
+            erreursIgnorees.incrementAndGet();
+            version.incrementAndGet();
+            return false;
+        }
+        if (!d.estErreur()) parGravite.incrementAndGet(d.gravite().ordinal());
+        file.add(new Entree(numeros.getAndIncrement(), d));
+        version.incrementAndGet();
+        return true;
+    }
+
+    // CAS : deux threads ne peuvent pas dépasser la limite ensemble.
+    private boolean reserverErreur() {
+        int idx = Gravite.ERREUR.ordinal();
+        while (true) {
+            int n = parGravite.get(idx);
+            int lim = limiteErreurs;
+            if (lim > 0 && n >= lim) return false;
+            if (parGravite.compareAndSet(idx, n, n + 1)) return true;
+        }
+    }
+
+    /* =========================
+     *  COMPTEURS (sans parcours)
+     * ========================= */
+
+    public int nombre(Gravite gravite) {
+        return parGravite.get(gravite.ordinal());
+    }
+
+    public boolean aDesErreurs() {
+        return nombre(Gravite.ERREUR) > 0;
+    }
+
+    public int taille() {
+        int n = 0;
+        for (int i = 0; i < parGravite.length(); i++) n += parGravite.get(i);
+        return n;
+    }
+
+    public int limiteErreurs() {
+        return limiteErreurs;
+    }
+
+    public void definirLimiteErreurs(int n) {
+        this.limiteErreurs = Math.max(n, Diagnostics.SANS_LIMITE);
+        version.incrementAndGet();
+    }
+
+    public boolean limiteAtteinte() {
+        int lim = limiteErreurs;
+        return lim > 0 && nombre(Gravite.ERREUR) >= lim;
+    }
+
+    public int erreursIgnorees() {
+        return erreursIgnorees.get();
+    }
+
+    /* =========================
+     *  INSTANTANÉS
+     * ========================= */
+
+    /** Diagnostics présents à l'instant de l'appel, triés par position (liste non modifiable). */
+    public List<Diagnostic> tries() {
+        return instantane().tous();
+    }
+
+    /**
+     * Copie séquentielle triée, en lecture seule (index, formatage, etc. de Diagnostics).
+     * Fusion et tri refaits seulement si le journal a changé depuis le dernier appel.
+     */
+    public Diagnostics instantane() {
+        long v = version.get();
+        Instantane c = cache;
+        if (c != null && c.version() == v) return c.diagnostics();
+
+        List<Entree> entrees = new ArrayList<>(file);
+        entrees.sort(ORDRE);
+        Diagnostics ds = new Diagnostics();
+        ds.definirLimiteErreurs(limiteErreurs);
+        for (Entree e : entrees) ds.ajouter(e.diagnostic());
+        ds.reporterIgnorees(erreursIgnorees.get());
+        cache = new Instantane(v, ds.figer());
+        return ds;
+    }
+
+    /** À n'appeler qu'une fois les producteurs arrêtés. */
+    public void vider() {
+        file.clear();
+        for (int i = 0; i < parGravite.length(); i++) parGravite.set(i, 0);
+        erreursIgnorees.set(0);
+        version.incrementAndGet();
+    }
+
+    private static Position debut(Diagnostic d) {
+        Intervalle i = d.intervalle();
+        return (i == null) ? null : i.debut();
+    }
+}
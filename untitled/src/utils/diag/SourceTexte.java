@@ -1,42 +1,120 @@
 package utils.diag;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Représentation d'un texte source avec indexation par lignes
  * pour produire des messages de diagnostic lisibles.
+ *
+ * L'index (offset de début de chaque ligne) n'est construit qu'au premier accès :
+ * une compilation sans diagnostic ne paie rien. Les lignes ne sont extraites
+ * (substring) qu'à la demande. Séparateurs reconnus : ceux de \R
+ * (\r\n, \n, \r, U+000B, U+000C, U+0085, U+2028, U+2029).
  */
 public final class SourceTexte {
 
     private final String nom;
-    private final List<String> lignes;
+    private final String texte;
+
+    /** debutsLignes[i] = offset du 1er caractère de la ligne i+1 ; null tant que non calculé. */
+    private volatile int[] debutsLignes;
 
     public SourceTexte(String nom, String texte) {
         this.nom = (nom == null || nom.isBlank()) ? null : nom;
-        this.lignes = decouperEnLignes(texte == null ? "" : texte);
+        this.texte = (texte == null) ? "" : texte;
     }
 
     public String nom() {
         return nom;
     }
 
+    public String texte() {
+        return texte;
+    }
+
     public int nbLignes() {
-        return lignes.size();
+        return index().length;
     }
 
     /** ligne indexée à partir de 1. */
     public String ligne(int noLigne) {
-        if (noLigne < 1 || noLigne > lignes.size()) return null;
-        return lignes.get(noLigne - 1);
+        int[] idx = index();
+        if (noLigne < 1 || noLigne > idx.length) return null;
+        int debut = idx[noLigne - 1];
+        return texte.substring(debut, finContenu(idx, noLigne - 1));
+    }
+
+    /** Offset du début de la ligne (1-based), ou -1 si hors limites. */
+    public int debutLigne(int noLigne) {
+        int[] idx = index();
+        if (noLigne < 1 || noLigne > idx.length) return -1;
+        return idx[noLigne - 1];
+    }
+
+    /* =========================
+     *  OFFSET -> LIGNE / COLONNE
+     * ========================= */
+
+    /** Ligne (1-based) contenant l'offset ; borné à [0, longueur]. */
+    public int ligneDe(int offset) {
+        int[] idx = index();
+        int o = Math.max(0, Math.min(offset, texte.length()));
+        int i = Arrays.binarySearch(idx, o);
+        // pas trouvé : i = -(point d'insertion) - 1 ; la ligne est celle qui précède
+        return (i >= 0) ? i + 1 : -i - 1;
+    }
+
+    /** Colonne (1-based) de l'offset dans sa ligne. */
+    public int colonneDe(int offset) {
+        int o = Math.max(0, Math.min(offset, texte.length()));
+        return o - index()[ligneDe(o) - 1] + 1;
+    }
+
+    public Position position(int offset) {
+        int l = ligneDe(offset);
+        int o = Math.max(0, Math.min(offset, texte.length()));
+        return new Position(nom, l, o - index()[l - 1] + 1);
+    }
+
+    /* =========================
+     *  INDEX PARESSEUX
+     * ========================= */
+
+    // Construction idempotente : une course entre threads produit deux tableaux identiques.
+    private int[] index() {
+        int[] idx = debutsLignes;
+        if (idx == null) {
+            idx = construireIndex(texte);
+            debutsLignes = idx;
+        }
+        return idx;
+    }
+
+    private static int[] construireIndex(String s) {
+        int[] out = new int[16];
+        int n = 0;
+        out[n++] = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (!estSeparateur(c)) continue;
+            if (c == '\r' && i + 1 < len && s.charAt(i + 1) == '\n') i++;
+            if (n == out.length) out = Arrays.copyOf(out, n * 2);
+            out[n++] = i + 1;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    // Fin (exclue) du contenu de la ligne i : avant son séparateur.
+    private int finContenu(int[] idx, int i) {
+        if (i + 1 >= idx.length) return texte.length();
+        int fin = idx[i + 1] - 1;
+        if (texte.charAt(fin) == '\n' && fin > idx[i] && texte.charAt(fin - 1) == '\r') fin--;
+        return fin;
     }
 
-    private static List<String> decouperEnLignes(String s) {
-        // On garde une logique simple et fiable.
-        String[] parts = s.split("\\R", -1);
-        List<String> out = new ArrayList<>(parts.length);
-        for (String p : parts) out.add(p);
-        if (out.isEmpty()) out.add("");
-        return out;
+    private static boolean estSeparateur(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\u000C'
+                || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 }
@@ -0,0 +1,56 @@
+package utils.diag;
+
+/**
+ * Étendue compacte dans un texte source : [debut, fin) en offsets de caractères,
+ * tenue dans un seul long (debut sur les 32 bits hauts, fin sur les 32 bits bas).
+ *
+ * Aucun objet n'est alloué tant que l'étendue n'est pas affichée : la conversion
+ * en ligne/colonne passe par {@link SourceTexte} au moment du rendu.
+ */
+public final class Span {
+
+    /** Étendue absente (nœud synthétique, jeton créé hors lexeur...). */
+    public static final long AUCUN = -1L;
+
+    private Span() {}
+
+    public static long de(int debut, int fin) {
+        if (debut < 0 || fin < debut) throw new IllegalArgumentException("span invalide: [" + debut + ", " + fin + ")");
+        return ((long) debut << 32) | (fin & 0xFFFFFFFFL);
+    }
+
+    public static boolean estDefini(long span) {
+        return span != AUCUN;
+    }
+
+    public static int debut(long span) {
+        return (int) (span >>> 32);
+    }
+
+    public static int fin(long span) {
+        return (int) span;
+    }
+
+    public static int longueur(long span) {
+        return fin(span) - debut(span);
+    }
+
+    /** Plus petite étendue couvrant a et b (un côté AUCUN => l'autre). */
+    public static long englobant(long a, long b) {
+        if (!estDefini(a)) return b;
+        if (!estDefini(b)) return a;
+        return de(Math.min(debut(a), debut(b)), Math.max(fin(a), fin(b)));
+    }
+
+    /** Résolution en Intervalle (fin exclusive => dernière colonne incluse). */
+    public static Intervalle resoudre(long span, SourceTexte source) {
+        if (!estDefini(span) || source == null) return null;
+        Position d = source.position(debut(span));
+        if (longueur(span) <= 1) return Intervalle.at(d);
+        return new Intervalle(d, source.position(fin(span) - 1));
+    }
+
+    public static String enTexte(long span) {
+        return estDefini(span) ? "[" + debut(span) + ", " + fin(span) + ")" : "[]";
+    }
+}
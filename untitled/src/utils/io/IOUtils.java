@@ -13,6 +13,7 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
@@ -140,6 +141,62 @@ public final class IOUtils {
         }
     }
 
+    /* =========================
+     *  Écriture conditionnelle
+     * ========================= */
+
+    private static final int TAILLE_BLOC_COMPARAISON = 8192;
+
+    /**
+     * Vrai si le fichier existe et contient exactement contenu (encodé en UTF-8).
+     * Comparaison en flux : taille d'abord, puis bloc par bloc avec arrêt au premier écart
+     * (le fichier n'est jamais chargé en entier, et pas de hachage : pas de collision possible).
+     */
+    public static boolean contenuIdentique(Path fichier, String contenu) throws IOException {
+        Objects.requireNonNull(contenu, "contenu null");
+        return contenuIdentique(fichier, contenu.getBytes(UTF8));
+    }
+
+    public static boolean contenuIdentique(Path fichier, byte[] attendu) throws IOException {
+        Objects.requireNonNull(fichier, "fichier null");
+        Objects.requireNonNull(attendu, "attendu null");
+
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(fichier, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (!attrs.isRegularFile() || attrs.size() != attendu.length) return false;
+
+        byte[] bloc = new byte[Math.min(TAILLE_BLOC_COMPARAISON, Math.max(attendu.length, 1))];
+        try (InputStream in = Files.newInputStream(fichier)) {
+            int pos = 0;
+            int n;
+            while ((n = in.read(bloc)) > 0) {
+                if (pos + n > attendu.length) return false; // le fichier a grossi entre-temps
+                if (!Arrays.equals(bloc, 0, n, attendu, pos, pos + n)) return false;
+                pos += n;
+            }
+            return pos == attendu.length;
+        }
+    }
+
+    /**
+     * Écrit contenu seulement s'il diffère du fichier existant : date de modification
+     * inchangée sinon, donc pas de reconstruction en aval.
+     *
+     * @return true si le fichier a été (ré)écrit
+     */
+    public static boolean ecrireTexteSiChange(Path fichier, String contenu) throws IOException {
+        Objects.requireNonNull(contenu, "contenu null");
+        byte[] octets = contenu.getBytes(UTF8);
+        if (contenuIdentique(fichier, octets)) return false;
+        creerDossierParentSiBesoin(fichier);
+        Files.write(fichier, octets, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        return true;
+    }
+
     /* =========================
      *  Lecture/Écriture binaire
      * ========================= */
@@ -0,0 +1,148 @@
+package utils.lang;
+
+import java.util.Arrays;
+
+/**
+ * Table de hachage à clés int primitives (adressage ouvert, sondage linéaire).
+ *
+ * <p>Pas de boxing des clés ni d'objet Entry : deux tableaux parallèles.
+ * Suppression par décalage arrière (pas de pierres tombales).
+ * Non thread-safe.
+ *
+ * @param <V> type des valeurs (null interdit : null signifie "absent")
+ */
+public final class IntHashMap<V> {
+
+    @FunctionalInterface
+    public interface Visiteur<V> {
+        void visiter(int cle, V valeur);
+    }
+
+    private int[] cles;
+    private Object[] valeurs;
+    private int taille;
+    private int masque;
+
+    public IntHashMap() {
+        this(8);
+    }
+
+    public IntHashMap(int capaciteInitiale) {
+        int cap = Integer.highestOneBit(Math.max(4, capaciteInitiale * 2 - 1)) << 1;
+        allouer(cap);
+    }
+
+    private void allouer(int cap) {
+        cles = new int[cap];
+        valeurs = new Object[cap];
+        masque = cap - 1;
+    }
+
+    private static int melanger(int k) {
+        int h = k * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int indice(int cle) {
+        int i = melanger(cle) & masque;
+        while (valeurs[i] != null) {
+            if (cles[i] == cle) return i;
+            i = (i + 1) & masque;
+        }
+        return -1 - i; // emplacement libre
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int cle) {
+        int i = indice(cle);
+        return (i >= 0) ? (V) valeurs[i] : null;
+    }
+
+    public V getOrDefault(int cle, V defaut) {
+        V v = get(cle);
+        return (v != null) ? v : defaut;
+    }
+
+    public boolean containsKey(int cle) {
+        return indice(cle) >= 0;
+    }
+
+    /** @return l'ancienne valeur, ou null */
+    @SuppressWarnings("unchecked")
+    public V put(int cle, V valeur) {
+        if (valeur == null) throw new IllegalArgumentException("valeur null interdite");
+        int i = indice(cle);
+        if (i >= 0) {
+            V ancien = (V) valeurs[i];
+            valeurs[i] = valeur;
+            return ancien;
+        }
+        i = -1 - i;
+        cles[i] = cle;
+        valeurs[i] = valeur;
+        if (++taille * 2 > valeurs.length) agrandir();
+        return null;
+    }
+
+    /** @return la valeur retirée, ou null */
+    @SuppressWarnings("unchecked")
+    public V remove(int cle) {
+        int i = indice(cle);
+        if (i < 0) return null;
+        V ancien = (V) valeurs[i];
+        valeurs[i] = null;
+        taille--;
+
+        // décalage arrière : referme le trou pour que les sondages suivants restent valides
+        int trou = i;
+        int j = (i + 1) & masque;
+        while (valeurs[j] != null) {
+            int ideal = melanger(cles[j]) & masque;
+            boolean deplacer = (trou <= j) ? (ideal <= trou || ideal > j) : (ideal <= trou && ideal > j);
+            if (deplacer) {
+                cles[trou] = cles[j];
+                valeurs[trou] = valeurs[j];
+                valeurs[j] = null;
+                trou = j;
+            }
+            j = (j + 1) & masque;
+        }
+        return ancien;
+    }
+
+    public int size() {
+        return taille;
+    }
+
+    public boolean isEmpty() {
+        return taille == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(valeurs, null);
+        taille = 0;
+    }
+
+    /** Parcours dans l'ordre interne (non spécifié). */
+    @SuppressWarnings("unchecked")
+    public void forEach(Visiteur<? super V> v) {
+        for (int i = 0; i < valeurs.length; i++) {
+            if (valeurs[i] != null) v.visiter(cles[i], (V) valeurs[i]);
+        }
+    }
+
+    private void agrandir() {
+        int[] anciennesCles = cles;
+        Object[] anciennesValeurs = valeurs;
+        allouer(anciennesValeurs.length * 2);
+        taille = 0;
+        for (int i = 0; i < anciennesValeurs.length; i++) {
+            if (anciennesValeurs[i] != null) {
+                int j = -1 - indice(anciennesCles[i]);
+                cles[j] = anciennesCles[i];
+                valeurs[j] = anciennesValeurs[i];
+                taille++;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package utils.lang;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table de symboles d'une compilation : chaque nom distinct reçoit un petit entier (0, 1, 2...).
+ *
+ * <p>Utilité :
+ * <ul>
+ *   <li>les tables de portées et de types sont indexées par int (pas de hachage de String) ;</li>
+ *   <li>toutes les occurrences d'un même nom partagent une seule instance (canonique()).</li>
+ * </ul>
+ *
+ * <p>Thread-safe : lectures sans verrou, seule l'attribution d'un nouvel id est synchronisée
+ * (le parse et la génération parallèles peuvent partager l'interneur).
+ *
+ * <p>Les ids ne sont jamais libérés : une session longue (--watch, serveur de langage) repart
+ * d'un interneur neuf quand aCompacter() le signale.
+ */
+public final class Interneur {
+
+    /** Id renvoyé par chercher() pour un nom jamais vu. */
+    public static final int AUCUN = -1;
+
+    /** aCompacter() : au-delà de FACTEUR_COMPACTAGE fois les noms vivants... */
+    public static final int FACTEUR_COMPACTAGE = 4;
+    /** ... et jamais en dessous de ce nombre de noms (petits programmes : pas de va-et-vient). */
+    public static final int SEUIL_COMPACTAGE = 1024;
+
+    /** Id d'un nom résolu dans un interneur donné : cache d'un nœud d'AST, publié d'un bloc (champs final). */
+    public record Resolu(Interneur interneur, int id) {}
+
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    // noms[id] ; publié (écriture volatile) après l'écriture de la case
+    private volatile String[] noms = new String[64];
+    private int taille; // protégé par this
+
+    /** Id de s, attribué au premier appel. */
+    public int id(String s) {
+        Integer i = ids.get(s);
+        return (i != null) ? i : attribuer(s);
+    }
+
+    /** Id de s sans l'attribuer : AUCUN si s n'a jamais été interné. */
+    public int chercher(String s) {
+        Integer i = ids.get(s);
+        return (i != null) ? i : AUCUN;
+    }
+
+    public String nom(int id) {
+        String[] t = noms;
+        if (id < 0 || id >= t.length || t[id] == null) {
+            throw new IllegalArgumentException("Symbole inconnu: " + id);
+        }
+        return t[id];
+    }
+
+    /** Instance partagée égale à s (null => null). */
+    public String canonique(String s) {
+        return (s == null) ? null : nom(id(s));
+    }
+
+    public synchronized int taille() {
+        return taille;
+    }
+
+    /**
+     * Vrai quand la table a grossi bien au-delà des noms réellement utilisés par la
+     * dernière source (Lexeur.identifiantsDistincts()) : le propriétaire doit la remplacer par un
+     * interneur neuf, avec tout ce qui est indexé par ses ids (analyse sémantique comprise).
+     */
+    public boolean aCompacter(int vivants) {
+        return taille() > Math.max(SEUIL_COMPACTAGE, (long) FACTEUR_COMPACTAGE * vivants);
+    }
+
+    private synchronized int attribuer(String s) {
+        Integer deja = ids.get(s);
+        if (deja != null) return deja;
+
+        String[] t = noms;
+        if (taille == t.length) t = Arrays.copyOf(t, taille * 2);
+        t[taille] = s;
+        noms = t;
+        ids.put(s, taille);
+        return taille++;
+    }
+}
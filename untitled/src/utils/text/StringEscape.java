@@ -85,6 +85,30 @@ public final class StringEscape {
         return "'" + echapperPourJavaChar(c) + "'";
     }
 
+    /**
+     * Contenu de littéral déjà échappé dont les caractères de la zone privée Unicode
+     * (U+E000 à U+F8FF) sont réécrits en \\uXXXX. Le générateur s'en sert comme marques
+     * (carte source) : un littéral ne doit jamais les contenir tels quels.
+     */
+    public static String echapperZonePrivee(String s) {
+        if (s == null) return "";
+        int i = 0;
+        while (i < s.length() && !estZonePrivee(s.charAt(i))) i++;
+        if (i == s.length()) return s;
+
+        StringBuilder out = new StringBuilder(s.length() + 16).append(s, 0, i);
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (estZonePrivee(c)) out.append(escapeUnicode(c));
+            else out.append(c);
+        }
+        return out.toString();
+    }
+
+    public static boolean estZonePrivee(char c) {
+        return c >= '\uE000' && c <= '\uF8FF';
+    }
+
     // -------------------------------------------------------------------------
     // Déséchappement (utile si tu stockes des chaînes avec \n, \t,
     // -------------------------------------------------------------------------
@@ -152,7 +176,7 @@ public final class StringEscape {
     private static boolean estControleOuNonImprimable(char c) {
         // contrôle ASCII, DEL, ou caractères "suspects"
         // (tu peux élargir si besoin; ici on garde simple et sûr)
-        return c < 0x20 || c == 0x7F;
+        return c < 0x20 || c == 0x7F || estZonePrivee(c);
     }
 
     private static String escapeUnicode(char c) {